@@ -0,0 +1,32 @@
+package com.ticketnepal.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point for target/benchmarks.jar. Same options as JMH's own Main, but
+ * writes results as JSON to target/jmh-result.json unless -rf/-rff are given,
+ * so runs from different commits can be diffed or fed to a JMH visualizer.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar                       # everything
+ * java -jar target/benchmarks.jar EventFilter -p catalogSize=10000
+ * java -jar target/benchmarks.jar -rff before.json Jwt
+ * </pre>
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add(0, "json");
+            options.add(0, "-rf");
+        }
+        if (!options.contains("-rff")) {
+            options.add(0, "target/jmh-result.json");
+            options.add(0, "-rff");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(String[]::new));
+    }
+}
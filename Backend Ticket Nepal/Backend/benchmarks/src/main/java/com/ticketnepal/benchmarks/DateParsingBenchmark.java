@@ -0,0 +1,28 @@
+package com.ticketnepal.benchmarks;
+
+import com.ticketnepal.util.EventFilters;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * parseToLocalDateTime for both stored formats. Offset values first fail the
+ * local parse, so they pay for a thrown DateTimeParseException.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateParsingBenchmark {
+
+    @Param({"2025-07-22T13:00", "2025-07-22T13:00:00Z", "2025-07-22T13:00:00+05:45"})
+    public String value;
+
+    @Benchmark
+    public LocalDateTime parseToLocalDateTime() {
+        return EventFilters.parseToLocalDateTime(value);
+    }
+}
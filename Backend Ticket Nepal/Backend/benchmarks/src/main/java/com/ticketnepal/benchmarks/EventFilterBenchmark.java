@@ -0,0 +1,75 @@
+package com.ticketnepal.benchmarks;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.util.EventFilters;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GET /api/events search over synthetic catalogs, after the events are
+ * loaded from Mongo. Every event also goes through the "ended over a day ago"
+ * date parse, so the unfiltered case is the baseline cost per catalog size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventFilterBenchmark {
+
+    private static final String[] CATEGORIES = {"Music", "Tech", "Art", "Sports", "Food"};
+    private static final String[] CITIES = {"Kathmandu", "Pokhara", "Lalitpur", "Bhaktapur", "Chitwan", "Biratnagar"};
+
+    @Param({"100", "1000", "10000"})
+    public int catalogSize;
+
+    private List<Event> catalog;
+    private LocalDateTime now;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        now = LocalDateTime.of(2025, 7, 1, 12, 0);
+        catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            Event event = new Event();
+            event.setId("event-" + i);
+            event.setName("Event " + i + " " + CATEGORIES[i % CATEGORIES.length] + " Night");
+            event.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            event.setLocation(CITIES[random.nextInt(CITIES.length)] + ", Nepal");
+            event.setOrganizer("organizer-" + random.nextInt(50));
+            LocalDateTime start = now.plusDays(random.nextInt(120) - 30).withHour(18);
+            // Mix both stored formats: plain local and offset ('Z')
+            event.setEventStart(i % 2 == 0 ? start.toString() : start + "Z");
+            event.setEventEnd(i % 2 == 0 ? start.plusHours(4).toString() : start.plusHours(4) + "Z");
+            event.setDeleted(random.nextInt(20) == 0);
+            catalog.add(event);
+        }
+    }
+
+    @Benchmark
+    public List<Event> noFilters() {
+        return EventFilters.filter(catalog, null, null, null, null, null, now);
+    }
+
+    @Benchmark
+    public List<Event> byCategory() {
+        return EventFilters.filter(catalog, "Music", null, null, null, null, now);
+    }
+
+    @Benchmark
+    public List<Event> textSearch() {
+        return EventFilters.filter(catalog, "all", "pokhara", "night", null, null, now);
+    }
+
+    @Benchmark
+    public List<Event> byDate() {
+        return EventFilters.filter(catalog, null, null, null, null, "2025-07-15", now);
+    }
+}
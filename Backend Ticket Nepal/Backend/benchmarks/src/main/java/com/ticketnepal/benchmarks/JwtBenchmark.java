@@ -0,0 +1,87 @@
+package com.ticketnepal.benchmarks;
+
+import com.ticketnepal.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil as used per request: issuing a token at login, and verifying one in
+ * the authentication filter, both with the verified-claims cache (repeat
+ * requests with the same token) and without it (first request per token).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    // Far more distinct tokens than the uncached instance can hold, so its lookups miss
+    private static final int COLD_TOKENS = 20_000;
+
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+    private String[] coldTokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        String encoded = Base64.getEncoder().encodeToString(secret);
+
+        cachingJwtUtil = newJwtUtil(encoded, 50_000);
+        uncachedJwtUtil = newJwtUtil(encoded, 16);
+        token = cachingJwtUtil.generateToken("64b7f0c2e4b0a1a2b3c4d5e6", "user@example.com", "Customer");
+        coldTokens = new String[COLD_TOKENS];
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            coldTokens[i] = cachingJwtUtil.generateToken("user-" + i, "user" + i + "@example.com", "Customer");
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtUtil.generateToken("64b7f0c2e4b0a1a2b3c4d5e6", "user@example.com", "Customer");
+    }
+
+    @Benchmark
+    public Claims validateCached() {
+        return cachingJwtUtil.parseVerifiedClaims(token);
+    }
+
+    @Benchmark
+    public Claims validateUncached() {
+        String cold = coldTokens[next];
+        next = (next + 1) % COLD_TOKENS;
+        return uncachedJwtUtil.parseVerifiedClaims(cold);
+    }
+
+    // JwtUtil is a Spring bean configured through @Value fields; wire it by hand here
+    private static JwtUtil newJwtUtil(String secret, long claimsCacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        set(jwtUtil, "jwtSecret", secret);
+        set(jwtUtil, "jwtExpirationMs", 86_400_000L);
+        set(jwtUtil, "activeKeyId", "primary");
+        set(jwtUtil, "previousKeys", "");
+        set(jwtUtil, "claimsCacheMaxSize", claimsCacheMaxSize);
+        Method init = ReflectionUtils.findMethod(JwtUtil.class, "init");
+        ReflectionUtils.makeAccessible(init);
+        ReflectionUtils.invokeMethod(init, jwtUtil);
+        return jwtUtil;
+    }
+
+    private static void set(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
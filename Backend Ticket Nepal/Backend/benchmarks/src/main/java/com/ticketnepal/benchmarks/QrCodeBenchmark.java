@@ -0,0 +1,34 @@
+package com.ticketnepal.benchmarks;
+
+import com.ticketnepal.service.QrCodeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** QR PNG generation as done for every booked ticket and transaction (400x400). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QrCodeBenchmark {
+
+    @Param({"400"})
+    public int size;
+
+    private final QrCodeService qrCodeService = new QrCodeService(new SimpleMeterRegistry());
+    private String transactionId;
+
+    @Setup
+    public void setup() {
+        transactionId = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public byte[] generateQrCode() throws Exception {
+        return qrCodeService.generateQrCode(transactionId, size, size);
+    }
+}
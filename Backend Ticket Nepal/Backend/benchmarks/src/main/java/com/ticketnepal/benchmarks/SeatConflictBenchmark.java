@@ -0,0 +1,62 @@
+package com.ticketnepal.benchmarks;
+
+import com.ticketnepal.util.SeatConflicts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Double-booking check at booking time: a small seat selection against the
+ * seats already sold for the event, with and without a conflict.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatConflictBenchmark {
+
+    @Param({"4", "10"})
+    public int selectionSize;
+
+    @Param({"10", "500", "5000"})
+    public int reservedCount;
+
+    private List<String> reserved;
+    private List<String> freeSelection;
+    private List<String> conflictingSelection;
+
+    @Setup
+    public void setup() {
+        reserved = new ArrayList<>(reservedCount);
+        for (int i = 0; i < reservedCount; i++) {
+            reserved.add(seat(i));
+        }
+        freeSelection = new ArrayList<>(selectionSize);
+        conflictingSelection = new ArrayList<>(selectionSize);
+        for (int i = 0; i < selectionSize; i++) {
+            freeSelection.add(seat(reservedCount + i));
+            conflictingSelection.add(seat(reservedCount + i));
+        }
+        // Last seat of the selection is taken, so the whole selection is scanned
+        conflictingSelection.set(selectionSize - 1, seat(reservedCount / 2));
+    }
+
+    @Benchmark
+    public String noConflict() {
+        return SeatConflicts.firstConflict(freeSelection, reserved);
+    }
+
+    @Benchmark
+    public String conflict() {
+        return SeatConflicts.firstConflict(conflictingSelection, reserved);
+    }
+
+    // A1..A50, B1..B50, ... like the seat maps organizers upload
+    private static String seat(int index) {
+        return (char) ('A' + (index / 50) % 26) + String.valueOf(index % 50 + 1) + (index >= 1300 ? "-" + index / 1300 : "");
+    }
+}
@@ -0,0 +1,171 @@
+package com.ticketnepal.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.EventSummary;
+import com.ticketnepal.model.SeatMap;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.TicketValidation;
+import com.ticketnepal.service.ImageVariant;
+import com.ticketnepal.service.ImageVariantService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response serialization for the largest and the most frequent payloads: the
+ * public event catalog, an event detail with its seat map, and a group QR
+ * validation (map-built as before vs the typed record). Run with
+ * {@code -prof gc} for allocation per request; the payload sizes, plain and
+ * gzipped, are printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final String[] CATEGORIES = {"Music", "Tech", "Art", "Sports", "Food"};
+
+    @Param({"reflection", "blackbird"})
+    public String accessors;
+
+    @Param({"1000"})
+    public int catalogSize;
+
+    private ObjectMapper mapper;
+    private List<EventSummary> catalog;
+    private Event detail;
+    private byte[] cachedDetail;
+    private List<Ticket> group;
+
+    @Setup
+    public void setup() throws IOException {
+        JsonMapper.Builder builder = JsonMapper.builder();
+        if ("blackbird".equals(accessors)) builder.addModule(new BlackbirdModule());
+        mapper = builder.build();
+
+        Set<String> fields = new LinkedHashSet<>(EventSummary.FIELDS);
+        catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            catalog.add(EventSummary.of(event(i, List.of()), fields, imageVariants("v1712345678/events/event-" + i + ".jpg"), null, null));
+        }
+        List<String> seats = new ArrayList<>();
+        for (int i = 0; i < 500; i++) seats.add((char) ('A' + i / 25) + String.valueOf(i % 25 + 1));
+        detail = event(0, seats);
+        detail.setImageVariants(imageVariants("v1712345678/events/event-0.jpg"));
+        cachedDetail = mapper.writeValueAsBytes(detail);
+        group = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setId("66a1f0c2e4b0a1b2c3d4e5f" + i);
+            ticket.setEventId(detail.getId());
+            ticket.setSeat(seats.get(i));
+            ticket.setCheckedIn(i % 2 == 0);
+            group.add(ticket);
+        }
+
+        report("catalog", mapper.writeValueAsBytes(catalog));
+        report("eventDetail", cachedDetail);
+        report("validation", mapper.writeValueAsBytes(validationRecord()));
+    }
+
+    @Benchmark
+    public byte[] catalog() throws IOException {
+        return mapper.writeValueAsBytes(catalog);
+    }
+
+    // Serialize plus the gzip the server now applies, i.e. the CPU a compressed response costs
+    @Benchmark
+    public byte[] catalogGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(catalog));
+    }
+
+    @Benchmark
+    public byte[] eventDetail() throws IOException {
+        return mapper.writeValueAsBytes(detail);
+    }
+
+    // What GET /api/events/{id} does on a cache hit: copy bytes already serialized
+    @Benchmark
+    public byte[] eventDetailCached() {
+        return cachedDetail.clone();
+    }
+
+    @Benchmark
+    public byte[] validationMap() throws IOException {
+        List<Map<String, Object>> ticketInfos = new ArrayList<>();
+        for (Ticket ticket : group) {
+            Map<String, Object> info = new HashMap<>();
+            info.put("ticketId", ticket.getId());
+            info.put("seat", ticket.getSeat());
+            info.put("checkedIn", ticket.isCheckedIn());
+            ticketInfos.add(info);
+        }
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("type", "multiple");
+        resp.put("event", detail);
+        resp.put("tickets", ticketInfos);
+        resp.put("transactionId", "txn");
+        return mapper.writeValueAsBytes(resp);
+    }
+
+    @Benchmark
+    public byte[] validationRecord() throws IOException {
+        return mapper.writeValueAsBytes(TicketValidation.group("multiple", detail, group, "txn", false));
+    }
+
+    private static Event event(int i, List<String> seats) {
+        Event event = new Event();
+        event.setId(String.format("66a1f0c2e4b0a1b2c3%06d", i));
+        event.setName("Event " + i + " " + CATEGORIES[i % CATEGORIES.length] + " Night");
+        event.setCategory(CATEGORIES[i % CATEGORIES.length]);
+        event.setLocation("Kathmandu, Nepal");
+        event.setDescription("An evening of " + CATEGORIES[i % CATEGORIES.length].toLowerCase() + " in the valley.");
+        event.setOrganizer("organizer-" + i % 50);
+        event.setImageUrl("https://res.cloudinary.com/demo/image/upload/v1712345678/events/event-" + i + ".jpg");
+        event.setPrice(1500.0);
+        event.setEventStart("2025-08-" + (10 + i % 20) + "T18:00");
+        event.setEventEnd("2025-08-" + (10 + i % 20) + "T22:00");
+        event.setSeatMap(SeatMap.fromLabels(seats));
+        return event;
+    }
+
+    private static Map<String, Map<String, String>> imageVariants(String key) {
+        Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            Map<String, String> byFormat = new LinkedHashMap<>();
+            for (String format : ImageVariant.FORMATS) {
+                byFormat.put(format, ImageVariantService.PATH_PREFIX + variant.getKey() + "/" + format + "/" + key);
+            }
+            variants.put(variant.getKey(), byFormat);
+        }
+        return variants;
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    private static void report(String payload, byte[] json) throws IOException {
+        System.out.printf("%s: %,d bytes, %,d gzipped%n", payload, json.length, gzip(json).length);
+    }
+}
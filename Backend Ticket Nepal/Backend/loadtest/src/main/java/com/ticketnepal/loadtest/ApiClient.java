@@ -0,0 +1,87 @@
+package com.ticketnepal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Blocking HTTP calls against the backend. Every call is timed and recorded
+ * under the given endpoint label, so URLs with ids still group together.
+ */
+public class ApiClient {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final EndpointStats stats;
+    private final ObjectMapper mapper;
+
+    public record Response(int status, JsonNode body) {
+        public boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    public ApiClient(HttpClient client, String baseUrl, EndpointStats stats, ObjectMapper mapper) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.mapper = mapper;
+    }
+
+    public Response get(String endpoint, String pathAndQuery, String token) {
+        return send(endpoint, request(pathAndQuery, token).GET().build());
+    }
+
+    public Response post(String endpoint, String path, Object body, String token) {
+        try {
+            HttpRequest request = request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                    .build();
+            return send(endpoint, request);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        int status = -1;
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            JsonNode body = response.body().length == 0 ? null : readJson(response.body());
+            return new Response(status, body);
+        } catch (IOException e) {
+            return new Response(-1, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, null);
+        } finally {
+            stats.record(endpoint, (System.nanoTime() - start) / 1000, status);
+        }
+    }
+
+    private JsonNode readJson(byte[] body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            return null; // non-JSON bodies (plain-text errors) are not needed by the scenarios
+        }
+    }
+}
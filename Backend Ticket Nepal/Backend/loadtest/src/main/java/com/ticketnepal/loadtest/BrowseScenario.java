@@ -0,0 +1,72 @@
+package com.ticketnepal.loadtest;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.User;
+import com.ticketnepal.util.Role;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Anonymous catalog browsing: listing, category and text search, event
+ * detail and seat availability, in roughly the mix the frontend produces.
+ */
+public class BrowseScenario implements Scenario {
+
+    private static final String[] CATEGORIES = {"Music", "Tech", "Art", "Sports", "Food"};
+
+    @Override
+    public String name() {
+        return "browse";
+    }
+
+    @Override
+    public ScenarioResult run(TestEnvironment env, LoadTestOptions options) throws Exception {
+        User organizer = env.createUsers(Role.ORGANIZER, "browse-organizer", 1).get(0);
+        List<Event> catalog = new ArrayList<>(options.catalogSize());
+        for (int i = 0; i < options.catalogSize(); i++) {
+            catalog.add(env.createEvent(organizer, "Event " + i, CATEGORIES[i % CATEGORIES.length],
+                    TestEnvironment.seatMap(100)));
+        }
+
+        EndpointStats stats = new EndpointStats();
+        ApiClient api = env.client(stats);
+        ExecutorService pool = Executors.newFixedThreadPool(options.browseClients());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        long started = System.nanoTime();
+        for (int c = 0; c < options.browseClients(); c++) {
+            pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Event event = catalog.get(random.nextInt(catalog.size()));
+                    int roll = random.nextInt(100);
+                    if (roll < 35) {
+                        api.get("GET /api/events", "/api/events", null);
+                    } else if (roll < 50) {
+                        api.get("GET /api/events?category", "/api/events?category=" + event.getCategory(), null);
+                    } else if (roll < 60) {
+                        api.get("GET /api/events?name", "/api/events?name=" + event.getName().replace(' ', '+'), null);
+                    } else if (roll < 85) {
+                        api.get("GET /api/events/{id}", "/api/events/" + event.getId(), null);
+                    } else {
+                        api.get("GET /api/tickets/reserved", "/api/tickets/reserved?eventId=" + event.getId(), null);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(options.durationSeconds() + 60, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> facts = new LinkedHashMap<>();
+        facts.put("catalogSize", catalog.size());
+        facts.put("clients", options.browseClients());
+        return new ScenarioResult(name(), seconds, stats.report(seconds), facts, List.of());
+    }
+}
@@ -0,0 +1,154 @@
+package com.ticketnepal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.StaffApplication;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.User;
+import com.ticketnepal.util.Role;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Doors open: attendees arrive in bursts and staff at several gates scan
+ * their QR code (validate/scan) and check in every ticket on it. A share of
+ * the codes is presented at two gates at the same moment (a forwarded
+ * screenshot); any ticket the backend admits more than once is a double check-in.
+ */
+public class DoorsOpenScenario implements Scenario {
+
+    private static final int MAX_GROUP_SIZE = 4;
+
+    @Override
+    public String name() {
+        return "doors-open";
+    }
+
+    @Override
+    public ScenarioResult run(TestEnvironment env, LoadTestOptions options) throws Exception {
+        Random random = new Random(7);
+        User organizer = env.createUsers(Role.ORGANIZER, "doors-organizer", 1).get(0);
+        User buyer = env.createUsers(Role.CUSTOMER, "doors-buyer", 1).get(0);
+        List<String> seatMap = TestEnvironment.seatMap(options.attendees());
+        Event event = env.createEvent(organizer, "Doors Open Festival", "Music", seatMap);
+
+        List<User> staff = env.createUsers(Role.STAFF, "doors-gate", options.gates());
+        List<StaffApplication> approvals = new ArrayList<>();
+        List<String> gateTokens = new ArrayList<>();
+        for (User member : staff) {
+            approvals.add(new StaffApplication(event.getId(), member.getId(), "APPROVED", UUID.randomUUID().toString()));
+            gateTokens.add(env.tokenFor(member));
+        }
+        env.mongo().insertAll(approvals);
+
+        // Sold tickets in groups of 1-4 sharing a transaction QR code, like real bookings
+        List<Ticket> tickets = new ArrayList<>(seatMap.size());
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < seatMap.size(); ) {
+            String transactionId = UUID.randomUUID().toString();
+            codes.add(transactionId);
+            int groupSize = Math.min(seatMap.size() - i, 1 + random.nextInt(MAX_GROUP_SIZE));
+            for (int j = 0; j < groupSize; j++, i++) {
+                Ticket ticket = new Ticket();
+                ticket.setEventId(event.getId());
+                ticket.setUserId(buyer.getId());
+                ticket.setSeat(seatMap.get(i));
+                ticket.setTransactionId(transactionId);
+                ticket.setPrice(event.getPrice());
+                tickets.add(ticket);
+            }
+        }
+        env.mongo().insertAll(tickets);
+
+        // Arrival order; duplicated codes come right after the original so two gates scan them together
+        List<String> arrivals = new ArrayList<>();
+        int duplicatedCodes = 0;
+        for (String code : codes) {
+            arrivals.add(code);
+            if (random.nextDouble() < options.duplicateScanRate()) {
+                arrivals.add(code);
+                duplicatedCodes++;
+            }
+        }
+
+        EndpointStats stats = new EndpointStats();
+        ApiClient api = env.client(stats);
+        Map<String, AtomicInteger> admissions = new ConcurrentHashMap<>();
+        AtomicInteger invalidScans = new AtomicInteger();
+        ExecutorService gates = Executors.newFixedThreadPool(options.gates());
+
+        long started = System.nanoTime();
+        for (int i = 0; i < arrivals.size(); i++) {
+            if (i > 0 && i % options.burstSize() == 0) {
+                Thread.sleep(options.burstIntervalMs()); // next wave of attendees reaches the gates
+            }
+            String code = arrivals.get(i);
+            String gateToken = gateTokens.get(i % gateTokens.size());
+            gates.submit(() -> admit(api, code, gateToken, admissions, invalidScans));
+        }
+        gates.shutdown();
+        gates.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        List<String> failures = new ArrayList<>();
+        admissions.forEach((ticketId, count) -> {
+            if (count.get() > 1) {
+                failures.add("Ticket " + ticketId + " checked in " + count.get() + " times");
+            }
+        });
+        long notCheckedIn = env.mongo().getCollection("tickets")
+                .countDocuments(new Document(Ticket.Fields.EVENT_ID, event.getId()).append(Ticket.Fields.CHECKED_IN, false));
+        if (notCheckedIn > 0) {
+            failures.add(notCheckedIn + " tickets were never checked in although their holders were scanned");
+        }
+        if (invalidScans.get() > 0) {
+            failures.add(invalidScans.get() + " valid QR codes were rejected at the gate");
+        }
+
+        Map<String, Object> facts = new LinkedHashMap<>();
+        facts.put("tickets", tickets.size());
+        facts.put("qrCodes", codes.size());
+        facts.put("duplicateScans", duplicatedCodes);
+        facts.put("gates", options.gates());
+        facts.put("ticketsAdmitted", admissions.size());
+        return new ScenarioResult(name(), seconds, stats.report(seconds), facts, failures);
+    }
+
+    private static void admit(ApiClient api, String code, String gateToken,
+                              Map<String, AtomicInteger> admissions, AtomicInteger invalidScans) {
+        ApiClient.Response scan = api.get("GET /api/tickets/validate/scan",
+                "/api/tickets/validate/scan?code=" + code, gateToken);
+        if (!scan.ok() || scan.body() == null) {
+            invalidScans.incrementAndGet();
+            return;
+        }
+        List<String> toCheckIn = new ArrayList<>();
+        JsonNode body = scan.body();
+        if ("single".equals(body.path("type").asText())) {
+            JsonNode ticket = body.path("ticket");
+            if (!ticket.path("checkedIn").asBoolean()) toCheckIn.add(ticket.path("id").asText());
+        } else {
+            for (JsonNode ticket : body.path("tickets")) {
+                if (!ticket.path("checkedIn").asBoolean()) toCheckIn.add(ticket.path("ticketId").asText());
+            }
+        }
+        for (String ticketId : toCheckIn) {
+            ApiClient.Response checkIn = api.post("POST /api/tickets/checkin", "/api/tickets/checkin",
+                    Map.of("ticketId", ticketId), gateToken);
+            if (checkIn.ok()) {
+                admissions.computeIfAbsent(ticketId, id -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ticketnepal.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latencies and outcomes per endpoint for one scenario run. */
+public class EndpointStats {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private static class Endpoint {
+        final ConcurrentLinkedQueue<Long> latenciesMicros = new ConcurrentLinkedQueue<>();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+    }
+
+    public record EndpointReport(String endpoint, long requests, double throughput,
+                                 double p50Ms, double p99Ms, double p999Ms, double maxMs,
+                                 long clientErrors, long serverErrors, double errorRate) {}
+
+    /** status is the HTTP status, or -1 when the request failed at the transport level. */
+    public void record(String endpoint, long micros, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+        stats.latenciesMicros.add(micros);
+        if (status < 0 || status >= 500) {
+            stats.serverErrors.increment();
+        } else if (status >= 400) {
+            stats.clientErrors.increment();
+        }
+    }
+
+    /**
+     * One row per endpoint. errorRate counts 5xx and transport failures only;
+     * 4xx answers (e.g. 409 for a taken seat) are expected under contention
+     * and reported separately.
+     */
+    public List<EndpointReport> report(double seconds) {
+        List<EndpointReport> rows = new ArrayList<>();
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            List<Long> sorted = new ArrayList<>(entry.getValue().latenciesMicros);
+            sorted.sort(null);
+            long serverErrors = entry.getValue().serverErrors.sum();
+            rows.add(new EndpointReport(entry.getKey(), sorted.size(), sorted.size() / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999), percentile(sorted, 1.0),
+                    entry.getValue().clientErrors.sum(), serverErrors,
+                    sorted.isEmpty() ? 0 : (double) serverErrors / sorted.size()));
+        }
+        return rows;
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) return 0;
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1000.0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ticketnepal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.User;
+import com.ticketnepal.util.Role;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-sale moment: every customer starts at once, polls /reserved and tries to
+ * book one or two of the best free seats until the event is sold out. A seat
+ * that ends up on more than one ticket is an oversell.
+ */
+public class FlashSaleScenario implements Scenario {
+
+    // Customers go for the front rows, so most attempts collide on the same few seats
+    private static final int BEST_SEATS_WINDOW = 10;
+
+    @Override
+    public String name() {
+        return "flash-sale";
+    }
+
+    @Override
+    public ScenarioResult run(TestEnvironment env, LoadTestOptions options) throws Exception {
+        User organizer = env.createUsers(Role.ORGANIZER, "flash-organizer", 1).get(0);
+        List<String> seatMap = TestEnvironment.seatMap(options.seats());
+        Event event = env.createEvent(organizer, "Flash Sale Concert", "Music", seatMap);
+        List<User> customers = env.createUsers(Role.CUSTOMER, "flash-customer", options.customers());
+
+        EndpointStats stats = new EndpointStats();
+        ApiClient api = env.client(stats);
+        Map<String, AtomicInteger> confirmedPerSeat = new ConcurrentHashMap<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        int emailsBefore = env.emailsReceived();
+
+        ExecutorService pool = Executors.newFixedThreadPool(customers.size());
+        CountDownLatch onSale = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        for (User customer : customers) {
+            String token = env.tokenFor(customer);
+            pool.submit(() -> {
+                onSale.await();
+                while (System.nanoTime() < deadline) {
+                    ApiClient.Response reserved = api.get("GET /api/tickets/reserved",
+                            "/api/tickets/reserved?eventId=" + event.getId(), token);
+                    if (!reserved.ok() || reserved.body() == null) continue;
+                    List<String> free = freeSeats(seatMap, reserved.body().path("reservedSeats"));
+                    if (free.isEmpty()) break;
+
+                    List<String> wanted = pickSeats(free);
+                    Map<String, Object> booking = new LinkedHashMap<>();
+                    booking.put("userId", customer.getId());
+                    booking.put("eventId", event.getId());
+                    booking.put("seats", wanted);
+                    ApiClient.Response result = api.post("POST /api/tickets", "/api/tickets", booking, token);
+                    if (result.status() == 201) {
+                        wanted.forEach(seat -> confirmedPerSeat.computeIfAbsent(seat, s -> new AtomicInteger()).incrementAndGet());
+                    } else if (result.status() == 409) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        long started = System.nanoTime();
+        onSale.countDown();
+        pool.shutdown();
+        pool.awaitTermination(options.durationSeconds() + 60, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        List<String> failures = new ArrayList<>();
+        // Server-side truth: more than one ticket document for the same seat
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(Ticket.Fields.EVENT_ID).is(event.getId())),
+                Aggregation.group(Ticket.Fields.SEAT).count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)));
+        for (Document row : env.mongo().aggregate(duplicates, "tickets", Document.class)) {
+            failures.add("Seat " + row.get("_id") + " oversold: " + row.get("count") + " tickets");
+        }
+        // Client-side view: two customers were both told the same seat was theirs
+        confirmedPerSeat.forEach((seat, count) -> {
+            if (count.get() > 1) {
+                failures.add("Seat " + seat + " confirmed to " + count.get() + " customers");
+            }
+        });
+
+        long ticketsInDb = env.mongo().getCollection("tickets").countDocuments(new Document(Ticket.Fields.EVENT_ID, event.getId()));
+        Map<String, Object> facts = new LinkedHashMap<>();
+        facts.put("capacity", seatMap.size());
+        facts.put("customers", customers.size());
+        facts.put("seatsConfirmed", confirmedPerSeat.size());
+        facts.put("ticketsStored", ticketsInDb);
+        facts.put("seatConflicts409", conflicts.get());
+        facts.put("emailsSent", env.emailsReceived() - emailsBefore);
+        facts.put("soldOut", confirmedPerSeat.size() >= seatMap.size());
+        return new ScenarioResult(name(), seconds, stats.report(seconds), facts, failures);
+    }
+
+    private static List<String> freeSeats(List<String> seatMap, JsonNode reservedSeats) {
+        Set<String> taken = new HashSet<>();
+        reservedSeats.forEach(seat -> taken.add(seat.asText()));
+        List<String> free = new ArrayList<>();
+        for (String seat : seatMap) {
+            if (!taken.contains(seat)) free.add(seat);
+        }
+        return free;
+    }
+
+    private static List<String> pickSeats(List<String> free) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int window = Math.min(free.size(), BEST_SEATS_WINDOW);
+        int count = Math.min(window, 1 + random.nextInt(2));
+        int first = random.nextInt(window - count + 1);
+        // Adjacent seats, like a couple booking together
+        return new ArrayList<>(free.subList(first, first + count));
+    }
+}
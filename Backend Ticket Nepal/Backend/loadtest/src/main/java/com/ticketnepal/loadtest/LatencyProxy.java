@@ -0,0 +1,104 @@
+package com.ticketnepal.loadtest;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * A TCP relay in front of MongoDB that holds every wire-protocol request for
+ * a fixed time before passing it on, so each round trip is at least that
+ * slow. This models a database across the network, where a request's thread
+ * spends its time waiting rather than computing (see --mongo-latency).
+ */
+public class LatencyProxy implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final String upstreamHost;
+    private final int upstreamPort;
+    private final long latencyMs;
+
+    public LatencyProxy(String upstreamHost, int upstreamPort, long latencyMs) throws IOException {
+        this.server = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        this.upstreamHost = upstreamHost;
+        this.upstreamPort = upstreamPort;
+        this.latencyMs = latencyMs;
+        daemon("latency-proxy-accept", this::accept).start();
+    }
+
+    public InetSocketAddress address() {
+        return (InetSocketAddress) server.getLocalSocketAddress();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                Socket upstream = new Socket(upstreamHost, upstreamPort);
+                client.setTcpNoDelay(true);
+                upstream.setTcpNoDelay(true);
+                daemon("latency-proxy-request", () -> relayRequests(client, upstream)).start();
+                daemon("latency-proxy-reply", () -> relay(upstream, client)).start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Latency proxy failed to accept: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Reads whole messages (the first 4 bytes are the little-endian length) so each one is delayed once
+    private void relayRequests(Socket from, Socket to) {
+        try (from; to) {
+            DataInputStream in = new DataInputStream(from.getInputStream());
+            OutputStream out = to.getOutputStream();
+            byte[] header = new byte[4];
+            while (true) {
+                in.readFully(header);
+                int length = (header[0] & 0xff) | (header[1] & 0xff) << 8 | (header[2] & 0xff) << 16 | (header[3] & 0xff) << 24;
+                byte[] message = new byte[length];
+                System.arraycopy(header, 0, message, 0, 4);
+                in.readFully(message, 4, length - 4);
+                Thread.sleep(latencyMs);
+                out.write(message);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Either side went away (EOF included); closing both ends tells the other
+        }
+    }
+
+    private static void relay(Socket from, Socket to) {
+        try (from; to) {
+            InputStream in = from.getInputStream();
+            OutputStream out = to.getOutputStream();
+            byte[] buffer = new byte[16 * 1024];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                out.write(buffer, 0, n);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Either side went away; closing both ends tells the other
+        }
+    }
+
+    private static Thread daemon(String name, Runnable task) {
+        // Small stacks: two relay threads per pooled Mongo connection
+        Thread thread = new Thread(null, task, name, 256 * 1024);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Nothing more to release; open relays end with their sockets
+        }
+    }
+}
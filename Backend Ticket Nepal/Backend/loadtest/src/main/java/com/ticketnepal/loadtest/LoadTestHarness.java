@@ -0,0 +1,72 @@
+package com.ticketnepal.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test: boots the backend against embedded MongoDB and a
+ * fake SMTP server, runs the chosen scenarios and prints throughput, latency
+ * percentiles and error rates per endpoint. Exits with status 1 if any
+ * scenario found a correctness failure (oversold seat, double check-in).
+ *
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--scenario=flash-sale --customers=500 --seats=300"
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--scenario=all --report=target/loadtest.json"
+ * </pre>
+ */
+public class LoadTestHarness {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<ScenarioResult> results = new ArrayList<>();
+
+        try (TestEnvironment env = TestEnvironment.start(options)) {
+            for (String name : options.scenarios()) {
+                Scenario scenario = switch (name) {
+                    case "flash-sale" -> new FlashSaleScenario();
+                    case "doors-open" -> new DoorsOpenScenario();
+                    default -> new BrowseScenario();
+                };
+                System.out.printf("%nRunning %s ...%n", scenario.name());
+                ScenarioResult result = scenario.run(env, options);
+                print(result);
+                results.add(result);
+            }
+        }
+
+        if (options.reportFile() != null) {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(options.reportFile().toFile(), results);
+            System.out.println("\nReport written to " + options.reportFile());
+        }
+        boolean failed = results.stream().anyMatch(r -> !r.correctnessFailures().isEmpty());
+        System.exit(failed ? 1 : 0);
+    }
+
+    static void print(ScenarioResult result) {
+        System.out.printf("%n== %s (%.1fs) ==%n", result.scenario(), result.seconds());
+        System.out.printf("%-34s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "4xx", "5xx", "err%");
+        for (EndpointStats.EndpointReport row : result.endpoints()) {
+            System.out.printf("%-34s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %7d %7d %6.2f%%%n",
+                    row.endpoint(), row.requests(), row.throughput(), row.p50Ms(), row.p99Ms(), row.p999Ms(),
+                    row.maxMs(), row.clientErrors(), row.serverErrors(), row.errorRate() * 100);
+        }
+        for (Map.Entry<String, Object> fact : result.facts().entrySet()) {
+            System.out.printf("  %s: %s%n", fact.getKey(), fact.getValue());
+        }
+        if (result.correctnessFailures().isEmpty()) {
+            System.out.println("  correctness: OK");
+        } else {
+            System.out.printf("  correctness: %d FAILURES%n", result.correctnessFailures().size());
+            result.correctnessFailures().stream().limit(20).forEach(f -> System.out.println("    - " + f));
+            if (result.correctnessFailures().size() > 20) {
+                System.out.printf("    ... and %d more%n", result.correctnessFailures().size() - 20);
+            }
+        }
+    }
+}
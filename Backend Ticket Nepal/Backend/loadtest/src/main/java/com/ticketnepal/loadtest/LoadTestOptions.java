@@ -0,0 +1,90 @@
+package com.ticketnepal.loadtest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options, all given as --name=value. Anything not given uses
+ * the default below, sized to run in about a minute on a laptop.
+ * Mongo is an embedded mongod by default, the in-memory mongo-java-server
+ * with --mongo=memory, or an existing server with --mongo-uri.
+ * --mongo-latency=20 delays every Mongo request by 20 ms, for comparing
+ * thread models under slow I/O; --mongo-pool-size sets the driver's
+ * connection pool (maxPoolSize, default 100).
+ */
+public record LoadTestOptions(
+        List<String> scenarios,
+        String mongo,
+        String mongoUri,
+        long mongoLatencyMs,
+        Integer mongoPoolSize,
+        int customers,
+        int seats,
+        int gates,
+        int attendees,
+        double duplicateScanRate,
+        int burstSize,
+        long burstIntervalMs,
+        int browseClients,
+        int catalogSize,
+        long durationSeconds,
+        Path reportFile,
+        Map<String, String> backendProperties) {
+
+    public static final List<String> ALL_SCENARIOS = List.of("flash-sale", "doors-open", "browse");
+
+    // --backend.some.property=value is passed to the backend as --some.property=value
+    private static final String BACKEND_PREFIX = "backend.";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, String> backendProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            String name = arg.substring(2, eq);
+            if (name.startsWith(BACKEND_PREFIX)) {
+                backendProperties.put(name.substring(BACKEND_PREFIX.length()), arg.substring(eq + 1));
+            } else {
+                values.put(name, arg.substring(eq + 1));
+            }
+        }
+        String scenario = values.getOrDefault("scenario", "all");
+        List<String> scenarios = "all".equals(scenario) ? ALL_SCENARIOS : Arrays.asList(scenario.split(","));
+        for (String s : scenarios) {
+            if (!ALL_SCENARIOS.contains(s)) {
+                throw new IllegalArgumentException("Unknown scenario " + s + ", expected one of " + ALL_SCENARIOS);
+            }
+        }
+        String mongo = values.getOrDefault("mongo", "mongod");
+        if (!List.of("mongod", "memory").contains(mongo)) {
+            throw new IllegalArgumentException("Unknown --mongo=" + mongo + ", expected mongod or memory");
+        }
+        String report = values.get("report");
+        String poolSize = values.get("mongo-pool-size");
+        return new LoadTestOptions(
+                scenarios,
+                mongo,
+                values.get("mongo-uri"),
+                Long.parseLong(values.getOrDefault("mongo-latency", "0")),
+                poolSize == null ? null : Integer.valueOf(poolSize),
+                Integer.parseInt(values.getOrDefault("customers", "200")),
+                Integer.parseInt(values.getOrDefault("seats", "500")),
+                Integer.parseInt(values.getOrDefault("gates", "20")),
+                Integer.parseInt(values.getOrDefault("attendees", "2000")),
+                Double.parseDouble(values.getOrDefault("duplicate-scan-rate", "0.05")),
+                Integer.parseInt(values.getOrDefault("burst-size", "200")),
+                Long.parseLong(values.getOrDefault("burst-interval-ms", "1000")),
+                Integer.parseInt(values.getOrDefault("browse-clients", "100")),
+                Integer.parseInt(values.getOrDefault("catalog-size", "500")),
+                Long.parseLong(values.getOrDefault("duration", "30")),
+                report == null ? null : Path.of(report),
+                backendProperties);
+    }
+}
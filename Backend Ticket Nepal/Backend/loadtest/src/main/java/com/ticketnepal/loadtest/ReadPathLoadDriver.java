@@ -0,0 +1,88 @@
+package com.ticketnepal.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives many concurrent clients at the public read endpoints of an already
+ * running service, so the servlet backend and the reactive read service can
+ * be compared side by side:
+ *
+ * <pre>
+ * java ReadPathLoadDriver http://localhost:8080 10000 60 /api/events "/api/tickets/reserved?eventId=..."
+ * java ReadPathLoadDriver http://localhost:8081 10000 60 /api/events "/api/tickets/reserved?eventId=..."
+ * </pre>
+ *
+ * Each client loops over the given paths for the duration. The report is the
+ * harness's per-endpoint table (one row per path) plus how many requests were
+ * in flight at once; each in-flight HTTP/1.1 request holds its own connection.
+ */
+public class ReadPathLoadDriver {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("usage: ReadPathLoadDriver <baseUrl> <clients> <seconds> <path> [path...]");
+            System.exit(2);
+        }
+        String baseUrl = args[0];
+        int clients = Integer.parseInt(args[1]);
+        long deadline = System.nanoTime() + Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+        List<String> paths = Arrays.asList(args).subList(3, args.length);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        EndpointStats stats = new EndpointStats();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(clients);
+        long started = System.nanoTime();
+
+        for (int i = 0; i < clients; i++) {
+            new ClientLoop(client, baseUrl, paths, deadline, stats, inFlight, maxInFlight, done).next();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> facts = new LinkedHashMap<>();
+        facts.put("clients", clients);
+        facts.put("maxInFlight", maxInFlight.get());
+        LoadTestHarness.print(new ScenarioResult("read-path " + baseUrl, seconds, stats.report(seconds), facts, List.of()));
+    }
+
+    // One simulated client: sends its next request only after the previous one finished
+    private record ClientLoop(HttpClient client, String baseUrl, List<String> paths, long deadline,
+                              EndpointStats stats, AtomicInteger inFlight, AtomicInteger maxInFlight,
+                              CountDownLatch done) {
+
+        void next() {
+            if (System.nanoTime() >= deadline) {
+                done.countDown();
+                return;
+            }
+            String path = paths.get(ThreadLocalRandom.current().nextInt(paths.size()));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30)).GET().build();
+            long start = System.nanoTime();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenCompleteAsync((response, ex) -> {
+                        inFlight.decrementAndGet();
+                        stats.record(path, (System.nanoTime() - start) / 1000, ex != null ? -1 : response.statusCode());
+                        next();
+                    });
+        }
+    }
+}
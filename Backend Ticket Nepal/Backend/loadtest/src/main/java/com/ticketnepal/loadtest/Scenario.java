@@ -0,0 +1,9 @@
+package com.ticketnepal.loadtest;
+
+/** A scripted workload. Each scenario seeds its own users and events. */
+public interface Scenario {
+
+    String name();
+
+    ScenarioResult run(TestEnvironment env, LoadTestOptions options) throws Exception;
+}
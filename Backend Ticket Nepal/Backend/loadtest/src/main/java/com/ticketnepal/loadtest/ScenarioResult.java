@@ -0,0 +1,14 @@
+package com.ticketnepal.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one scenario: per-endpoint numbers, scenario-level facts (seats
+ * sold, emails sent, ...) and any correctness failures such as an oversold
+ * seat or a ticket admitted twice.
+ */
+public record ScenarioResult(String scenario, double seconds,
+                             List<EndpointStats.EndpointReport> endpoints,
+                             Map<String, Object> facts,
+                             List<String> correctnessFailures) {}
@@ -0,0 +1,225 @@
+package com.ticketnepal.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.ticketnepal.TicketNepalBackendApplication;
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.SeatMap;
+import com.ticketnepal.model.User;
+import com.ticketnepal.security.JwtUtil;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * The backend running in-process on a random port, backed by an embedded
+ * mongod (or the in-memory server, or --mongo-uri) in a throwaway database
+ * and a GreenMail SMTP server that accepts every booking email.
+ */
+public class TestEnvironment implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private final MongoServer memoryMongo;
+    private final LatencyProxy latencyProxy;
+    private final GreenMail greenMail;
+    private final ConfigurableApplicationContext app;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private TestEnvironment(TransitionWalker.ReachedState<RunningMongodProcess> mongod, MongoServer memoryMongo,
+                            LatencyProxy latencyProxy, GreenMail greenMail, ConfigurableApplicationContext app) {
+        this.mongod = mongod;
+        this.memoryMongo = memoryMongo;
+        this.latencyProxy = latencyProxy;
+        this.greenMail = greenMail;
+        this.app = app;
+        this.baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static TestEnvironment start(LoadTestOptions options) throws IOException {
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = null;
+        MongoServer memoryMongo = null;
+        String mongoUri = options.mongoUri();
+        if (mongoUri == null && "memory".equals(options.mongo())) {
+            memoryMongo = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = memoryMongo.bind();
+            mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort();
+        } else if (mongoUri == null) {
+            mongod = Mongod.instance().start(Version.Main.V7_0);
+            ServerAddress address = mongod.current().getServerAddress();
+            mongoUri = "mongodb://" + address.getHost() + ":" + address.getPort();
+        }
+        LatencyProxy latencyProxy = null;
+        if (options.mongoLatencyMs() > 0) {
+            if (options.mongoUri() != null) {
+                throw new IllegalArgumentException("--mongo-latency needs --mongo=mongod or --mongo=memory");
+            }
+            // mongoUri is still a bare mongodb://host:port here
+            String[] hostPort = mongoUri.substring("mongodb://".length()).split(":");
+            latencyProxy = new LatencyProxy(hostPort[0], Integer.parseInt(hostPort[1]), options.mongoLatencyMs());
+            mongoUri = "mongodb://" + latencyProxy.address().getHostString() + ":" + latencyProxy.address().getPort();
+        }
+        if (options.mongoPoolSize() != null) {
+            mongoUri += (mongoUri.contains("?") ? "&" : "/?") + "maxPoolSize=" + options.mongoPoolSize();
+        }
+
+        GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        greenMail.start();
+        String smtpPort = String.valueOf(greenMail.getSmtp().getPort());
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        Path uploads = Files.createTempDirectory("ticketnepal-loadtest-uploads");
+
+        // Command-line arguments outrank application.properties, so its ${ENV} placeholders are never resolved
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.data.mongodb.uri=" + mongoUri,
+                // Own database per run, so an external --mongo-uri never mixes with real data
+                "--spring.data.mongodb.database=ticketnepal_loadtest_" + System.currentTimeMillis(),
+                "--jwt.secret=" + Base64.getEncoder().encodeToString(secret),
+                "--spring.mail.host=127.0.0.1",
+                "--spring.mail.port=" + smtpPort,
+                "--spring.mail.username=loadtest",
+                "--spring.mail.password=loadtest",
+                "--spring.mail.properties.mail.smtp.auth=false",
+                "--spring.mail.properties.mail.smtp.starttls.enable=false",
+                "--spring.mail.properties.mail.smtp.ssl.trust=127.0.0.1",
+                "--cloudinary.cloud_name=loadtest",
+                "--cloudinary.api_key=loadtest",
+                "--cloudinary.api_secret=loadtest",
+                "--image.store=local",
+                "--file.upload-dir=" + uploads,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        if (memoryMongo != null) {
+            // The in-memory server has no explain command, and ignores secondary indexes so every lookup is slow
+            args.add("--mongo.profiling.explain-slow=false");
+            args.add("--mongo.profiling.slow-command=5s");
+            args.add("--mongo.indexes.verify=off");
+        }
+        if (options.mongoUri() == null && !options.backendProperties().containsKey("mongo.transactions")) {
+            // Both local servers are standalone, without transactions
+            args.add("--mongo.transactions=false");
+        }
+        if (!options.backendProperties().containsKey("ratelimit.enabled")) {
+            // Every virtual user shares one address; --backend.ratelimit.enabled=true exercises the limiter
+            args.add("--ratelimit.enabled=false");
+        }
+        options.backendProperties().forEach((name, value) -> args.add("--" + name + "=" + value));
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(TicketNepalBackendApplication.class)
+                .run(args.toArray(String[]::new));
+        return new TestEnvironment(mongod, memoryMongo, latencyProxy, greenMail, app);
+    }
+
+    public ApiClient client(EndpointStats stats) {
+        return new ApiClient(httpClient, baseUrl, stats, mapper);
+    }
+
+    public MongoTemplate mongo() {
+        return app.getBean(MongoTemplate.class);
+    }
+
+    /** Inserts a verified user with the given role (stored upper-case, as the controllers compare it). */
+    public List<User> createUsers(String role, String prefix, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName(prefix + " " + i);
+            user.setEmail(prefix + "-" + i + "-" + System.nanoTime() + "@loadtest.local");
+            user.setUsername(user.getEmail());
+            user.setPassword("not-used");
+            user.setRole(role);
+            user.setVerified(true);
+            users.add(user);
+        }
+        return new ArrayList<>(mongo().insertAll(users));
+    }
+
+    /** Inserts an event running tomorrow evening with the given seat map. */
+    public Event createEvent(User organizer, String name, String category, List<String> seats) {
+        LocalDateTime start = LocalDate.now().plusDays(1).atTime(18, 0);
+        Event event = new Event();
+        event.setName(name);
+        event.setCategory(category);
+        event.setLocation("Kathmandu");
+        event.setDescription("Load test event");
+        event.setOrganizer(organizer.getId());
+        event.setPrice(1500.0);
+        event.setSeatMap(SeatMap.fromLabels(seats));
+        event.setEventStart(start.toString());
+        event.setEventEnd(start.plusHours(4).toString());
+        return mongo().insert(event);
+    }
+
+    /** Seat labels A1..A25, B1..B25, ... */
+    public static List<String> seatMap(int count) {
+        List<String> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(rowLabel(i / 25) + (i % 25 + 1));
+        }
+        return seats;
+    }
+
+    private static String rowLabel(int row) {
+        return row < 26 ? String.valueOf((char) ('A' + row)) : rowLabel(row / 26 - 1) + (char) ('A' + row % 26);
+    }
+
+    /** Signed like a login response, so the requests skip BCrypt. */
+    public String tokenFor(User user) {
+        return app.getBean(JwtUtil.class).generateToken(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public int emailsReceived() {
+        return greenMail.getReceivedMessages().length;
+    }
+
+    @Override
+    public void close() {
+        try {
+            // Drop the per-run database before stopping anything it depends on
+            mongo().getDb().drop();
+        } finally {
+            app.close();
+            greenMail.stop();
+            if (mongod != null) {
+                mongod.close();
+            }
+            if (latencyProxy != null) {
+                latencyProxy.close();
+            }
+            if (memoryMongo != null) {
+                memoryMongo.shutdown();
+            }
+        }
+    }
+}
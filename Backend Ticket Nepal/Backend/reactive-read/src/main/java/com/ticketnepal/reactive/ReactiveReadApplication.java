@@ -0,0 +1,17 @@
+package com.ticketnepal.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Serves the public, read-only endpoints (event catalog, reserved seats and
+ * ticket validation) on WebFlux with the reactive MongoDB driver. It runs
+ * next to the servlet backend behind the same load balancer and shares its
+ * model classes; writes stay on the main backend.
+ */
+@SpringBootApplication
+public class ReactiveReadApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveReadApplication.class, args);
+    }
+}
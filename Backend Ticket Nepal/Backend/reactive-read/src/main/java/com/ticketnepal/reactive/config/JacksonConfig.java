@@ -0,0 +1,16 @@
+package com.ticketnepal.reactive.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Same accessor generation as the servlet backend; Boot registers every Module bean
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
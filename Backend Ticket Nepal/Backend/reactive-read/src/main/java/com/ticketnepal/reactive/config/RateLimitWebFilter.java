@@ -0,0 +1,86 @@
+package com.ticketnepal.reactive.config;
+
+import com.ticketnepal.util.StripedRateLimiter;
+import com.ticketnepal.util.StripedRateLimiter.Policy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same token buckets as the servlet backend's RateLimitFilter for the two
+ * public lookups this service answers. There is no sign-in here, so every
+ * caller is limited per client address.
+ */
+@Component
+public class RateLimitWebFilter implements WebFilter {
+
+    private final boolean enabled;
+    private final int trustedProxies;
+    private final StripedRateLimiter limiter;
+    private final Policy validate;
+    private final Policy reserved;
+
+    public RateLimitWebFilter(Environment environment,
+                              @Value("${ratelimit.enabled:true}") boolean enabled,
+                              @Value("${ratelimit.trusted-proxies:0}") int trustedProxies,
+                              @Value("${ratelimit.stripes:64}") int stripes,
+                              @Value("${ratelimit.max-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.trustedProxies = trustedProxies;
+        this.limiter = new StripedRateLimiter(stripes, maxKeys);
+        this.validate = new Policy("validate",
+                environment.getProperty("ratelimit.validate.burst", Integer.class, 60),
+                environment.getProperty("ratelimit.validate.per-minute", Integer.class, 300));
+        this.reserved = new Policy("reserved",
+                environment.getProperty("ratelimit.reserved.burst", Integer.class, 30),
+                environment.getProperty("ratelimit.reserved.per-minute", Integer.class, 120));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Policy policy = enabled && HttpMethod.GET.equals(request.getMethod()) ? policyFor(request.getPath().value()) : null;
+        if (policy == null) {
+            return chain.filter(exchange);
+        }
+        long waitNanos = limiter.tryAcquire(policy, "ip:" + clientAddress(request));
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"error\":\"Too many requests, try again later\",\"retryAfterSeconds\":" + retryAfter + "}")
+                .getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Policy policyFor(String path) {
+        if (path.equals("/api/tickets/reserved")) return reserved;
+        if (path.equals("/api/tickets/validate") || path.startsWith("/api/tickets/validate/")) return validate;
+        return null;
+    }
+
+    private String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        String remoteAddr = remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+        return StripedRateLimiter.clientAddress(
+                request.getHeaders().getFirst("X-Forwarded-For"), remoteAddr, trustedProxies);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ticketnepal.reactive.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+public class WebConfig implements WebFluxConfigurer {
+
+    // Same origins as the servlet backend; this service only answers GETs
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/**")
+                .allowedOrigins(
+                        "http://localhost:9002",
+                        "http://127.0.0.1:9002",
+                        "http://localhost:3000",
+                        "http://127.0.0.1:3000",
+                        "https://ticketnepal-frontend.onrender.com",
+                        "https://ticketnepal-80fs.onrender.com"
+                )
+                .allowedMethods("GET", "OPTIONS")
+                .allowedHeaders("*")
+                .exposedHeaders("ETag", "Retry-After")
+                .allowCredentials(true)
+                .maxAge(3600);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ticketnepal.reactive.controller;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.EventSummary;
+import com.ticketnepal.util.EntityTags;
+import com.ticketnepal.util.SparseFields;
+import com.ticketnepal.reactive.repository.ReactiveEventRepository;
+import com.ticketnepal.reactive.service.ImageVariantUrls;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventReadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventReadController.class);
+
+    @Autowired
+    private ReactiveEventRepository eventRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private ImageVariantUrls imageVariantUrls;
+
+    // Filter/search events. Same filters as the servlet endpoint, but the text filters run in
+    // Mongo and results stream to the client as they arrive (JSON array or NDJSON).
+    // Returns the same list fields (and fields= sparse fieldsets) as the servlet endpoint.
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EventSummary> getAllEvents(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String organizer,
+            @RequestParam(required = false) String eventStart,
+            @RequestParam(required = false) String fields
+    ) {
+        Set<String> selected = SparseFields.parse(fields, EventSummary.FIELDS);
+        Query query = new Query(Criteria.where("deleted").ne(true));
+        EventSummary.documentFields(selected).forEach(query.fields()::include);
+        query.fields().include("eventStart", "eventEnd"); // needed by the date filters below
+        if (category != null && !category.trim().isEmpty() && !"all".equals(category)) {
+            query.addCriteria(Criteria.where("category").is(category));
+        }
+        if (location != null && !location.isEmpty()) {
+            query.addCriteria(Criteria.where("location").regex(Pattern.quote(location), "i"));
+        }
+        if (name != null && !name.isEmpty()) {
+            query.addCriteria(Criteria.where("name").regex(Pattern.quote(name), "i"));
+        }
+        if (organizer != null && !organizer.isEmpty()) {
+            query.addCriteria(Criteria.where("organizer").regex(Pattern.quote(organizer), "i"));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.find(query, Event.class)
+                .filter(e -> eventStart == null || eventStart.isEmpty() || coversDate(e, eventStart))
+                // Hide events that ended more than 1 day ago
+                .filter(e -> {
+                    if (e.getEventEnd() == null) return true;
+                    try {
+                        return now.isBefore(parseToLocalDateTime(e.getEventEnd()).plusDays(1));
+                    } catch (Exception ex) {
+                        logger.warn("Failed to parse eventEnd for event: {}", e.getId());
+                        return true;
+                    }
+                })
+                .map(e -> EventSummary.of(e, selected, selected.contains("imageVariants")
+                        ? imageVariantUrls.variantUrls(e.getImageUrl()) : null, null, null));
+    }
+
+    // Get event detail by id; WebFlux answers a matching If-None-Match with 304
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Event>> getEvent(@PathVariable String id) {
+        return eventRepository.findById(id)
+                .doOnNext(event -> event.setImageVariants(imageVariantUrls.variantUrls(event.getImageUrl())))
+                .map(event -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache())
+                        .eTag(EntityTags.etag(event))
+                        .lastModified(EntityTags.lastModified(event))
+                        .body(event))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Check if the selected date (YYYY-MM-DD) falls within the event date range (inclusive)
+    private boolean coversDate(Event e, String date) {
+        if (e.getEventStart() == null || e.getEventEnd() == null) return false;
+        String eventStartDate = e.getEventStart().split("T")[0];
+        String eventEndDate = e.getEventEnd().split("T")[0];
+        return date.compareTo(eventStartDate) >= 0 && date.compareTo(eventEndDate) <= 0;
+    }
+
+    // Flexible parser: supports ISO_LOCAL_DATE_TIME and ISO_OFFSET_DATE_TIME (with 'Z' or timezone)
+    private LocalDateTime parseToLocalDateTime(String value) {
+        if (value == null) throw new DateTimeParseException("null", "", 0);
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            return OffsetDateTime.parse(value).toLocalDateTime();
+        }
+    }
+}
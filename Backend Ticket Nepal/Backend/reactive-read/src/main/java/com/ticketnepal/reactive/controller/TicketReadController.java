@@ -0,0 +1,147 @@
+package com.ticketnepal.reactive.controller;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.Order;
+import com.ticketnepal.model.ReservedSeats;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.TicketValidation;
+import com.ticketnepal.model.Versioned;
+import com.ticketnepal.reactive.repository.ReactiveEventRepository;
+import com.ticketnepal.reactive.repository.ReactiveOrderRepository;
+import com.ticketnepal.reactive.repository.ReactiveTicketRepository;
+import com.ticketnepal.util.EntityTags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/api/tickets")
+public class TicketReadController {
+
+    @Autowired
+    private ReactiveTicketRepository ticketRepository;
+
+    @Autowired
+    private ReactiveEventRepository eventRepository;
+
+    @Autowired
+    private ReactiveOrderRepository orderRepository;
+
+    // Get all reserved seats for an event
+    @GetMapping("/reserved")
+    public Mono<ReservedSeats> getReservedSeats(@RequestParam String eventId) {
+        return ticketRepository.findSeatsByEventId(eventId)
+                .map(Ticket::getSeat)
+                .collectList()
+                .map(ReservedSeats::new);
+    }
+
+    @GetMapping("/validate")
+    public Mono<ResponseEntity<TicketValidation>> validateQr(@RequestParam("code") String qrHint) {
+        return ticketRepository.findByQrCodeHint(qrHint)
+                .next()
+                .map(ticket -> conditional(List.of(ticket)).body(TicketValidation.single(null, ticket)))
+                .defaultIfEmpty(notFound(TicketValidation.NOT_FOUND));
+    }
+
+    // From the order when there is one; transactions the backend hasn't rebuilt an order for yet fall back to tickets
+    @GetMapping("/validate/transaction")
+    public Mono<ResponseEntity<TicketValidation>> validateTransactionQr(@RequestParam("transactionId") String transactionId) {
+        return orderRepository.findById(transactionId)
+                .map(order -> orderResponse(null, order))
+                .switchIfEmpty(Mono.defer(() -> ticketRepository.findByTransactionId(transactionId)
+                        .collectList()
+                        .flatMap(tickets -> {
+                            if (tickets.isEmpty()) {
+                                return Mono.just(notFound(TicketValidation.NOT_FOUND));
+                            }
+                            return groupResponse(tickets, event -> TicketValidation.group(null, event, tickets, transactionId, false));
+                        })));
+    }
+
+    @GetMapping("/validate/scan")
+    public Mono<ResponseEntity<TicketValidation>> validateScan(@RequestParam("code") String code) {
+        // Group QR codes carry the transactionId: answered from the order
+        return orderRepository.findById(code)
+                .flatMap(order -> order.getItems().size() > 1 || order.getEvent() == null
+                        ? Mono.just(orderResponse("multiple", order))
+                        : ticketRepository.findById(order.getItems().get(0).ticketId())
+                                .map(ticket -> conditional(List.of(ticket)).body(TicketValidation.single("single", ticket))))
+                .switchIfEmpty(Mono.defer(() -> validateQrHint(code)));
+    }
+
+    // Try as QR code hint (single or group ticket)
+    private Mono<ResponseEntity<TicketValidation>> validateQrHint(String code) {
+        return ticketRepository.findByQrCodeHint(code)
+                .collectList()
+                .flatMap(tickets -> {
+                    if (tickets.size() == 1) {
+                        return Mono.just(conditional(tickets).body(TicketValidation.single("single", tickets.get(0))));
+                    }
+                    if (tickets.size() > 1) {
+                        return groupResponse(tickets, event -> TicketValidation.group("multiple", event, tickets, code, false));
+                    }
+                    return validateLegacyScan(code);
+                });
+    }
+
+    // Old QR code format embedded "Ticket ID: ..." lines separated by "---"
+    private Mono<ResponseEntity<TicketValidation>> validateLegacyScan(String code) {
+        if (!code.contains("Ticket ID:") || !code.contains("---")) {
+            return Mono.just(notFound(TicketValidation.NOT_FOUND));
+        }
+        List<String> ticketIds = new ArrayList<>();
+        for (String section : code.split("---")) {
+            for (String line : section.trim().split("\n")) {
+                if (line.startsWith("Ticket ID:")) {
+                    ticketIds.add(line.substring("Ticket ID:".length()).trim());
+                    break;
+                }
+            }
+        }
+        return ticketRepository.findAllById(ticketIds)
+                .collectList()
+                .flatMap(tickets -> tickets.isEmpty()
+                        ? Mono.just(notFound(TicketValidation.NOT_FOUND))
+                        // legacy=true: parsed from the old format
+                        : groupResponse(tickets, event -> TicketValidation.group("multiple", event, tickets, null, true)))
+                .onErrorReturn(notFound(TicketValidation.NOT_FOUND));
+    }
+
+    private static ResponseEntity<TicketValidation> orderResponse(String type, Order order) {
+        if (order.getEvent() == null) {
+            return notFound(TicketValidation.EVENT_NOT_FOUND);
+        }
+        return conditional(List.of(order)).body(TicketValidation.group(type, order));
+    }
+
+    private Mono<ResponseEntity<TicketValidation>> groupResponse(List<Ticket> tickets,
+                                                                 Function<Event, TicketValidation> response) {
+        return eventRepository.findById(tickets.get(0).getEventId())
+                .map(event -> {
+                    List<Versioned> sources = new ArrayList<>(tickets);
+                    sources.add(event);
+                    return conditional(sources).body(response.apply(event));
+                })
+                .defaultIfEmpty(notFound(TicketValidation.EVENT_NOT_FOUND));
+    }
+
+    // Same validators as the servlet backend; WebFlux answers a matching If-None-Match with 304
+    private static ResponseEntity.BodyBuilder conditional(List<? extends Versioned> sources) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(EntityTags.etag(sources))
+                .lastModified(EntityTags.lastModified(sources));
+    }
+
+    private static ResponseEntity<TicketValidation> notFound(String status) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(TicketValidation.failure(status));
+    }
+}
@@ -0,0 +1,9 @@
+package com.ticketnepal.reactive.repository;
+
+import com.ticketnepal.model.Order;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<Order, String> {
+}
@@ -0,0 +1,28 @@
+package com.ticketnepal.reactive.repository;
+
+import com.ticketnepal.model.Ticket;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveTicketRepository extends ReactiveMongoRepository<Ticket, String> {
+    // Only the seat is needed to render the seat map (string queries use the stored names, see Ticket.Fields)
+    @Query(value = "{ 'e': ?0 }", fields = "{ 's': 1 }")
+    Flux<Ticket> findSeatsByEventId(String eventId);
+
+    Flux<Ticket> findByTransactionId(UUID transactionId);
+
+    default Flux<Ticket> findByTransactionId(String transactionId) {
+        UUID key = Ticket.transactionKey(transactionId);
+        return key == null ? Flux.empty() : findByTransactionId(key);
+    }
+
+    // The QR code carries the transactionId
+    default Flux<Ticket> findByQrCodeHint(String qrCodeHint) {
+        return findByTransactionId(qrCodeHint);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ticketnepal.reactive.service;
+
+import com.ticketnepal.service.ImageVariant;
+import com.ticketnepal.service.LocalImageStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * The imageVariants the servlet backend returns with events, built from the
+ * stored imageUrl alone. There is no image store here, so the URL prefix of
+ * our own images is derived from the same settings the backend's store uses
+ * (image.store, cloudinary.cloud_name, app.base-url).
+ */
+@Component
+public class ImageVariantUrls {
+
+    private final String ownUrlPrefix;
+
+    public ImageVariantUrls(@Value("${image.store:cloudinary}") String store,
+                            @Value("${cloudinary.cloud_name:}") String cloudName,
+                            @Value("${app.base-url:http://localhost:8080}") String baseUrl) {
+        // Same prefixes CloudinaryImageStore and LocalImageStore strip to get the key
+        this.ownUrlPrefix = "local".equals(store)
+                ? baseUrl + LocalImageStore.URL_PATH
+                : "https://res.cloudinary.com/" + cloudName + "/image/upload/";
+    }
+
+    /** Same as the backend's ImageVariantService.variantUrls: null for foreign URLs. */
+    public Map<String, Map<String, String>> variantUrls(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(ownUrlPrefix)) return null;
+        return ImageVariant.urlsFor(imageUrl.substring(ownUrlPrefix.length()));
+    }
+}
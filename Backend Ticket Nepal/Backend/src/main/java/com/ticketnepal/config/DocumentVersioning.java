@@ -0,0 +1,53 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.StaffApplication;
+import com.ticketnepal.model.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * Turns on @LastModifiedDate and gives documents written before the @Version
+ * field existed a version of 0. Without that, Spring Data takes a loaded
+ * document with a null version for a new one and save() fails with a
+ * duplicate key. Runs at startup before the web server takes traffic, and is
+ * a no-op once every document has a version.
+ */
+@Configuration
+@EnableMongoAuditing
+public class DocumentVersioning implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentVersioning.class);
+
+    private static final List<Class<?>> VERSIONED = List.of(Event.class, Ticket.class, StaffApplication.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Class<?> type : VERSIONED) {
+            try {
+                long updated = mongoTemplate.updateMulti(
+                        new Query(Criteria.where("version").exists(false)),
+                        new Update().set("version", 0L), type).getModifiedCount();
+                if (updated > 0) {
+                    logger.info("Set version 0 on {} {} documents", updated, mongoTemplate.getCollectionName(type));
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Could not backfill versions in {}: {}", mongoTemplate.getCollectionName(type), e.getMessage());
+            }
+        }
+    }
+}
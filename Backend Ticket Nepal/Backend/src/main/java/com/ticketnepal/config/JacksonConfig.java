@@ -0,0 +1,21 @@
+package com.ticketnepal.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tuning for the application ObjectMapper, which Boot builds once and shares
+ * between MVC, the NDJSON writers and the event detail cache.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Getters and setters are called through generated lambdas instead of reflection;
+    // Boot registers every Module bean on its ObjectMapper
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.model.JobState;
+import com.ticketnepal.service.JobScheduler;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Scheduled jobs at /actuator/jobs (admin only, like the other actuator
+ * endpoints): each shard's next run, current lease and last outcome.
+ * POST /actuator/jobs/{name} makes the job due now; the next poll of any
+ * instance (jobs.poll-interval) runs it.
+ */
+@Component
+@Endpoint(id = "jobs")
+public class JobsEndpoint {
+
+    private final JobScheduler scheduler;
+
+    public JobsEndpoint(JobScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @ReadOperation
+    public Map<String, List<JobState>> jobs() {
+        return scheduler.states().stream()
+                .collect(Collectors.groupingBy(JobState::getJob, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<List<JobState>> job(@Selector String name) {
+        if (!scheduler.isDeclared(name)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(scheduler.states(name));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> trigger(@Selector String name) {
+        if (!scheduler.trigger(name)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(Map.of("job", name, "status", "due"), 202);
+    }
+}
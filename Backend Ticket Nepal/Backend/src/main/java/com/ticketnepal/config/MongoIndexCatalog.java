@@ -0,0 +1,145 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.IdempotencyRecord;
+import com.ticketnepal.model.Order;
+import com.ticketnepal.model.SeatLease;
+import com.ticketnepal.model.StaffApplication;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every index the repositories rely on, in one place. Created at startup
+ * before the web server takes traffic; an index whose keys already exist
+ * (e.g. one made by hand in Atlas under another name) is left alone.
+ * Creation failures only warn, so a restricted database user or duplicate
+ * data can't stop the app from starting.
+ */
+@Component
+public class MongoIndexCatalog implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexCatalog.class);
+
+    public record DeclaredIndex(Class<?> entity, Index index) {}
+
+    public static final List<DeclaredIndex> INDEXES = List.of(
+            // Seat availability, double-booking check and per-event counts all lead with eventId.
+            // Ticket documents use short field names, and index keys aren't mapped, so these use Ticket.Fields
+            new DeclaredIndex(Ticket.class, new Index().named("event_seat_unique")
+                    .on(Ticket.Fields.EVENT_ID, Sort.Direction.ASC).on(Ticket.Fields.SEAT, Sort.Direction.ASC).unique()),
+            // Attendee exports page through an event's tickets in _id order (resuming with after=<id>)
+            new DeclaredIndex(Ticket.class, new Index().named("event_id_id")
+                    .on(Ticket.Fields.EVENT_ID, Sort.Direction.ASC).on("_id", Sort.Direction.ASC)),
+            new DeclaredIndex(Ticket.class, new Index().named("user_id").on(Ticket.Fields.USER_ID, Sort.Direction.ASC)),
+            // Gate scans look tickets up by the QR payload, which is the transactionId
+            new DeclaredIndex(Ticket.class, new Index().named("transaction_id")
+                    .on(Ticket.Fields.TRANSACTION_ID, Sort.Direction.ASC)),
+
+            new DeclaredIndex(User.class, new Index().named("email_unique").on("email", Sort.Direction.ASC).unique()),
+            new DeclaredIndex(User.class, new Index().named("username").on("username", Sort.Direction.ASC)),
+            // Tokens are only set while a verification or reset is pending
+            new DeclaredIndex(User.class, new Index().named("verification_token")
+                    .on("verificationToken", Sort.Direction.ASC).sparse()),
+            new DeclaredIndex(User.class, new Index().named("reset_token").on("resetToken", Sort.Direction.ASC).sparse()),
+
+            new DeclaredIndex(Event.class, new Index().named("organizer").on("organizer", Sort.Direction.ASC)),
+            new DeclaredIndex(Event.class, new Index().named("category").on("category", Sort.Direction.ASC)),
+            new DeclaredIndex(Event.class, new Index().named("event_end").on("eventEnd", Sort.Direction.ASC)),
+
+            new DeclaredIndex(StaffApplication.class, new Index().named("event_staff")
+                    .on("eventId", Sort.Direction.ASC).on("staffId", Sort.Direction.ASC)),
+            new DeclaredIndex(StaffApplication.class, new Index().named("staff_status")
+                    .on("staffId", Sort.Direction.ASC).on("status", Sort.Direction.ASC)),
+            new DeclaredIndex(StaffApplication.class, new Index().named("token").on("token", Sort.Direction.ASC).sparse()),
+
+            // Orders are read by _id (the transactionId); eventId serves event edits and deletes
+            new DeclaredIndex(Order.class, new Index().named("event_id").on("eventId", Sort.Direction.ASC)),
+
+            // Stored Idempotency-Key responses are deleted by Mongo once expiresAt passes
+            new DeclaredIndex(IdempotencyRecord.class, new Index().named("expires_at_ttl")
+                    .on("expiresAt", Sort.Direction.ASC).expire(0)),
+
+            // Seat leases are read by _id (eventId:seat); ones left by a dead instance expire
+            new DeclaredIndex(SeatLease.class, new Index().named("expires_at_ttl")
+                    .on("expiresAt", Sort.Direction.ASC).expire(0))
+    );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexVerifier verifier;
+
+    @Value("${mongo.indexes.create:true}")
+    private boolean createIndexes;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (createIndexes) {
+            ensureIndexes();
+        }
+        verifier.verify();
+    }
+
+    public void ensureIndexes() {
+        int created = 0;
+        for (DeclaredIndex declared : INDEXES) {
+            String collection = mongoTemplate.getCollectionName(declared.entity());
+            Document keys = declared.index().getIndexKeys();
+            String name = (String) declared.index().getIndexOptions().get("name");
+            try {
+                Document existing = findByKeys(collection, keys);
+                if (existing != null) {
+                    if (!name.equals(existing.getString("name"))) {
+                        logger.info("Index {} on {} already exists as {}; keeping it", name, collection, existing.getString("name"));
+                    }
+                    continue;
+                }
+                mongoTemplate.indexOps(collection).createIndex(declared.index());
+                created++;
+            } catch (DataAccessException e) {
+                logger.warn("Could not create index {} on {}: {}", name, collection, e.getMessage());
+            }
+        }
+        logger.info("Mongo index catalog: {} declared, {} created", INDEXES.size(), created);
+    }
+
+    private Document findByKeys(String collection, Document keys) {
+        if (!mongoTemplate.collectionExists(collection)) return null;
+        for (Document index : mongoTemplate.getCollection(collection).listIndexes()) {
+            Document existingKeys = index.get("key", Document.class);
+            if (existingKeys != null && sameKeys(existingKeys, keys)) return index;
+        }
+        return null;
+    }
+
+    // Key order matters and directions may come back as 1, 1L or 1.0
+    private static boolean sameKeys(Document a, Document b) {
+        List<Map.Entry<String, Object>> left = new ArrayList<>(a.entrySet());
+        List<Map.Entry<String, Object>> right = new ArrayList<>(b.entrySet());
+        if (left.size() != right.size()) return false;
+        for (int i = 0; i < left.size(); i++) {
+            Object l = left.get(i).getValue();
+            Object r = right.get(i).getValue();
+            boolean sameDirection = l instanceof Number ln && r instanceof Number rn
+                    ? ln.intValue() == rn.intValue() : String.valueOf(l).equals(String.valueOf(r));
+            if (!left.get(i).getKey().equals(right.get(i).getKey()) || !sameDirection) return false;
+        }
+        return true;
+    }
+}
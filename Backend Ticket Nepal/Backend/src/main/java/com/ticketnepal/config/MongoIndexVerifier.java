@@ -0,0 +1,134 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.service.MongoQueryProfiler;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Explains every derived repository query (findBy..., countBy...) with
+ * placeholder values and reports the ones whose winning plan is a collection
+ * scan. mongo.indexes.verify=fail stops startup, so CI against a real mongod
+ * catches a query added without an index; warn only logs; off skips it.
+ * Case-insensitive and "containing" conditions can't use a plain index and
+ * are left out of the probe filter.
+ */
+@Component
+public class MongoIndexVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexVerifier.class);
+    private static final BsonString PROBE = new BsonString("index-probe");
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Value("${mongo.indexes.verify:warn}")
+    private String mode;
+
+    public void verify() {
+        if ("off".equalsIgnoreCase(mode)) return;
+        List<String> scans = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        int checked = 0;
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation info = repositories.getRequiredRepositoryInformation(domainType);
+            String collection = mongoTemplate.getCollectionName(domainType);
+            for (Method method : info.getQueryMethods()) {
+                String label = info.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                if (method.isAnnotationPresent(Query.class)) {
+                    skipped.add(label); // string queries aren't derived from the method name
+                    continue;
+                }
+                BsonDocument filter = probeFilter(new PartTree(method.getName(), domainType));
+                if (filter == null) {
+                    skipped.add(label);
+                    continue;
+                }
+                String plan;
+                try {
+                    plan = explain(collection, filter);
+                } catch (DataAccessException e) {
+                    scans.add(label + ": explain failed (" + e.getMessage() + ")");
+                    continue;
+                }
+                checked++;
+                if (plan.contains("COLLSCAN")) {
+                    scans.add(label + ": " + plan + " on " + collection + " for " + filter.toJson());
+                }
+            }
+        }
+        logger.info("Index verification: {} repository queries explained, {} not verifiable {}", checked, skipped.size(), skipped);
+        if (scans.isEmpty()) return;
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("Repository queries without a usable index:\n  " + String.join("\n  ", scans));
+        }
+        scans.forEach(scan -> logger.warn("Repository query without a usable index: {}", scan));
+    }
+
+    private String explain(String collection, BsonDocument filter) {
+        BsonDocument command = new BsonDocument("explain",
+                new BsonDocument("find", new BsonString(collection)).append("filter", filter))
+                .append("verbosity", new BsonString("queryPlanner"));
+        return mongoTemplate.execute(db -> MongoQueryProfiler.planSummary(db.runCommand(command, BsonDocument.class)));
+    }
+
+    // Same fields and operators the derived query would use; null when no condition can use an index
+    private BsonDocument probeFilter(PartTree tree) {
+        List<BsonDocument> branches = new ArrayList<>();
+        for (PartTree.OrPart orPart : tree) {
+            BsonDocument branch = new BsonDocument();
+            for (Part part : orPart) {
+                BsonValue condition = probeCondition(part);
+                if (condition != null) {
+                    branch.append(mappingContext.getPersistentPropertyPath(part.getProperty())
+                            .toDotPath(MongoPersistentProperty::getFieldName), condition);
+                }
+            }
+            if (branch.isEmpty()) return null;
+            branches.add(branch);
+        }
+        if (branches.isEmpty()) return null;
+        return branches.size() == 1 ? branches.get(0) : new BsonDocument("$or", new BsonArray(branches));
+    }
+
+    private static BsonValue probeCondition(Part part) {
+        if (part.shouldIgnoreCase() != Part.IgnoreCaseType.NEVER) return null;
+        return switch (part.getType()) {
+            case SIMPLE_PROPERTY -> PROBE;
+            case IN -> new BsonDocument("$in", new BsonArray(List.of(PROBE)));
+            case BEFORE, LESS_THAN, LESS_THAN_EQUAL -> new BsonDocument("$lt", PROBE);
+            case AFTER, GREATER_THAN, GREATER_THAN_EQUAL -> new BsonDocument("$gt", PROBE);
+            case TRUE -> BsonBoolean.TRUE;
+            case FALSE -> BsonBoolean.FALSE;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.service.MongoQueryProfiler;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoProfilingConfig {
+
+    // Added next to Boot's metrics listener, which already times every command for Prometheus
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoQueryProfilerCustomizer(MongoQueryProfiler profiler) {
+        return builder -> builder.addCommandListener(profiler);
+    }
+}
@@ -0,0 +1,34 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.service.MongoQueryProfiler;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * N+1 suspects report at /actuator/mongoqueries (admin only, like the other
+ * actuator endpoints). DELETE clears the counters, e.g. before a load test.
+ */
+@Component
+@Endpoint(id = "mongoqueries")
+public class MongoQueriesEndpoint {
+
+    private final MongoQueryProfiler profiler;
+
+    public MongoQueriesEndpoint(MongoQueryProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return profiler.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
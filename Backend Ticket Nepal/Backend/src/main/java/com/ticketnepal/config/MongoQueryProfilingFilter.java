@@ -0,0 +1,48 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.service.MongoQueryProfiler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a Mongo command tally around each request, ahead of the security
+ * chain so the JWT filter's user lookups are counted too. Work an async
+ * handler finishes on another thread is not attributed to the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoQueryProfilingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MongoQueryProfiler profiler;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !profiler.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        profiler.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Set by the handler mapping, e.g. "/api/events/{id}"
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            profiler.endRequest(request.getMethod(), pattern != null ? pattern.toString() : null);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ticketnepal.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Multi-document transactions, used to write a booking's tickets and order
+ * together. They need a replica set or a sharded cluster, which Atlas always
+ * is; against a standalone mongod (local development, the load test's
+ * embedded servers) set mongo.transactions=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mongo.transactions", havingValue = "true", matchIfMissing = true)
+public class MongoTransactionConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory factory) {
+        return new MongoTransactionManager(factory);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.SeatMap;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * Converts events stored before seat maps existed (a "seats" array with one
+ * label per seat) to a {@link SeatMap} and drops the array. Runs at startup
+ * before the web server takes traffic, one event at a time, and is a no-op
+ * once no event has "seats" left. The version is left alone: the seats are
+ * the same, so clients' ETags (If-Match) stay valid.
+ */
+@Configuration
+public class SeatMapMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatMapMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String collection = mongoTemplate.getCollectionName(Event.class);
+        Query legacy = new Query(Criteria.where("seats").exists(true));
+        legacy.fields().include("seats");
+        long migrated = 0;
+        try (var events = mongoTemplate.stream(legacy, Document.class, collection)) {
+            for (Document event : (Iterable<Document>) events::iterator) {
+                migrated += migrate(event, collection);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not migrate event seats to seat maps: {}", e.getMessage());
+        }
+        if (migrated > 0) {
+            logger.info("Converted the seats of {} events to seat maps", migrated);
+        }
+    }
+
+    private long migrate(Document event, String collection) {
+        Object id = event.get("_id");
+        Update update = new Update().unset("seats");
+        try {
+            List<?> seats = event.get("seats") instanceof List<?> list ? list : List.of();
+            if (!seats.isEmpty()) {
+                SeatMap seatMap = SeatMap.fromLabels(seats.stream().map(String::valueOf).toList());
+                update.set("seatMap", mongoTemplate.getConverter().convertToMongoType(seatMap));
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Event {} keeps its seats array: {}", id, e.getMessage());
+            return 0;
+        }
+        // By collection name, so the typed update doesn't bump @Version
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id).and("seats").exists(true)),
+                update, collection).getModifiedCount();
+    }
+}
@@ -0,0 +1,139 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.model.Ticket;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites tickets stored with the old long field names into the compact
+ * schema (see {@link Ticket.Fields}): renames the fields in place, stores the
+ * transactionId as a binary UUID (see {@link Ticket#transactionKey}) and drops
+ * userName, qrCodeHint, qrCodeUrl and the _class key. The old-name indexes are
+ * dropped first (the unique eventId+seat index would otherwise see every
+ * converted ticket as the same null seat) and the catalog's indexes are
+ * created once the tickets are converted. Runs at startup before the web
+ * server takes traffic, in unordered batches, and is a no-op once no ticket
+ * has an eventId field left; an interrupted run picks up where it stopped.
+ * The version is kept, so clients' ETags stay valid.
+ * <p>
+ * A ticket left in the old schema is invisible to every query and to the
+ * unique seat index, so startup fails unless all of them were converted; the
+ * next start resumes the conversion.
+ */
+@Configuration
+public class TicketSchemaMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSchemaMigration.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private static final Map<String, String> RENAMED = Map.of(
+            "eventId", Ticket.Fields.EVENT_ID,
+            "userId", Ticket.Fields.USER_ID,
+            "seat", Ticket.Fields.SEAT,
+            "checkedIn", Ticket.Fields.CHECKED_IN,
+            "price", Ticket.Fields.PRICE,
+            "version", Ticket.Fields.VERSION,
+            "updatedAt", Ticket.Fields.UPDATED_AT);
+    private static final Set<String> DROPPED = Set.of("userName", "qrCodeHint", "qrCodeUrl", "transactionId");
+    // Written by the converter before MongoMappingConfig turned it off
+    private static final String TYPE_KEY = "_class";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexCatalog mongoIndexCatalog;
+
+    @Value("${mongo.indexes.create:true}")
+    private boolean createIndexes;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String collection = mongoTemplate.getCollectionName(Ticket.class);
+        Query legacy = new Query(Criteria.where("eventId").exists(true));
+        legacy.fields().include("transactionId");
+        try {
+            if (mongoTemplate.exists(legacy, collection)) {
+                dropLegacyIndexes(collection);
+                long migrated = 0;
+                List<Document> batch = new ArrayList<>(BATCH_SIZE);
+                try (var tickets = mongoTemplate.stream(legacy.cursorBatchSize(BATCH_SIZE), Document.class, collection)) {
+                    for (Document ticket : (Iterable<Document>) tickets::iterator) {
+                        batch.add(ticket);
+                        if (batch.size() == BATCH_SIZE) {
+                            migrated += migrate(batch, collection);
+                        }
+                    }
+                }
+                migrated += migrate(batch, collection);
+                logger.info("Converted {} tickets to the compact schema", migrated);
+                long left = mongoTemplate.count(new Query(Criteria.where("eventId").exists(true)), collection);
+                if (left > 0) {
+                    throw new IllegalStateException(left + " tickets are still in the old schema");
+                }
+            }
+            // Unset on its own as well: tickets written in the compact schema before it was turned off have it
+            long untyped = mongoTemplate.updateMulti(new Query(Criteria.where(TYPE_KEY).exists(true)),
+                    new Update().unset(TYPE_KEY), collection).getModifiedCount();
+            if (untyped > 0) {
+                logger.info("Removed the {} key from {} tickets", TYPE_KEY, untyped);
+            }
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Could not convert tickets to the compact schema", e);
+        }
+        if (createIndexes) {
+            mongoIndexCatalog.ensureIndexes();
+        }
+    }
+
+    private void dropLegacyIndexes(String collection) {
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        for (IndexInfo index : indexOps.getIndexInfo()) {
+            boolean legacy = index.getIndexFields().stream()
+                    .map(IndexField::getKey)
+                    .anyMatch(key -> RENAMED.containsKey(key) || DROPPED.contains(key));
+            if (legacy) {
+                indexOps.dropIndex(index.getName());
+                logger.info("Dropped index {} on {}: it uses the old ticket field names", index.getName(), collection);
+            }
+        }
+    }
+
+    private long migrate(List<Document> batch, String collection) {
+        if (batch.isEmpty()) return 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        for (Document ticket : batch) {
+            Update update = new Update();
+            RENAMED.forEach(update::rename);
+            DROPPED.forEach(update::unset);
+            update.unset(TYPE_KEY);
+            Object transactionId = ticket.get("transactionId");
+            if (transactionId != null) {
+                update.set(Ticket.Fields.TRANSACTION_ID, Ticket.transactionKey(transactionId.toString()));
+            }
+            // By collection name, so the update doesn't bump @Version
+            bulk.updateOne(Query.query(Criteria.where("_id").is(ticket.get("_id")).and("eventId").exists(true)), update);
+        }
+        batch.clear();
+        return bulk.execute().getModifiedCount();
+    }
+}
@@ -1,19 +1,34 @@
 package com.ticketnepal.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.*;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 
+import java.nio.file.Path;
+
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Value("${image.store:cloudinary}")
+    private String imageStore;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Remove local uploads/images handler
         registry
                 .addResourceHandler("/images/**")
                 .addResourceLocations("classpath:/static/images/");
+        // Originals written by LocalImageStore (image.store=local)
+        if ("local".equals(imageStore)) {
+            registry
+                    .addResourceHandler("/local-images/**")
+                    .addResourceLocations(Path.of(uploadDir).toAbsolutePath().toUri().toString());
+        }
     }
 
     @Override
@@ -32,7 +47,13 @@ public class WebConfig implements WebMvcConfigurer {
                 .exposedHeaders(
                         "Authorization",
                         "Content-Type",
-                        "Content-Disposition"  // Important for file downloads
+                        "Content-Disposition",  // Important for file downloads
+                        "Link",
+                        "X-Next-Cursor",
+                        "X-Total-Count",
+                        "ETag",                 // sent back as If-Match when editing an event
+                        "Retry-After",          // on 429s from the rate limiter
+                        "Idempotent-Replayed"   // booking answered from a stored Idempotency-Key response
                 )
                 .allowCredentials(true)
                 .maxAge(3600);
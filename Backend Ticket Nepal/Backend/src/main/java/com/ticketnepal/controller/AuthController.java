@@ -4,14 +4,16 @@ import com.ticketnepal.model.User;
 import com.ticketnepal.repository.UserRepository;
 import com.ticketnepal.security.JwtUtil;
 import com.ticketnepal.service.EmailService;
+import com.ticketnepal.service.PasswordHashingService;
 import com.ticketnepal.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 // Add this for global validation error handling
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -29,71 +31,58 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Value("${frontend.base.url}")
     private String frontendBaseUrl;
 
     // --- Registration for customer ---
     @PostMapping("/signup")
-public ResponseEntity<?> register(@RequestBody RegisterDto registerDto) {
+public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterDto registerDto) {
     // Check required fields
     if (registerDto.getEmail() == null || registerDto.getPassword() == null || registerDto.getName() == null) {
-        return ResponseEntity.badRequest().body(Map.of("error", "Missing required fields"));
+        return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", "Missing required fields")));
     }
-    if (userRepository.findByEmail(registerDto.getEmail()).isPresent()) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Email already registered."));
-    }
-    User user = new User();
-    user.setEmail(registerDto.getEmail());
-    user.setPassword(registerDto.getPassword());
-    user.setName(registerDto.getName());
-    user.setUsername(registerDto.getUsername());
     // Use role from DTO if present, otherwise default to "CUSTOMER"
     String userRole = registerDto.getRole() != null ? registerDto.getRole() : "CUSTOMER";
-    User newUser = userService.registerUser(user, userRole);
-
-    String link = frontendBaseUrl + "/auth/verify?token=" + newUser.getVerificationToken();
-    emailService.sendSimpleMessage(newUser.getEmail(),
-            "Verify your ticketnepal account",
-            "Click to verify your account: " + link);
-
-    return ResponseEntity.status(HttpStatus.CREATED)
-            .body(Map.of("message", "Registration successful! Please check your email to verify your account."));
+    return registerWithRole(registerDto, userRole);
 }
 
 
     // --- Registration for organizer ---
     @PostMapping("/signup/organizer")
-    public ResponseEntity<?> registerOrganizer(@RequestBody RegisterDto registerDto) {
+    public CompletableFuture<ResponseEntity<?>> registerOrganizer(@RequestBody RegisterDto registerDto) {
         return registerWithRole(registerDto, "ORGANIZER");
     }
 
-    private ResponseEntity<?> registerWithRole(RegisterDto registerDto, String role) {
+    private CompletableFuture<ResponseEntity<?>> registerWithRole(RegisterDto registerDto, String role) {
         String email = registerDto.getEmail(); // FIXED: use getEmail()
         String password = registerDto.getPassword();
 
         if (userRepository.findByEmail(email).isPresent()) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", "Email already registered."));
+                    .body(Map.of("error", "Email already registered.")));
         }
 
-        User user = new User();
-        user.setEmail(email);
-        user.setPassword(password); // Password will be encoded inside userService.registerUser
-        user.setName(registerDto.getName());
-        user.setUsername(registerDto.getUsername());
-        User newUser = userService.registerUser(user, role);
-
-        String link = frontendBaseUrl + "/auth/verify?token=" + newUser.getVerificationToken();
-        emailService.sendSimpleMessage(newUser.getEmail(),
-                "Verify your ticketnepal account",
-                "Click to verify your account: " + link);
-
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(Map.of("message", "Registration successful! Please check your email to verify your account."));
+        // BCrypt runs on the bounded hashing pool, not on the request thread
+        return passwordHashingService.encode(password).thenApply(passwordHash -> {
+            User user = new User();
+            user.setEmail(email);
+            user.setPassword(passwordHash);
+            user.setName(registerDto.getName());
+            user.setUsername(registerDto.getUsername());
+            User newUser = userService.registerUser(user, role);
+
+            String link = frontendBaseUrl + "/auth/verify?token=" + newUser.getVerificationToken();
+            emailService.sendSimpleMessage(newUser.getEmail(),
+                    "Verify your ticketnepal account",
+                    "Click to verify your account: " + link);
+
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(Map.of("message", "Registration successful! Please check your email to verify your account."));
+        });
     }
 
 
@@ -109,7 +98,7 @@ public ResponseEntity<?> register(@RequestBody RegisterDto registerDto) {
 
     // --- Login ---
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginDto loginDto) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginDto loginDto) {
         String identifier = loginDto.getIdentifier().trim();
         String password = loginDto.getPassword();
 
@@ -120,14 +109,32 @@ public ResponseEntity<?> register(@RequestBody RegisterDto registerDto) {
             userOpt = userRepository.findByUsername(identifier);
         }
 
-        if (userOpt.isEmpty() || !userOpt.get().isVerified() ||
-                !passwordEncoder.matches(password, userOpt.get().getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid credentials or email not verified."));
+        if (userOpt.isEmpty() || !userOpt.get().isVerified()) {
+            return CompletableFuture.completedFuture(invalidCredentials());
         }
 
         User user = userOpt.get();
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
+        return passwordHashingService.matches(password, user.getPassword()).thenApply(matched -> {
+            if (!matched) {
+                return invalidCredentials();
+            }
+            // Transparently rehash at the configured BCrypt cost when it has changed either way
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                passwordHashingService.encode(password)
+                        .thenAccept(newHash -> userService.updatePasswordHash(user, newHash))
+                        .exceptionally(ex -> null); // best effort, retried on the next login
+            }
+            return loginResponse(user);
+        });
+    }
+
+    private ResponseEntity<?> invalidCredentials() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "Invalid credentials or email not verified."));
+    }
+
+    private ResponseEntity<?> loginResponse(User user) {
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole());
 
         Map<String, Object> userMap = Map.of(
                 "id", user.getId(),
@@ -167,22 +174,24 @@ public ResponseEntity<?> register(@RequestBody RegisterDto registerDto) {
 
     // --- Reset Password ---
     @PostMapping("/reset-password")
-    public ResponseEntity<?> resetPassword(@RequestBody Map<String, String> body) {
+    public CompletableFuture<ResponseEntity<?>> resetPassword(@RequestBody Map<String, String> body) {
         String token = body.get("token");
         String newPassword = body.get("password");
         Optional<User> userOpt = userRepository.findByResetToken(token);
         if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid or expired token."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid or expired token.")));
         }
         User user = userOpt.get();
         if (user.getResetTokenExpiry() == null || user.getResetTokenExpiry().before(new Date())) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Token expired."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Token expired.")));
         }
-        user.setPassword(newPassword); // Will be encoded in service
-        user.setResetToken(null);
-        user.setResetTokenExpiry(null);
-        userService.saveUser(user); // Make sure this encodes password
-        return ResponseEntity.ok(Map.of("message", "Password reset successful!"));
+        return passwordHashingService.encode(newPassword).thenApply(passwordHash -> {
+            user.setPassword(passwordHash);
+            user.setResetToken(null);
+            user.setResetTokenExpiry(null);
+            userService.saveUser(user); // Already hashed, saveUser won't re-encode
+            return ResponseEntity.ok(Map.of("message", "Password reset successful!"));
+        });
     }
 
 
@@ -192,6 +201,14 @@ public ResponseEntity<?> register(@RequestBody RegisterDto registerDto) {
         return ResponseEntity.badRequest().body(Map.of("error", "Validation failed"));
     }
 
+    // Hashing queue is full: shed load quickly instead of queueing behind BCrypt
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleHashingOverload() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(Map.of("error", "Too many sign-in attempts right now. Please try again shortly."));
+    }
+
     // --- DTOs ---
 public static class RegisterDto {
     private String name;
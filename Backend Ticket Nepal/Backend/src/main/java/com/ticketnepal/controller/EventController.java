@@ -1,35 +1,54 @@
 package com.ticketnepal.controller;
 
 import com.ticketnepal.model.Event;
+import com.ticketnepal.model.EventSummary;
+import com.ticketnepal.model.SeatMap;
 import com.ticketnepal.repository.EventRepository;
 import com.ticketnepal.repository.TicketRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableScheduling;
 import com.ticketnepal.service.ImageService;
+import com.ticketnepal.service.ImageVariantService;
+import com.ticketnepal.service.ListingService;
+import com.ticketnepal.util.EventFilters;
+import com.ticketnepal.util.SparseFields;
+import com.ticketnepal.util.EntityTags;
+import com.ticketnepal.util.CsvWriter;
+import com.ticketnepal.util.NdjsonWriter;
+import com.ticketnepal.util.XlsxStreamWriter;
+import com.ticketnepal.service.AdminListingService;
+import com.ticketnepal.service.AttendeeExportService;
+import com.ticketnepal.service.EventDetailCache;
+import com.ticketnepal.service.EventWriteService;
+import com.ticketnepal.service.OrderService;
+import org.springframework.data.mongodb.core.query.Update;
+import com.ticketnepal.security.JwtUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import com.ticketnepal.repository.UserRepository;
 import com.ticketnepal.model.User;
 import com.ticketnepal.service.EmailService;
 import com.ticketnepal.model.StaffApplication;
 import com.ticketnepal.repository.StaffApplicationRepository;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.io.IOException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.OffsetDateTime;
 import org.springframework.beans.factory.annotation.Value;
-import java.time.format.DateTimeParseException;
 
-@Configuration
-@EnableScheduling
 @RestController
 @RequestMapping("/api/events")
 public class EventController {
@@ -55,12 +74,28 @@ public class EventController {
     @Autowired
     private ImageService imageService;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private ListingService listingService;
+
     @Autowired
     private UserRepository userRepository;
     @Autowired
     private EmailService emailService;
     @Autowired
     private StaffApplicationRepository staffApplicationRepository;
+    @Autowired
+    private AttendeeExportService attendeeExportService;
+    @Autowired
+    private EventDetailCache eventDetailCache;
+    @Autowired
+    private EventWriteService eventWriteService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ObjectMapper objectMapper;
 
 
 
@@ -124,13 +159,14 @@ public class EventController {
                 eventAnalytic.put("category", event.getCategory());
                 eventAnalytic.put("location", event.getLocation());
                 eventAnalytic.put("imageUrl", event.getImageUrl());
+                eventAnalytic.put("imageVariants", imageVariantService.variantUrls(event.getImageUrl()));
                 eventAnalytic.put("price", event.getPrice());
                 eventAnalytic.put("income", eventRevenue);
                 eventAnalytic.put("ticketsSold", ticketsSold);
                 eventAnalytic.put("eventStart", event.getEventStart());
                 eventAnalytic.put("eventEnd", event.getEventEnd());
                 eventAnalytic.put("status", eventStatus);
-                eventAnalytic.put("seats", event.getSeats());
+                eventAnalytic.put("seatCount", event.getSeatMap() == null ? 0 : event.getSeatMap().size());
                 
                 eventAnalytics.add(eventAnalytic);
             }
@@ -171,34 +207,13 @@ public class EventController {
         }
     }
 
-    // Get all events for an organizer
+    // Get all events for an organizer (list fields only; seats come from the detail endpoint)
     @GetMapping("/organizer/{organizerId}")
-    public ResponseEntity<List<Map<String, Object>>> getEventsByOrganizer(@PathVariable String organizerId) {
+    public ResponseEntity<List<EventSummary>> getEventsByOrganizer(@PathVariable String organizerId,
+                                                                   @RequestParam(required = false) String fields) {
+        Set<String> selected = SparseFields.parse(fields, EventSummary.fieldsWith("ticketsSold"));
         try {
-            List<Event> events = eventRepository.findByOrganizer(organizerId);
-            // Filter out deleted events
-            events.removeIf(e -> Boolean.TRUE.equals(e.getDeleted()));
-            List<Map<String, Object>> result = new ArrayList<>();
-            for (Event event : events) {
-                Map<String, Object> eventMap = new HashMap<>();
-                eventMap.put("id", event.getId());
-                eventMap.put("name", event.getName());
-                eventMap.put("category", event.getCategory());
-                eventMap.put("location", event.getLocation());
-                eventMap.put("description", event.getDescription());
-                eventMap.put("organizer", event.getOrganizer());
-                eventMap.put("imageUrl", event.getImageUrl());
-                eventMap.put("price", event.getPrice());
-                eventMap.put("income", event.getIncome());
-                eventMap.put("seats", event.getSeats());
-                eventMap.put("eventStart", event.getEventStart());
-                eventMap.put("eventEnd", event.getEventEnd());
-                // Add ticketsSold
-                long ticketsSold = ticketRepository.countByEventId(event.getId());
-                eventMap.put("ticketsSold", ticketsSold);
-                result.add(eventMap);
-            }
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok(listingService.organizerEvents(organizerId, selected));
         } catch (Exception e) {
             logger.error("Failed to fetch events for organizer: {}", organizerId, e);
             return ResponseEntity.internalServerError().build();
@@ -207,99 +222,40 @@ public class EventController {
 
     // Filter/search events
     @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents(
+    public ResponseEntity<List<EventSummary>> getAllEvents(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String organizer,
-            @RequestParam(required = false) String eventStart
+            @RequestParam(required = false) String eventStart,
+            @RequestParam(required = false) String fields
     ) {
+        Set<String> selected = SparseFields.parse(fields, EventSummary.FIELDS);
         try {
-            List<Event> events;
-            
-            // Start with all events
-            events = eventRepository.findAll();
-            
-            // Apply filters
-            if (category != null && !category.isEmpty() && !category.trim().isEmpty() && !"all".equals(category)) {
-                events = events.stream()
-                    .filter(e -> category.equals(e.getCategory()))
-                    .collect(Collectors.toList());
-            }
-            
-            if (location != null && !location.isEmpty()) {
-                events = events.stream()
-                    .filter(e -> e.getLocation() != null && e.getLocation().toLowerCase().contains(location.toLowerCase()))
-                    .collect(Collectors.toList());
-            }
-            
-            if (name != null && !name.isEmpty()) {
-                events = events.stream()
-                    .filter(e -> e.getName() != null && e.getName().toLowerCase().contains(name.toLowerCase()))
-                    .collect(Collectors.toList());
-            }
-            
-            if (organizer != null && !organizer.isEmpty()) {
-                events = events.stream()
-                    .filter(e -> e.getOrganizer() != null && e.getOrganizer().toLowerCase().contains(organizer.toLowerCase()))
-                    .collect(Collectors.toList());
-            }
-            
-            // Date filtering - check if selected date falls within event date range
-            if (eventStart != null && !eventStart.isEmpty()) {
-                events = events.stream()
-                    .filter(e -> {
-                        if (e.getEventStart() == null || e.getEventEnd() == null) return false;
-                        try {
-                            // Parse event start and end dates (get YYYY-MM-DD part)
-                            String eventStartDate = e.getEventStart().split("T")[0];
-                            String eventEndDate = e.getEventEnd().split("T")[0];
-                            
-                            // Log for debugging
-                            logger.debug("Date filter - Selected: {}, Event: {} to {}", eventStart, eventStartDate, eventEndDate);
-                            
-                            // Check if selected date falls within the event date range (inclusive)
-                            boolean isInRange = eventStart.compareTo(eventStartDate) >= 0 && eventStart.compareTo(eventEndDate) <= 0;
-                            logger.debug("Event {} is in range: {}", e.getName(), isInRange);
-                            return isInRange;
-                        } catch (Exception ex) {
-                            logger.error("Error parsing date for event: {}", e.getName(), ex);
-                            return false;
-                        }
-                    })
-                    .collect(Collectors.toList());
-            }
-            
-            // Hide events that ended more than 1 day ago
-            LocalDateTime now = LocalDateTime.now();
-            events = events.stream()
-                .filter(e -> {
-                    if (e.getEventEnd() == null) return true;
-                    try {
-                        LocalDateTime end = parseToLocalDateTime(e.getEventEnd());
-                        return now.isBefore(end.plusDays(1));
-                    } catch (Exception ex) {
-                        logger.warn("Failed to parse eventEnd for event: {}", e.getId());
-                        return true;
-                    }
-                })
-                .collect(Collectors.toList());
-            
-            // Filter out deleted events
-            events.removeIf(e -> Boolean.TRUE.equals(e.getDeleted()));
-            return ResponseEntity.ok(events);
+            return ResponseEntity.ok(listingService.publicEvents(category, location, name, organizer, eventStart, selected));
         } catch (Exception e) {
             logger.error("Failed to fetch events", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
-    // Get event detail by id
+    // Get event detail by id; revalidation (If-None-Match / If-Modified-Since) is answered without reading the event
     @GetMapping("/{id}")
-    public ResponseEntity<Event> getEvent(@PathVariable String id) {
+    public ResponseEntity<byte[]> getEvent(@PathVariable String id, WebRequest request) {
         try {
-            return eventRepository.findById(id)
-                    .map(ResponseEntity::ok)
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+                Optional<EventDetailCache.Detail> validators = eventDetailCache.validators(id);
+                if (validators.isPresent() && request.checkNotModified(validators.get().etag(), validators.get().lastModified())) {
+                    return null;
+                }
+            }
+            return eventDetailCache.get(id)
+                    .map(detail -> ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .cacheControl(CacheControl.noCache())
+                            .eTag(detail.etag())
+                            .lastModified(detail.lastModified())
+                            .body(detail.json()))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             logger.error("Failed to fetch event with id: {}", id, e);
@@ -318,7 +274,10 @@ public class EventController {
             @RequestParam("location") String location,
             @RequestParam("price") double price,
             @RequestParam(value = "seats", required = false) String seatsCsv,
+            @RequestParam(value = "seatMap", required = false) String seatMapJson,
             @RequestPart(value = "image", required = false) MultipartFile imageFile,
+            @RequestParam(value = "imageUrl", required = false) String directImageUrl,
+            @RequestParam(value = "asyncImageUpload", defaultValue = "false") boolean asyncImageUpload,
             @RequestParam("organizerId") String organizerId
     ) {
         try {
@@ -334,20 +293,13 @@ public class EventController {
             event.setEventStart(eventStartStr);
             event.setEventEnd(eventEndStr);
 
-            // Parse seats from CSV string (e.g., "A1,A2,A3")
-            if (seatsCsv != null && !seatsCsv.isEmpty()) {
-                List<String> seats = Arrays.asList(seatsCsv.split(","));
-                event.setSeats(seats);
-            }
+            event.setSeatMap(parseSeatMap(seatsCsv, seatMapJson));
 
-            if (imageFile != null && !imageFile.isEmpty()) {
-                validateImageFile(imageFile);
-                String imageUrl = imageService.uploadImage(imageFile);
-                event.setImageUrl(imageUrl);
-            }
+            CompletableFuture<String> pendingUpload = applyImage(event, imageFile, directImageUrl, asyncImageUpload);
 
             Event savedEvent = eventRepository.save(event);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedEvent);
+            attachImageWhenUploaded(savedEvent.getId(), pendingUpload);
+            return ResponseEntity.status(HttpStatus.CREATED).body(imageVariantService.decorate(savedEvent));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -368,45 +320,106 @@ public class EventController {
             @RequestParam(value = "location", required = false) String location,
             @RequestParam(value = "price", required = false) Double price,
             @RequestParam(value = "seats", required = false) String seatsCsv,
+            @RequestParam(value = "seatMap", required = false) String seatMapJson,
             @RequestPart(value = "image", required = false) MultipartFile imageFile,
-            @RequestParam(value = "organizerId", required = false) String organizerId
+            @RequestParam(value = "imageUrl", required = false) String directImageUrl,
+            @RequestParam(value = "asyncImageUpload", defaultValue = "false") boolean asyncImageUpload,
+            @RequestParam(value = "organizerId", required = false) String organizerId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         try {
             Event existingEvent = eventRepository.findById(id)
                     .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+            // Clients send the ETag they edited from, so a concurrent edit isn't silently overwritten
+            if (!EntityTags.ifMatch(ifMatch, existingEvent)) {
+                return eventChanged(existingEvent);
+            }
 
-            if (name != null) existingEvent.setName(name);
-            if (description != null) existingEvent.setDescription(description);
-            if (category != null) existingEvent.setCategory(category);
-            if (location != null) existingEvent.setLocation(location);
-            if (price != null) existingEvent.setPrice(price);
-            if (organizerId != null) existingEvent.setOrganizer(organizerId);
+            // Only the supplied fields are written ($set), conditional on the version they were checked against
+            Update changes = new Update();
+            if (name != null) changes.set("name", name);
+            if (description != null) changes.set("description", description);
+            if (category != null) changes.set("category", category);
+            if (location != null) changes.set("location", location);
+            if (price != null) changes.set("price", price);
+            if (organizerId != null) changes.set("organizer", organizerId);
 
             // Store eventStart and eventEnd as strings directly if provided
-            if (eventStartStr != null) existingEvent.setEventStart(eventStartStr);
-            if (eventEndStr != null) existingEvent.setEventEnd(eventEndStr);
-
-            if (seatsCsv != null && !seatsCsv.isEmpty()) {
-                List<String> seats = Arrays.asList(seatsCsv.split(","));
-                existingEvent.setSeats(seats);
+            if (eventStartStr != null) changes.set("eventStart", eventStartStr);
+            if (eventEndStr != null) changes.set("eventEnd", eventEndStr);
+
+            SeatMap seatMap = parseSeatMap(seatsCsv, seatMapJson);
+            if (seatMap != null) changes.set("seatMap", seatMap);
+
+            // The image is checked now but uploaded only once the version-checked write has gone through,
+            // so a 404, 409 or 412 doesn't leave behind an upload that no event points at
+            String ownImageUrl = checkImageUrl(directImageUrl);
+            if (ownImageUrl != null) changes.set("imageUrl", ownImageUrl);
+            boolean uploading = checkImageFile(imageFile);
+
+            // With If-Match the client asserted a version, so a conflict is theirs to resolve (412);
+            // without one the $set doesn't depend on what it read and is simply retried
+            Optional<Event> written = ifMatch == null
+                    ? eventWriteService.update(existingEvent, "update", event -> changes)
+                    : eventWriteService.updateOnce(existingEvent, "update", changes);
+            if (written.isEmpty()) {
+                return ResponseEntity.notFound().build();
             }
-
-            if (imageFile != null && !imageFile.isEmpty()) {
-                validateImageFile(imageFile);
-                String imageUrl = imageService.uploadImage(imageFile);
-                existingEvent.setImageUrl(imageUrl);
+            Event updatedEvent = written.get();
+            if (uploading && asyncImageUpload) {
+                attachImageWhenUploaded(updatedEvent.getId(), imageService.uploadImageAsync(imageFile));
+            } else if (uploading) {
+                Optional<Event> withImage = attachImage(updatedEvent, imageService.uploadImage(imageFile));
+                if (withImage.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                updatedEvent = withImage.get();
             }
-
-            Event updatedEvent = eventRepository.save(existingEvent);
-            return ResponseEntity.ok(updatedEvent);
+            return ResponseEntity.ok()
+                    .eTag(EntityTags.etag(updatedEvent))
+                    .body(imageVariantService.decorate(updatedEvent));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            // Saved by someone else between our read and write
+            return eventRepository.findById(id)
+                    .<ResponseEntity<?>>map(this::eventChanged)
+                    .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             logger.error("Failed to update event", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * The seat map from a structured "seatMap" JSON field (sections, rows, ranges,
+     * tiers) or else from the plain "seats" CSV ("A1,A2,A3"), compressed into
+     * ranges. Null when neither was sent.
+     */
+    private SeatMap parseSeatMap(String seatsCsv, String seatMapJson) {
+        if (seatMapJson != null && !seatMapJson.isBlank()) {
+            SeatMap seatMap;
+            try {
+                seatMap = objectMapper.readValue(seatMapJson, SeatMap.class);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("seatMap is not a valid seat map");
+            }
+            seatMap.validate();
+            return seatMap;
+        }
+        if (seatsCsv != null && !seatsCsv.isEmpty()) {
+            return SeatMap.fromLabels(Arrays.asList(seatsCsv.split(",")));
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> eventChanged(Event current) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(EntityTags.etag(current))
+                .body(Map.of("error", "Event was changed by someone else; reload it and try again.",
+                        "version", current.getVersion() == null ? 0 : current.getVersion()));
+    }
+
     @PostMapping("/{eventId}/apply-staff")
     public ResponseEntity<?> applyAsStaff(@PathVariable String eventId, @RequestBody Map<String, String> body) {
         try {
@@ -497,115 +510,218 @@ public class EventController {
     }
 
     @GetMapping("/staff/{staffId}")
-    public ResponseEntity<?> getEventsForStaff(@PathVariable String staffId) {
-        List<StaffApplication> apps = staffApplicationRepository.findAll();
-        List<StaffApplication> staffApps = new ArrayList<>();
-        for (StaffApplication app : apps) {
-            if (app.getStaffId().equals(staffId)) {
-                staffApps.add(app);
-            }
-        }
-        List<Map<String, Object>> result = new ArrayList<>();
-        for (StaffApplication app : staffApps) {
-            Optional<Event> eventOpt = eventRepository.findById(app.getEventId());
-            if (eventOpt.isPresent()) {
-                Event event = eventOpt.get();
-                Map<String, Object> eventMap = new HashMap<>();
-                eventMap.put("id", event.getId());
-                eventMap.put("name", event.getName());
-                eventMap.put("category", event.getCategory());
-                eventMap.put("location", event.getLocation());
-                eventMap.put("description", event.getDescription());
-                eventMap.put("organizer", event.getOrganizer());
-                eventMap.put("imageUrl", event.getImageUrl());
-                eventMap.put("price", event.getPrice());
-                eventMap.put("income", event.getIncome());
-                eventMap.put("seats", event.getSeats());
-                eventMap.put("eventStart", event.getEventStart());
-                eventMap.put("eventEnd", event.getEventEnd());
-                eventMap.put("status", app.getStatus());
-                result.add(eventMap);
-            }
-        }
-        return ResponseEntity.ok(result);
+    public ResponseEntity<?> getEventsForStaff(@PathVariable String staffId,
+                                               @RequestParam(required = false) String fields) {
+        Set<String> selected = SparseFields.parse(fields, EventSummary.fieldsWith("status"));
+        List<StaffApplication> apps = staffApplicationRepository.findByStaffId(staffId);
+        return ResponseEntity.ok(listingService.staffEvents(apps, selected));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEvent(@PathVariable String id) {
         try {
-            eventRepository.findById(id).ifPresent(event -> {
-                LocalDateTime now = LocalDateTime.now();
-                String eventEndStr = event.getEventEnd();
-                OffsetDateTime eventEnd = null;
-                if (eventEndStr != null) {
+            Optional<Event> current = eventRepository.findById(id);
+            if (current.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            // The deletability check is re-run if the event changes under us (e.g. its end date is edited)
+            Optional<Event> written = eventWriteService.update(current.get(), "delete",
+                    event -> canDelete(event) ? Update.update("deleted", true) : null);
+            written.filter(event -> Boolean.TRUE.equals(event.getDeleted())).ifPresent(event -> {
+                // Soft delete: the event keeps its revenue and ticketsSold; its tickets and image go
+                ticketRepository.findByEventId(event.getId()).forEach(ticket -> {
+                    ticketRepository.deleteById(ticket.getId());
+                });
+                orderService.deleteByEvent(event.getId());
+                if (event.getImageUrl() != null) {
                     try {
-                        eventEnd = OffsetDateTime.parse(eventEndStr, DateTimeFormatter.ISO_DATE_TIME);
+                        imageService.deleteImageByUrl(event.getImageUrl());
                     } catch (Exception e) {
-                        logger.warn("Failed to parse eventEnd for event {}: {}", event.getId(), eventEndStr);
+                        logger.warn("Failed to delete image from Cloudinary: {}", event.getImageUrl(), e);
                     }
                 }
-                boolean hasTickets = ticketRepository.countByEventId(event.getId()) > 0;
-                boolean canDelete = false;
-                if (!hasTickets) {
-                    canDelete = true; // No tickets, can delete anytime
-                } else if (eventEnd != null && eventEnd.toLocalDateTime().isBefore(now)) {
-                    canDelete = true; // Has tickets, can only delete after event ends
-                }
-                if (canDelete) {
-                    // Delete all tickets for this event
-                    ticketRepository.findByEventId(event.getId()).forEach(ticket -> {
-                        ticketRepository.deleteById(ticket.getId());
-                    });
-                    if (event.getImageUrl() != null) {
-                        try {
-                            imageService.deleteImageByUrl(event.getImageUrl());
-                        } catch (Exception e) {
-                            logger.warn("Failed to delete image from Cloudinary: {}", event.getImageUrl(), e);
-                        }
-                    }
-                    // Soft delete: mark event as deleted, but keep revenue and ticketsSold
-                    event.setDeleted(true);
-                    eventRepository.save(event);
-                    logger.info("Soft-deleted event {} and its tickets.", event.getId());
-                } else {
-                    logger.warn("Event {} not deleted: eventEnd={}, now={}, hasTickets={}", event.getId(), eventEndStr, now, hasTickets);
-                }
+                logger.info("Soft-deleted event {} and its tickets and orders.", event.getId());
             });
             return ResponseEntity.noContent().build();
+        } catch (OptimisticLockingFailureException e) {
+            // Lost every retry to concurrent writes; the client may simply try again
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Failed to delete event with id: {}", id, e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
-    // Scheduled task to delete events after eventEnd
-    @Scheduled(cron = "0 0 * * * *") // Every hour
-    public void deleteExpiredEvents() {
-        // Soft-remove events one day after they end by marking them as deleted
-        try {
-            List<Event> allEvents = eventRepository.findAll();
-            LocalDateTime now = LocalDateTime.now();
-            for (Event event : allEvents) {
-                if (Boolean.TRUE.equals(event.getDeleted())) {
-                    continue;
+    // No tickets: any time. With tickets: only once the event has ended.
+    private boolean canDelete(Event event) {
+        if (Boolean.TRUE.equals(event.getDeleted())) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String eventEndStr = event.getEventEnd();
+        OffsetDateTime eventEnd = null;
+        if (eventEndStr != null) {
+            try {
+                eventEnd = OffsetDateTime.parse(eventEndStr, DateTimeFormatter.ISO_DATE_TIME);
+            } catch (Exception e) {
+                logger.warn("Failed to parse eventEnd for event {}: {}", event.getId(), eventEndStr);
+            }
+        }
+        boolean hasTickets = ticketRepository.countByEventId(event.getId()) > 0;
+        if (!hasTickets || (eventEnd != null && eventEnd.toLocalDateTime().isBefore(now))) {
+            return true;
+        }
+        logger.warn("Event {} not deleted: eventEnd={}, now={}, hasTickets={}", event.getId(), eventEndStr, now, hasTickets);
+        return false;
+    }
+
+    // Signed parameters for uploading an event image straight to Cloudinary from the browser
+    @PostMapping("/images/upload-signature")
+    @PreAuthorize("hasRole('ORGANIZER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getImageUploadSignature() {
+        // The local image store has nowhere for the browser to upload to
+        return imageService.signedUploadParams()
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                        "Direct uploads are not supported by the configured image store"));
+    }
+
+    /**
+     * Attendee list as CSV, NDJSON or XLSX, streamed as it is read. An
+     * interrupted download resumes with after=<last ticketId received>;
+     * limit splits a large export into parts.
+     */
+    @GetMapping("/{eventId}/attendees/export")
+    @PreAuthorize("hasRole('ORGANIZER') or hasRole('ADMIN')")
+    public void exportAttendees(@PathVariable String eventId,
+                                @RequestParam(defaultValue = "csv") String format,
+                                @RequestParam(required = false) String after,
+                                @RequestParam(defaultValue = "0") long limit,
+                                @AuthenticationPrincipal JwtUserPrincipal principal,
+                                HttpServletResponse response) throws IOException {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
+        if (!"ADMIN".equals(principal.getRole()) && !principal.getId().equals(event.getOrganizer())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not the organizer of this event");
+        }
+        AdminListingService.checkCursor(after);
+        String filename = "attendees-" + eventId + (after != null && !after.isBlank() ? "-after-" + after : "");
+
+        // Everything below commits the response, so argument errors must be raised above
+        switch (format.toLowerCase()) {
+            case "csv" -> {
+                response.setContentType("text/csv;charset=UTF-8");
+                attachment(response, filename + ".csv");
+                try (CsvWriter writer = new CsvWriter(response.getOutputStream())) {
+                    writer.writeRow(AttendeeExportService.COLUMNS);
+                    attendeeExportService.export(eventId, after, limit, row -> writer.writeRow(row.cells()));
                 }
-                String endStr = event.getEventEnd();
-                if (endStr == null) {
-                    continue;
+            }
+            case "ndjson" -> {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                attachment(response, filename + ".ndjson");
+                try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+                    attendeeExportService.export(eventId, after, limit, writer::write);
                 }
-                try {
-                    LocalDateTime end = parseToLocalDateTime(endStr);
-                    if (now.isAfter(end.plusDays(1))) {
-                        event.setDeleted(true);
-                        eventRepository.save(event);
-                        logger.info("Soft-removed event (marked deleted) after 1 day: {}", event.getId());
-                    }
-                } catch (Exception parseEx) {
-                    logger.warn("Failed to parse eventEnd for event: {}", event.getId());
+            }
+            case "xlsx" -> {
+                response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+                attachment(response, filename + ".xlsx");
+                try (XlsxStreamWriter writer = new XlsxStreamWriter(response.getOutputStream(), "Attendees")) {
+                    writer.writeRow(AttendeeExportService.COLUMNS);
+                    attendeeExportService.export(eventId, after, limit, row -> writer.writeRow(row.cells()));
                 }
             }
-        } catch (Exception ex) {
-            logger.error("Failed during scheduled soft-removal of expired events", ex);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv, ndjson or xlsx");
+        }
+    }
+
+    private static void attachment(HttpServletResponse response, String filename) {
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+    }
+
+    /**
+     * Sets the event image from a direct-to-Cloudinary URL or an uploaded file.
+     * Uploads stream from disk; with asyncImageUpload the upload runs in the
+     * background and the returned future is attached once the event is saved.
+     */
+    private CompletableFuture<String> applyImage(Event event, MultipartFile imageFile, String directImageUrl,
+                                                 boolean asyncImageUpload) throws IOException {
+        String ownImageUrl = checkImageUrl(directImageUrl);
+        if (ownImageUrl != null) {
+            event.setImageUrl(ownImageUrl);
+        }
+        if (!checkImageFile(imageFile)) {
+            return null;
+        }
+        if (asyncImageUpload) {
+            return imageService.uploadImageAsync(imageFile);
+        }
+        event.setImageUrl(imageService.uploadImage(imageFile));
+        return null;
+    }
+
+    // A direct-to-Cloudinary URL, or null when none was sent
+    private String checkImageUrl(String directImageUrl) {
+        if (directImageUrl == null || directImageUrl.isEmpty()) {
+            return null;
+        }
+        if (!imageService.isOwnImageUrl(directImageUrl)) {
+            throw new IllegalArgumentException("imageUrl must come from a signed TicketNepal upload");
+        }
+        return directImageUrl;
+    }
+
+    // Whether an image file was sent (and is one we accept)
+    private boolean checkImageFile(MultipartFile imageFile) {
+        if (imageFile == null || imageFile.isEmpty()) {
+            return false;
+        }
+        validateImageFile(imageFile);
+        return true;
+    }
+
+    /**
+     * Points an already-written event at a freshly uploaded image. The $set
+     * doesn't depend on what it read, so it is retried; if it can't land (the
+     * event was deleted, or kept losing races) the upload is deleted again.
+     */
+    private Optional<Event> attachImage(Event event, String imageUrl) {
+        Optional<Event> written;
+        try {
+            written = eventWriteService.update(event, "image", current -> new Update().set("imageUrl", imageUrl));
+        } catch (RuntimeException e) {
+            deleteOrphanedImage(imageUrl);
+            throw e;
+        }
+        if (written.isEmpty()) {
+            deleteOrphanedImage(imageUrl);
+        }
+        return written;
+    }
+
+    private void attachImageWhenUploaded(String eventId, CompletableFuture<String> pendingUpload) {
+        if (pendingUpload == null) return;
+        pendingUpload.whenComplete((imageUrl, ex) -> {
+            if (ex != null) {
+                logger.error("Background image upload failed for event {}", eventId, ex);
+            } else if (eventRepository.setImageUrl(eventId, imageUrl) == 0) {
+                // Deleted while the image was uploading
+                deleteOrphanedImage(imageUrl);
+            } else {
+                eventDetailCache.evict(eventId);
+                eventRepository.findById(eventId).ifPresent(event -> orderService.eventChanged(null, event));
+                logger.info("Attached uploaded image to event {}", eventId);
+            }
+        });
+    }
+
+    private void deleteOrphanedImage(String imageUrl) {
+        try {
+            imageService.deleteImageByUrl(imageUrl);
+        } catch (IOException e) {
+            logger.warn("Failed to delete orphaned image {}", imageUrl, e);
         }
     }
 
@@ -620,16 +736,7 @@ public class EventController {
         }
     }
 
-    // Flexible parser: supports ISO_LOCAL_DATE_TIME and ISO_OFFSET_DATE_TIME (with 'Z' or timezone)
     private LocalDateTime parseToLocalDateTime(String value) {
-        if (value == null) throw new DateTimeParseException("null", "", 0);
-        try {
-            // First try without offset
-            return LocalDateTime.parse(value);
-        } catch (DateTimeParseException ex) {
-            // Fallback to offset format
-            OffsetDateTime odt = OffsetDateTime.parse(value);
-            return odt.toLocalDateTime();
-        }
+        return EventFilters.parseToLocalDateTime(value);
     }
 }
@@ -0,0 +1,75 @@
+package com.ticketnepal.controller;
+
+import com.ticketnepal.service.ImageDiskCache;
+import com.ticketnepal.service.ImageStore;
+import com.ticketnepal.service.ImageVariant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Serves resized event images (see ImageVariantService for the URLs). Variants
+ * come from the local disk cache when present, otherwise from the image store,
+ * and are cached on the way through. Keys are versioned, so responses are
+ * immutable and browsers/CDNs can keep them for a year.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageController.class);
+    private static final Pattern SAFE_KEY = Pattern.compile("[A-Za-z0-9_\\-./]+");
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ImageDiskCache imageDiskCache;
+
+    @GetMapping("/{variant}/{format}/{*key}")
+    public ResponseEntity<Resource> getVariant(@PathVariable String variant,
+                                               @PathVariable String format,
+                                               @PathVariable String key) {
+        Optional<ImageVariant> imageVariant = ImageVariant.fromKey(variant);
+        String storeKey = key.startsWith("/") ? key.substring(1) : key;
+        if (imageVariant.isEmpty() || !ImageVariant.FORMATS.contains(format)
+                || !SAFE_KEY.matcher(storeKey).matches() || storeKey.contains("..")) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String cacheKey = variant + "/" + format + "/" + storeKey;
+        try {
+            ImageDiskCache.CachedImage image = imageDiskCache.get(cacheKey).orElse(null);
+            if (image == null) {
+                ImageStore.StoredImage stored = imageStore.openVariant(storeKey, imageVariant.get(), format);
+                image = imageDiskCache.put(cacheKey, stored.body(), stored.contentType());
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(IMMUTABLE)
+                    .contentType(MediaType.parseMediaType(image.contentType()))
+                    .contentLength(image.size())
+                    .body(new InputStreamResource(image.body()));
+        } catch (FileNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            logger.error("Failed to serve image variant {}", cacheKey, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -1,19 +1,47 @@
 package com.ticketnepal.controller;
 
 import com.google.zxing.WriterException;
+import com.ticketnepal.model.BookingResult;
 import com.ticketnepal.model.Event;
+import com.ticketnepal.model.Order;
+import com.ticketnepal.model.ReservedSeats;
+import com.ticketnepal.model.SeatMap;
 import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.TicketSummary;
+import com.ticketnepal.model.TicketValidation;
 import com.ticketnepal.model.User;
+import com.ticketnepal.model.Versioned;
 import com.ticketnepal.repository.EventRepository;
 import com.ticketnepal.repository.TicketRepository;
 import com.ticketnepal.repository.UserRepository;
+import com.ticketnepal.security.JwtUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketnepal.service.AdminListingService;
 import com.ticketnepal.service.EmailService;
+import com.ticketnepal.service.EventWriteService;
+import com.ticketnepal.service.IdempotencyService;
+import com.ticketnepal.service.ListingService;
+import com.ticketnepal.service.OrderService;
 import com.ticketnepal.service.QrCodeService;
+import com.ticketnepal.service.SeatLeaseService;
+import com.ticketnepal.service.TicketMetrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.ticketnepal.util.CursorPages;
+import com.ticketnepal.util.EntityTags;
+import com.ticketnepal.util.NdjsonWriter;
+import com.ticketnepal.util.SeatConflicts;
+import com.ticketnepal.util.SparseFields;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.mail.MessagingException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.io.IOException;
@@ -23,11 +51,14 @@ import com.ticketnepal.model.StaffApplication;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/tickets")
 public class TicketController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TicketController.class);
+
     @Autowired
     private TicketRepository ticketRepository;
     @Autowired
@@ -38,34 +69,106 @@ public class TicketController {
     private EmailService emailService;
     @Autowired
     private QrCodeService qrCodeService;
+    @Autowired
+    private TicketMetrics ticketMetrics;
+    @Autowired
+    private ListingService listingService;
+    @Autowired
+    private AdminListingService adminListingService;
+    @Autowired
+    private EventWriteService eventWriteService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private SeatLeaseService seatLeaseService;
 
     @Autowired
     private StaffApplicationRepository staffApplicationRepository;
 
+    // Cursor-paginated: follow the Link header (or pass X-Next-Cursor as cursor) for the next page
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('ORGANIZER')")
-    public ResponseEntity<List<Ticket>> getAllTickets() {
-        return ResponseEntity.ok(ticketRepository.findAll());
+    public ResponseEntity<List<Ticket>> getAllTickets(@RequestParam(required = false) String eventId,
+                                                      @RequestParam(required = false) Boolean checkedIn,
+                                                      @RequestParam(required = false) String from,
+                                                      @RequestParam(required = false) String to,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "" + AdminListingService.DEFAULT_LIMIT) int limit) {
+        Criteria criteria = adminListingService.ticketCriteria(eventId, checkedIn, from, to);
+        AdminListingService.Slice<Ticket> page = adminListingService.ticketPage(criteria, cursor, limit);
+        Long total = cursor == null ? adminListingService.count(criteria, Ticket.class) : null;
+        return CursorPages.toResponse(page.items(), page.nextCursor(), total);
+    }
+
+    // Same filters, every match as NDJSON straight from a Mongo cursor; cursor resumes after an id
+    @GetMapping(params = "format=ndjson")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ORGANIZER')")
+    public void streamAllTickets(@RequestParam(required = false) String eventId,
+                                 @RequestParam(required = false) Boolean checkedIn,
+                                 @RequestParam(required = false) String from,
+                                 @RequestParam(required = false) String to,
+                                 @RequestParam(required = false) String cursor,
+                                 HttpServletResponse response) throws IOException {
+        Criteria criteria = adminListingService.ticketCriteria(eventId, checkedIn, from, to);
+        AdminListingService.checkCursor(cursor);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (Stream<Ticket> tickets = adminListingService.streamTickets(criteria, cursor);
+             NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            for (Iterator<Ticket> it = tickets.iterator(); it.hasNext(); ) {
+                writer.write(it.next());
+            }
+        }
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Ticket>> getUserTickets(@PathVariable String userId) {
-        return ResponseEntity.ok(ticketRepository.findByUserId(userId));
+    public ResponseEntity<List<TicketSummary>> getUserTickets(@PathVariable String userId,
+                                                              @RequestParam(required = false) String fields) {
+        Set<String> selected = SparseFields.parse(fields, TicketSummary.FIELDS);
+        return ResponseEntity.ok(listingService.userTickets(userId, selected));
     }
 
     // 🟢 NEW: Get all reserved seats for an event
     @GetMapping("/reserved")
-    public ResponseEntity<?> getReservedSeats(@RequestParam String eventId) {
+    public ResponseEntity<ReservedSeats> getReservedSeats(@RequestParam String eventId) {
         List<Ticket> tickets = ticketRepository.findByEventId(eventId);
         List<String> reservedSeats = tickets.stream()
             .map(Ticket::getSeat)
             .toList();
-        return ResponseEntity.ok(Map.of("reservedSeats", reservedSeats));
+        return ResponseEntity.ok(new ReservedSeats(reservedSeats));
     }
 
+    // With an Idempotency-Key, retries of the same booking replay the first response instead of booking again
     @PostMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> bookTickets(@RequestBody Map<String, Object> req) throws IOException, MessagingException, WriterException {
+    public ResponseEntity<?> bookTickets(@RequestBody Map<String, Object> req,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) throws Exception {
+        JwtUserPrincipal principal = currentPrincipal();
+        if (idempotencyKey == null || principal == null) {
+            return timedBook(req);
+        }
+        return idempotencyService.execute("booking:" + principal.getId(), idempotencyKey, req, () -> timedBook(req));
+    }
+
+    private ResponseEntity<?> timedBook(Map<String, Object> req) throws IOException, MessagingException, WriterException {
+        Timer.Sample sample = ticketMetrics.startBooking();
+        ResponseEntity<?> response;
+        try {
+            response = book(req);
+        } catch (IOException | MessagingException | WriterException | RuntimeException e) {
+            ticketMetrics.bookingFinished(sample, "error");
+            throw e;
+        }
+        HttpStatusCode status = response.getStatusCode();
+        ticketMetrics.bookingFinished(sample, status.is2xxSuccessful() ? "success"
+                : status.value() == HttpStatus.CONFLICT.value() ? "conflict" : "invalid");
+        return response;
+    }
+
+    private ResponseEntity<?> book(Map<String, Object> req) throws IOException, MessagingException, WriterException {
         String userId = (String) req.get("userId");
         String eventId = (String) req.get("eventId");
         Object seatsObj = req.get("seats");
@@ -74,49 +177,77 @@ public class TicketController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "No seats selected."));
         }
+        if (new HashSet<>(seats).size() != seats.size()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "A seat is selected more than once."));
+        }
         User user = userRepository.findById(userId).orElse(null);
         Event event = eventRepository.findById(eventId).orElse(null);
         if (user == null || event == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Invalid user or event."));
         }
-        // Check for double booking
-        for (String seat : seats) {
-            if (ticketRepository.findByEventIdAndSeat(eventId, seat).isPresent()) {
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(Map.of("error", "Seat already reserved.", "seat", seat));
+        // Seats must exist in the seat map (events created without one take any label)
+        SeatMap seatMap = event.getSeatMap();
+        if (seatMap != null && seatMap.size() > 0) {
+            for (String seat : seats) {
+                if (!seatMap.contains(seat)) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(Map.of("error", "No such seat.", "seat", seat));
+                }
             }
         }
         String transactionId = UUID.randomUUID().toString();
-        List<Ticket> createdTickets = new ArrayList<>();
-        List<Map<String, String>> ticketDetails = new ArrayList<>();
+        List<Ticket> newTickets = new ArrayList<>();
         double totalPrice = 0.0;
         for (String seat : seats) {
             Ticket ticket = new Ticket();
             ticket.setUserId(userId);
-            ticket.setUserName(user.getName());
             ticket.setEventId(eventId);
             ticket.setSeat(seat);
+            // Also the group QR code; the QR hint and URL are derived from it
             ticket.setTransactionId(transactionId);
-            // For group QR, qrCodeHint is the same as transactionId
-            ticket.setQrCodeHint(transactionId); // Use transactionId as QR code hint
-            ticket.setPrice(event.getPrice());
-            ticket = ticketRepository.save(ticket);
-            ticket.setQrCodeUrl("/api/tickets/qr/transaction/" + transactionId);
-            ticket = ticketRepository.save(ticket);
-            createdTickets.add(ticket);
-            Map<String, String> details = new HashMap<>();
-            details.put("eventName", event.getName());
-            details.put("eventDate", event.getEventStart());
-            details.put("seat", seat);
-            details.put("ticketId", ticket.getId());
-            ticketDetails.add(details);
-            totalPrice += event.getPrice();
+            double price = seatMap == null ? event.getPrice() : seatMap.priceOf(seat, event.getPrice());
+            ticket.setPrice(price);
+            newTickets.add(ticket);
+            totalPrice += price;
+        }
+        // Hold the seats against bookings on every instance while this one checks and writes them
+        SeatLeaseService.Leases leases = seatLeaseService.acquire(eventId, seats, transactionId);
+        if (!leases.acquired()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Seat already reserved.", "seat", leases.contendedSeat()));
+        }
+        List<Ticket> createdTickets;
+        try {
+            // Check for double booking (one query for the whole selection)
+            List<String> takenSeats = ticketRepository.findByEventIdAndSeatIn(eventId, seats).stream()
+                    .map(Ticket::getSeat)
+                    .toList();
+            String conflict = SeatConflicts.firstConflict(seats, takenSeats);
+            if (conflict != null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Seat already reserved.", "seat", conflict));
+            }
+            // Tickets and order in one write. If a lease ran out while this request stalled, another
+            // booking may hold the seat now; event_seat_unique lets only one of the two write it
+            try {
+                createdTickets = orderService.book(transactionId, userId, event, newTickets);
+            } catch (DuplicateKeyException e) {
+                // Lost a race for a seat; nothing of this booking was kept
+                List<String> lostSeats = ticketRepository.findByEventIdAndSeatIn(eventId, seats).stream()
+                        .map(Ticket::getSeat)
+                        .toList();
+                String seat = SeatConflicts.firstConflict(seats, lostSeats);
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Seat already reserved.", "seat", seat != null ? seat : seats.get(0)));
+            }
+        } finally {
+            // The tickets hold the seats from here on
+            seatLeaseService.release(leases);
         }
         // Update event income
-        double oldIncome = (event.getIncome() == null ? 0.0 : event.getIncome());
-        event.setIncome(oldIncome + totalPrice);
-        eventRepository.save(event);
+        eventWriteService.addIncome(eventId, totalPrice);
         // Generate QR code for all tickets in this transaction
         byte[] qr = qrCodeService.generateQrCode(transactionId, 400, 400);
         // Send email with QR
@@ -124,11 +255,9 @@ public class TicketController {
         String text = "Dear " + user.getName() + ",\n\nHere are your tickets for " + event.getName() + ". " +
                 "Show the QR code attached at the event entrance.\n\nSeats: " + String.join(", ", seats) +
                 "\n\nThank you for booking with ticketnepal!";
+        ticketMetrics.seatsSold(seats.size());
         emailService.sendQrTicketEmail(user.getEmail(), subject, text, qr, "tickets-qr.png");
-        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
-                "tickets", createdTickets,
-                "transactionId", transactionId
-        ));
+        return ResponseEntity.status(HttpStatus.CREATED).body(new BookingResult(createdTickets, transactionId));
     }
 
     @GetMapping("/{ticketId}")
@@ -142,7 +271,9 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
     Map<String, Object> resp = new HashMap<>();
     resp.put("ticket", ticket);
     eventOpt.ifPresent(event -> resp.put("event", event));
-    return ResponseEntity.ok(resp);
+    List<Versioned> sources = new ArrayList<>(List.of(ticket));
+    eventOpt.ifPresent(sources::add);
+    return conditional(sources).body(resp);
 }
 
 
@@ -164,29 +295,24 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
             headers.setCacheControl(CacheControl.noCache().getHeaderValue());
             return new ResponseEntity<>(qrImage, headers, HttpStatus.OK);
         } catch (Exception e) {
-            // Log the error for debugging
-            e.printStackTrace();
+            logger.error("Failed to render QR code for ticket {}", ticketId, e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
     @GetMapping("/qr/transaction/{transactionId}")
     public ResponseEntity<byte[]> getTransactionQrCode(@PathVariable String transactionId) {
-        List<Ticket> tickets = ticketRepository.findByTransactionId(transactionId);
-        if (tickets.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-        Event event = eventRepository.findById(tickets.get(0).getEventId()).orElse(null);
-        if (event == null) {
+        Order order = orderService.find(transactionId).orElse(null);
+        if (order == null || order.getEvent() == null) {
             return ResponseEntity.notFound().build();
         }
         List<Map<String, String>> ticketDetails = new ArrayList<>();
-        for (Ticket ticket : tickets) {
+        for (Order.Item item : order.getItems()) {
             Map<String, String> details = new HashMap<>();
-            details.put("eventName", event.getName());
-            details.put("eventDate", event.getEventStart());
-            details.put("seat", ticket.getSeat());
-            details.put("ticketId", ticket.getId());
+            details.put("eventName", order.getEvent().name());
+            details.put("eventDate", order.getEvent().eventStart());
+            details.put("seat", item.seat());
+            details.put("ticketId", item.ticketId());
             details.put("transactionId", transactionId); // Add transaction ID to details
             ticketDetails.add(details);
         }
@@ -202,80 +328,59 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
     }
 
     @GetMapping("/validate")
-    public ResponseEntity<?> validateQr(@RequestParam("code") String qrHint) {
+    public ResponseEntity<TicketValidation> validateQr(@RequestParam("code") String qrHint) {
         List<Ticket> qrHintTickets = ticketRepository.findByQrCodeHint(qrHint);
         if (!qrHintTickets.isEmpty()) {
             Ticket ticket = qrHintTickets.get(0);
-            Map<String, Object> resp = new HashMap<>();
-            resp.put("status", ticket.isCheckedIn() ? "Already checked-in" : "Valid ticket");
-            resp.put("ticket", ticket);
-            return ResponseEntity.ok(resp);
+            return conditional(List.of(ticket)).body(TicketValidation.single(null, ticket));
         } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("status", "Invalid or not found"));
+            return validationFailure(TicketValidation.NOT_FOUND);
         }
     }
 
+    // One read of the transaction's order (rebuilt from its tickets for bookings made before orders)
     @GetMapping("/validate/transaction")
-    public ResponseEntity<?> validateTransactionQr(@RequestParam("transactionId") String transactionId) {
-        List<Ticket> tickets = ticketRepository.findByTransactionId(transactionId);
-        if (tickets.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("status", "Invalid or not found"));
-        }
-        Event event = eventRepository.findById(tickets.get(0).getEventId()).orElse(null);
-        if (event == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("status", "Event not found"));
+    public ResponseEntity<TicketValidation> validateTransactionQr(@RequestParam("transactionId") String transactionId) {
+        Order order = orderService.find(transactionId).orElse(null);
+        if (order == null) {
+            return validationFailure(TicketValidation.NOT_FOUND);
         }
-        List<Map<String, Object>> ticketInfos = new ArrayList<>();
-        for (Ticket ticket : tickets) {
-            Map<String, Object> info = new HashMap<>();
-            info.put("ticketId", ticket.getId());
-            info.put("seat", ticket.getSeat());
-            info.put("checkedIn", ticket.isCheckedIn());
-            ticketInfos.add(info);
+        if (order.getEvent() == null) {
+            return validationFailure(TicketValidation.EVENT_NOT_FOUND);
         }
-        Map<String, Object> resp = new HashMap<>();
-        resp.put("event", event);
-        resp.put("tickets", ticketInfos);
-        resp.put("transactionId", transactionId);
-        return ResponseEntity.ok(resp);
+        return conditional(List.of(order)).body(TicketValidation.group(null, order));
     }
 
     @GetMapping("/validate/scan")
-    public ResponseEntity<?> validateScan(@RequestParam("code") String code) {
+    public ResponseEntity<TicketValidation> validateScan(@RequestParam("code") String code) {
+        // Group QR codes carry the transactionId: answered from the order
+        Order order = orderService.find(code).orElse(null);
+        if (order != null) {
+            if (order.getEvent() == null) {
+                return validationFailure(TicketValidation.EVENT_NOT_FOUND);
+            }
+            if (order.getItems().size() > 1) {
+                return conditional(List.of(order)).body(TicketValidation.group("multiple", order));
+            }
+            Optional<Ticket> ticket = ticketRepository.findById(order.getItems().get(0).ticketId());
+            if (ticket.isPresent()) {
+                return conditional(List.of(ticket.get())).body(TicketValidation.single("single", ticket.get()));
+            }
+        }
+
         // Try as QR code hint (single or group ticket)
         List<Ticket> qrHintTickets = ticketRepository.findByQrCodeHint(code);
         if (!qrHintTickets.isEmpty()) {
             if (qrHintTickets.size() == 1) {
-                Ticket ticket = qrHintTickets.get(0);
-                Map<String, Object> resp = new HashMap<>();
-                resp.put("type", "single");
-                resp.put("status", ticket.isCheckedIn() ? "Already checked-in" : "Valid ticket");
-                resp.put("ticket", ticket);
-                return ResponseEntity.ok(resp);
+                return conditional(qrHintTickets).body(TicketValidation.single("single", qrHintTickets.get(0)));
             } else {
                 // Multiple tickets with same QR code hint (group/transaction)
                 Event event = eventRepository.findById(qrHintTickets.get(0).getEventId()).orElse(null);
                 if (event == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                            .body(Map.of("status", "Event not found"));
-                }
-                List<Map<String, Object>> ticketInfos = new ArrayList<>();
-                for (Ticket ticket : qrHintTickets) {
-                    Map<String, Object> info = new HashMap<>();
-                    info.put("ticketId", ticket.getId());
-                    info.put("seat", ticket.getSeat());
-                    info.put("checkedIn", ticket.isCheckedIn());
-                    ticketInfos.add(info);
+                    return validationFailure(TicketValidation.EVENT_NOT_FOUND);
                 }
-                Map<String, Object> resp = new HashMap<>();
-                resp.put("type", "multiple");
-                resp.put("event", event);
-                resp.put("tickets", ticketInfos);
-                resp.put("transactionId", code);
-                return ResponseEntity.ok(resp);
+                return conditional(withEvent(qrHintTickets, event))
+                        .body(TicketValidation.group("multiple", event, qrHintTickets, code, false));
             }
         }
         
@@ -311,20 +416,9 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
                 }
                 
                 if (!foundTickets.isEmpty() && event != null) {
-                    List<Map<String, Object>> ticketInfos = new ArrayList<>();
-                    for (Ticket ticket : foundTickets) {
-                        Map<String, Object> info = new HashMap<>();
-                        info.put("ticketId", ticket.getId());
-                        info.put("seat", ticket.getSeat());
-                        info.put("checkedIn", ticket.isCheckedIn());
-                        ticketInfos.add(info);
-                    }
-                    Map<String, Object> resp = new HashMap<>();
-                    resp.put("type", "multiple");
-                    resp.put("event", event);
-                    resp.put("tickets", ticketInfos);
-                    resp.put("legacy", true); // Indicate this was parsed from old format
-                    return ResponseEntity.ok(resp);
+                    // legacy=true: parsed from the old format
+                    return conditional(withEvent(foundTickets, event))
+                            .body(TicketValidation.group("multiple", event, foundTickets, null, true));
                 }
             } catch (Exception e) {
                 // If parsing fails, continue to return not found
@@ -332,8 +426,25 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
         }
         
         // Not found
-        return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body(Map.of("status", "Invalid or not found"));
+        return validationFailure(TicketValidation.NOT_FOUND);
+    }
+
+    private static ResponseEntity<TicketValidation> validationFailure(String status) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(TicketValidation.failure(status));
+    }
+
+    // 200 with validators from the documents behind the body; Spring turns it into a 304 when the client's copy matches
+    private static ResponseEntity.BodyBuilder conditional(List<? extends Versioned> sources) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(EntityTags.etag(sources))
+                .lastModified(EntityTags.lastModified(sources));
+    }
+
+    private static List<Versioned> withEvent(List<Ticket> tickets, Event event) {
+        List<Versioned> sources = new ArrayList<>(tickets);
+        sources.add(event);
+        return sources;
     }
 
     // --- Check-in endpoint: marks ticket as checked in ---
@@ -346,22 +457,20 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
             return ResponseEntity.badRequest().body(Map.of("error", "Ticket ID is required"));
         }
         
+        // Get current user (id and role come from the verified token)
+        JwtUserPrincipal user = currentPrincipal();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
         Optional<Ticket> ticketOpt = ticketRepository.findById(ticketId);
         if (ticketOpt.isEmpty()) {
+            ticketMetrics.checkIn("not_found");
             return ResponseEntity.notFound().build();
         }
         
         Ticket ticket = ticketOpt.get();
         
-        // Get current user
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = auth.getName();
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-        User user = userOpt.get();
-        
         // Authorization logic
         boolean isAuthorized = false;
         if ("ADMIN".equals(user.getRole())) {
@@ -381,11 +490,23 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
         }
         
         if (!isAuthorized) {
+            ticketMetrics.checkIn("forbidden");
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Not authorized to check in this ticket"));
         }
         
+        // "repeat" means the ticket was already checked in when this gate scanned it
+        boolean repeat = ticket.isCheckedIn();
         ticket.setCheckedIn(true);
-        ticketRepository.save(ticket);
+        try {
+            ticket = ticketRepository.save(ticket);
+        } catch (OptimisticLockingFailureException e) {
+            // Another gate saved the ticket between our read and write
+            ticketMetrics.checkIn("conflict");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Ticket was updated at the same time; scan it again."));
+        }
+        ticketMetrics.checkIn(repeat ? "repeat" : "success");
+        orderService.markCheckedIn(ticket);
         return ResponseEntity.ok(Map.of("message", "Ticket checked in successfully", "ticket", ticket));
     }
 
@@ -395,15 +516,13 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
     public ResponseEntity<?> getStaffValidationStats(@PathVariable String staffId) {
         try {
             // Get current user for authorization
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String userEmail = auth.getName();
-            Optional<User> currentUser = userRepository.findByEmail(userEmail);
-            if (currentUser.isEmpty()) {
+            JwtUserPrincipal currentUser = currentPrincipal();
+            if (currentUser == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
             
             // Only allow staff to see their own stats, or admin to see anyone's
-            if (!"ADMIN".equals(currentUser.get().getRole()) && !currentUser.get().getId().equals(staffId)) {
+            if (!"ADMIN".equals(currentUser.getRole()) && !currentUser.getId().equals(staffId)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
@@ -505,4 +624,12 @@ public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
                 .body(Map.of("error", "Failed to get validation statistics"));
         }
     }
+
+    private JwtUserPrincipal currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
 }
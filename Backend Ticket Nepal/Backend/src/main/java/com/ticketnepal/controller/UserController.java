@@ -1,16 +1,26 @@
 package com.ticketnepal.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ticketnepal.model.User;
 import com.ticketnepal.repository.UserRepository;
-import com.ticketnepal.security.JwtUtil;
+import com.ticketnepal.security.JwtUserPrincipal;
+import com.ticketnepal.security.UserCache;
+import com.ticketnepal.service.AdminListingService;
+import com.ticketnepal.util.CursorPages;
+import com.ticketnepal.util.NdjsonWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-
-import jakarta.servlet.http.HttpServletRequest;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/users")
@@ -18,7 +28,11 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private JwtUtil jwtUtil;
+    private UserCache userCache;
+    @Autowired
+    private AdminListingService adminListingService;
+    @Autowired
+    private ObjectMapper objectMapper;
 
 
     public static class UserProfileDTO {
@@ -43,9 +57,38 @@ public class UserController {
         }
     }
 
+    // Admin listing, cursor-paginated like GET /api/tickets; never includes password hashes or tokens
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<UserProfileDTO>> getAllUsers(@RequestParam(required = false) String role,
+                                                            @RequestParam(required = false) Boolean verified,
+                                                            @RequestParam(required = false) String from,
+                                                            @RequestParam(required = false) String to,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "" + AdminListingService.DEFAULT_LIMIT) int limit) {
+        Criteria criteria = adminListingService.userCriteria(role, verified, from, to);
+        AdminListingService.Slice<User> page = adminListingService.userPage(criteria, cursor, limit);
+        Long total = cursor == null ? adminListingService.count(criteria, User.class) : null;
+        return CursorPages.toResponse(page.items().stream().map(UserProfileDTO::new).toList(), page.nextCursor(), total);
+    }
+
+    @GetMapping(params = "format=ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void streamAllUsers(@RequestParam(required = false) String role,
+                               @RequestParam(required = false) Boolean verified,
+                               @RequestParam(required = false) String from,
+                               @RequestParam(required = false) String to,
+                               @RequestParam(required = false) String cursor,
+                               HttpServletResponse response) throws IOException {
+        Criteria criteria = adminListingService.userCriteria(role, verified, from, to);
+        AdminListingService.checkCursor(cursor);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (Stream<User> users = adminListingService.streamUsers(criteria, cursor);
+             NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            for (Iterator<User> it = users.iterator(); it.hasNext(); ) {
+                writer.write(new UserProfileDTO(it.next()));
+            }
+        }
     }
 
     @GetMapping("/{id}")
@@ -57,21 +100,13 @@ public class UserController {
 
     // --- SAFER: Return only safe fields to the frontend ---
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(HttpServletRequest request) {
-        // Extract token from header
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal JwtUserPrincipal principal) {
+        // The JWT filter has already verified the token and built the principal
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Missing or invalid Authorization header");
         }
-        String token = authHeader.substring(7);
-        String userEmail;
-        try {
-            userEmail = jwtUtil.extractUsername(token);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
-        }
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
+        Optional<User> userOpt = userCache.findByEmail(principal.getEmail());
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
         }
@@ -0,0 +1,6 @@
+package com.ticketnepal.model;
+
+import java.util.List;
+
+/** Tickets created by one booking, all sharing the transaction's QR code. */
+public record BookingResult(List<Ticket> tickets, String transactionId) {}
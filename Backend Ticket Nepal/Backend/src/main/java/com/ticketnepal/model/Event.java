@@ -1,11 +1,16 @@
 package com.ticketnepal.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
-import java.util.List;
+
+import java.time.Instant;
+import java.util.Map;
 
 @Document(collection = "events")
-public class Event {
+public class Event implements Versioned {
     @Id
     private String id;
 
@@ -20,7 +25,8 @@ public class Event {
 
     private Double income = 0.0;
 
-    private List<String> seats;
+    // Rows and seat ranges, not one label per seat (see SeatMap); null for events sold without seats
+    private SeatMap seatMap;
 
     // Store eventStart and eventEnd as string (e.g., '2025-07-22T13:00')
     private String eventStart;
@@ -28,6 +34,16 @@ public class Event {
 
     private Boolean deleted = false;
 
+    // Bumped on every edit (optimistic locking, see EventWriteService); income increments only move updatedAt
+    @Version
+    private Long version;
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    // Resized image URLs per variant and format; computed for responses, never stored
+    @Transient
+    private Map<String, Map<String, String>> imageVariants;
+
     // Getters and setters...
 
     public Event() {}
@@ -53,6 +69,9 @@ public class Event {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    public Map<String, Map<String, String>> getImageVariants() { return imageVariants; }
+    public void setImageVariants(Map<String, Map<String, String>> imageVariants) { this.imageVariants = imageVariants; }
+
     public String getImageHint() { return imageHint; }
     public void setImageHint(String imageHint) { this.imageHint = imageHint; }
 
@@ -63,9 +82,8 @@ public class Event {
     public Double getIncome() { return income; }
     public void setIncome(Double income) { this.income = income; }
 
-    // 🟢 Getter and Setter for seats
-    public List<String> getSeats() { return seats; }
-    public void setSeats(List<String> seats) { this.seats = seats; }
+    public SeatMap getSeatMap() { return seatMap; }
+    public void setSeatMap(SeatMap seatMap) { this.seatMap = seatMap; }
 
     public String getEventStart() { return eventStart; }
     public void setEventStart(String eventStart) { this.eventStart = eventStart; }
@@ -74,4 +92,12 @@ public class Event {
 
     public Boolean getDeleted() { return deleted; }
     public void setDeleted(Boolean deleted) { this.deleted = deleted; }
+
+    @Override
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
@@ -0,0 +1,63 @@
+package com.ticketnepal.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An event as shown in listings. The seat map and description are left out;
+ * only the detail and availability endpoints return them. Fields not asked
+ * for in a sparse fieldset (fields=) stay null and are omitted from the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EventSummary(String id, String name, String category, String location, String organizer,
+                           String imageUrl, Map<String, Map<String, String>> imageVariants,
+                           Double price, Double income, String eventStart, String eventEnd,
+                           Long ticketsSold, String status) {
+
+    public static final List<String> FIELDS = List.of(
+            "id", "name", "category", "location", "organizer", "imageUrl", "imageVariants",
+            "price", "income", "eventStart", "eventEnd");
+
+    /** FIELDS plus the extras of a particular listing, e.g. ticketsSold for organizers. */
+    public static List<String> fieldsWith(String... extras) {
+        List<String> fields = new ArrayList<>(FIELDS);
+        fields.addAll(List.of(extras));
+        return fields;
+    }
+
+    /** Event document fields to load from Mongo for the given summary fields (_id is always returned). */
+    public static Set<String> documentFields(Set<String> fields) {
+        Set<String> documentFields = new LinkedHashSet<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id", "ticketsSold", "status" -> { } // _id comes anyway; the others aren't stored on the event
+                case "imageVariants" -> documentFields.add("imageUrl");
+                default -> documentFields.add(field);
+            }
+        }
+        return documentFields;
+    }
+
+    public static EventSummary of(Event event, Set<String> fields, Map<String, Map<String, String>> imageVariants,
+                                  Long ticketsSold, String status) {
+        return new EventSummary(
+                event.getId(),
+                fields.contains("name") ? event.getName() : null,
+                fields.contains("category") ? event.getCategory() : null,
+                fields.contains("location") ? event.getLocation() : null,
+                fields.contains("organizer") ? event.getOrganizer() : null,
+                fields.contains("imageUrl") ? event.getImageUrl() : null,
+                fields.contains("imageVariants") ? imageVariants : null,
+                fields.contains("price") ? event.getPrice() : null,
+                fields.contains("income") ? event.getIncome() : null,
+                fields.contains("eventStart") ? event.getEventStart() : null,
+                fields.contains("eventEnd") ? event.getEventEnd() : null,
+                fields.contains("ticketsSold") ? ticketsSold : null,
+                fields.contains("status") ? status : null);
+    }
+}
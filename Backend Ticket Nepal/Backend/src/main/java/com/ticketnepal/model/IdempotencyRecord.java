@@ -0,0 +1,51 @@
+package com.ticketnepal.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Outcome of a request sent with an Idempotency-Key, so retries replay it
+ * instead of running again. The id is "&lt;scope&gt;:&lt;user&gt;:&lt;key&gt;"; the
+ * document is removed by a TTL index once {@code expiresAt} passes.
+ */
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private String id;
+    private String status;
+    // SHA-256 of the canonical request body; a key reused for another request is refused
+    private String requestHash;
+    // Token of the request that currently owns the key; only it may store or release it
+    private String owner;
+    // Renewed by the owner while it runs; once it passes (the owner died) a retry may take over
+    private Date lockedUntil;
+    private Integer responseStatus;
+    private String responseBody;
+    private Date createdAt;
+    private Date expiresAt;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public Date getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(Date lockedUntil) { this.lockedUntil = lockedUntil; }
+    public Integer getResponseStatus() { return responseStatus; }
+    public void setResponseStatus(Integer responseStatus) { this.responseStatus = responseStatus; }
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+    public Date getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
+}
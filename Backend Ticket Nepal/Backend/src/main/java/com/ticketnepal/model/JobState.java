@@ -0,0 +1,76 @@
+package com.ticketnepal.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One shard of a scheduled job: when it is next due, who runs it right now
+ * and how its last run went. The id is "&lt;job&gt;#&lt;shard&gt;". An instance
+ * owns the shard while {@code lockedUntil} is ahead; the token grows with
+ * every claim, so a run that lost its lease can't record over the next one.
+ */
+@Document(collection = "jobs")
+public class JobState {
+
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private String id;
+    private String job;
+    private int shard;
+    private int shards;
+    private Date nextRunAt;
+
+    private String owner;
+    private long token;
+    private Date lockedUntil;
+
+    private Date lastStartedAt;
+    private Date lastFinishedAt;
+    private Long lastDurationMs;
+    private Long lastItemsProcessed;
+    private String lastStatus;
+    private String lastError;
+    private String lastOwner;
+    private long runs;
+
+    public static String id(String job, int shard) {
+        return job + "#" + shard;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getJob() { return job; }
+    public void setJob(String job) { this.job = job; }
+    public int getShard() { return shard; }
+    public void setShard(int shard) { this.shard = shard; }
+    public int getShards() { return shards; }
+    public void setShards(int shards) { this.shards = shards; }
+    public Date getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(Date nextRunAt) { this.nextRunAt = nextRunAt; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public long getToken() { return token; }
+    public void setToken(long token) { this.token = token; }
+    public Date getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(Date lockedUntil) { this.lockedUntil = lockedUntil; }
+    public Date getLastStartedAt() { return lastStartedAt; }
+    public void setLastStartedAt(Date lastStartedAt) { this.lastStartedAt = lastStartedAt; }
+    public Date getLastFinishedAt() { return lastFinishedAt; }
+    public void setLastFinishedAt(Date lastFinishedAt) { this.lastFinishedAt = lastFinishedAt; }
+    public Long getLastDurationMs() { return lastDurationMs; }
+    public void setLastDurationMs(Long lastDurationMs) { this.lastDurationMs = lastDurationMs; }
+    public Long getLastItemsProcessed() { return lastItemsProcessed; }
+    public void setLastItemsProcessed(Long lastItemsProcessed) { this.lastItemsProcessed = lastItemsProcessed; }
+    public String getLastStatus() { return lastStatus; }
+    public void setLastStatus(String lastStatus) { this.lastStatus = lastStatus; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public String getLastOwner() { return lastOwner; }
+    public void setLastOwner(String lastOwner) { this.lastOwner = lastOwner; }
+    public long getRuns() { return runs; }
+    public void setRuns(long runs) { this.runs = runs; }
+}
@@ -0,0 +1,90 @@
+package com.ticketnepal.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One purchase: every seat of a booking with its price and check-in state,
+ * plus the part of the event a gate scanner shows. The id is the booking's
+ * transactionId (the group QR code), so validating or rendering a group is a
+ * single read by _id. Tickets stay the source of truth for seat ownership;
+ * see OrderService for how the two are kept in step.
+ */
+@Document(collection = "orders")
+public class Order implements Versioned {
+
+    public record Item(String ticketId, String seat, Double price, boolean checkedIn) {
+        public static Item of(Ticket ticket) {
+            return new Item(ticket.getId(), ticket.getSeat(), ticket.getPrice(), ticket.isCheckedIn());
+        }
+    }
+
+    /** What scanning needs of the event; refreshed when those fields of the event change. */
+    public record EventInfo(String id, String name, String category, String location, String eventStart,
+                            String eventEnd, String imageUrl, String organizer) {
+        public static EventInfo of(Event event) {
+            return new EventInfo(event.getId(), event.getName(), event.getCategory(), event.getLocation(),
+                    event.getEventStart(), event.getEventEnd(), event.getImageUrl(), event.getOrganizer());
+        }
+
+        /** As the Event the validation responses have always carried, with only these fields set. */
+        public Event toEvent() {
+            Event event = new Event();
+            event.setId(id);
+            event.setName(name);
+            event.setCategory(category);
+            event.setLocation(location);
+            event.setEventStart(eventStart);
+            event.setEventEnd(eventEnd);
+            event.setImageUrl(imageUrl);
+            event.setOrganizer(organizer);
+            event.setIncome(null);
+            event.setDeleted(null);
+            return event;
+        }
+    }
+
+    @Id
+    private String id;
+    private String userId;
+    private String eventId;
+    private EventInfo event;
+    private List<Item> items;
+    private Double total;
+    private Instant createdAt;
+
+    @Version
+    private Long version;
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    public Order() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public EventInfo getEvent() { return event; }
+    public void setEvent(EventInfo event) { this.event = event; }
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+    public Double getTotal() { return total; }
+    public void setTotal(Double total) { this.total = total; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
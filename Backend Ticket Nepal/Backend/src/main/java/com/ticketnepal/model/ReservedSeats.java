@@ -0,0 +1,6 @@
+package com.ticketnepal.model;
+
+import java.util.List;
+
+/** Seats already sold for an event, polled by the seat picker. */
+public record ReservedSeats(List<String> reservedSeats) {}
@@ -0,0 +1,49 @@
+package com.ticketnepal.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A seat held by a booking in progress on some instance. The id is
+ * "&lt;eventId&gt;:&lt;seat&gt;", so two bookings can't hold the same seat; the
+ * holder is the booking's owner id (instance and transactionId). Released once
+ * the tickets are written, and removed by a TTL index once {@code expiresAt}
+ * passes when the instance dies first.
+ */
+@Document(collection = "seat_leases")
+public class SeatLease {
+
+    @Id
+    private String id;
+    private String eventId;
+    private String seat;
+    private String owner;
+    private Date expiresAt;
+
+    public SeatLease() {}
+
+    public SeatLease(String eventId, String seat, String owner, Date expiresAt) {
+        this.id = id(eventId, seat);
+        this.eventId = eventId;
+        this.seat = seat;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    public static String id(String eventId, String seat) {
+        return eventId + ":" + seat;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public String getSeat() { return seat; }
+    public void setSeat(String seat) { this.seat = seat; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public Date getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,308 @@
+package com.ticketnepal.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.annotation.Transient;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An event's seats as runs of consecutively numbered seats per row, so a
+ * 40k-seat stadium is a few hundred blocks instead of 40k labels. Seats are
+ * numbered 0..size-1 in block order; that index is stable for the life of
+ * the seat map and is what bitmaps and availability counts can key on.
+ * Labels are only produced on demand ({@link #label}, {@link #labels}).
+ */
+public class SeatMap {
+
+    public static final int MAX_SEATS = 500_000;
+    /** Largest seat number; labels round-trip through {@link #indexOf} up to nine digits. */
+    public static final int MAX_SEAT_NUMBER = 999_999_999;
+    private static final String SINGLE = "\u0000";
+
+    /**
+     * Seats {@code from..to} of a row, labelled "&lt;row&gt;&lt;n&gt;", or
+     * "&lt;section&gt;-&lt;row&gt;&lt;n&gt;" inside a section. A negative {@code from}
+     * is a single seat whose label doesn't end in a seat number ("BOX",
+     * "A01"), kept verbatim in {@code row}.
+     */
+    public record Block(String section, String row, int from, int to, String tier) {
+
+        public static Block single(String section, String label, String tier) {
+            return new Block(section, label, -1, -1, tier);
+        }
+
+        boolean isSingle() { return from < 0; }
+
+        // In long: an unvalidated block can span all of int
+        long size() { return isSingle() ? 1 : (long) to - from + 1; }
+
+        String prefix() {
+            return section == null || section.isEmpty() ? row : section + "-" + row;
+        }
+
+        String label(int offset) {
+            return isSingle() ? prefix() : prefix() + (from + offset);
+        }
+    }
+
+    /** A named price that blocks refer to; seats without a tier cost the event's price. */
+    public record Tier(String name, double price) {}
+
+    private List<Block> blocks = new ArrayList<>();
+    private List<Tier> tiers = new ArrayList<>();
+
+    // Built from the blocks on first lookup; never stored or serialized
+    @Transient
+    private volatile Index index;
+
+    public SeatMap() {}
+
+    public SeatMap(List<Block> blocks, List<Tier> tiers) {
+        this.blocks = blocks == null ? new ArrayList<>() : new ArrayList<>(blocks);
+        this.tiers = tiers == null ? new ArrayList<>() : new ArrayList<>(tiers);
+    }
+
+    /**
+     * Compresses plain labels (the create/update form's "A1,A2,..." CSV).
+     * Numbers of the same row are sorted and merged into runs; rows keep the
+     * order they first appear in. Duplicates and blanks are dropped.
+     */
+    public static SeatMap fromLabels(Collection<String> labels) {
+        // Rows to their seat numbers; labels without one map to null under a key no row can have
+        Map<String, TreeSet<Integer>> rows = new LinkedHashMap<>();
+        for (String raw : labels) {
+            String label = raw == null ? "" : raw.trim();
+            if (label.isEmpty()) continue;
+            int split = numberStart(label);
+            if (split < 0) {
+                rows.putIfAbsent(SINGLE + label, null);
+            } else {
+                rows.computeIfAbsent(label.substring(0, split), row -> new TreeSet<>())
+                        .add(Integer.parseInt(label.substring(split)));
+            }
+        }
+        List<Block> blocks = new ArrayList<>();
+        rows.forEach((row, numbers) -> {
+            if (numbers == null) {
+                blocks.add(Block.single(null, row.substring(SINGLE.length()), null));
+                return;
+            }
+            int from = -1, to = -1;
+            for (int n : numbers) {
+                if (from >= 0 && n == to + 1) {
+                    to = n;
+                    continue;
+                }
+                if (from >= 0) blocks.add(new Block(null, row, from, to, null));
+                from = to = n;
+            }
+            blocks.add(new Block(null, row, from, to, null));
+        });
+        SeatMap seatMap = new SeatMap(blocks, List.of());
+        seatMap.validate();
+        return seatMap;
+    }
+
+    /**
+     * Checks a seat map built from client input: non-blank rows, valid ranges
+     * of seat numbers up to {@link #MAX_SEAT_NUMBER}, known tiers, no seat listed twice, at most {@link #MAX_SEATS} seats.
+     *
+     * @throws IllegalArgumentException naming the first problem found
+     */
+    public void validate() {
+        Set<String> tierNames = new HashSet<>();
+        for (Tier tier : tiers) {
+            if (tier.name() == null || tier.name().isBlank() || !tierNames.add(tier.name())) {
+                throw new IllegalArgumentException("Price tiers need distinct names");
+            }
+            if (tier.price() < 0) {
+                throw new IllegalArgumentException("Price tier " + tier.name() + " has a negative price");
+            }
+        }
+        long seats = 0;
+        for (Block block : blocks) {
+            if (block.row() == null || block.row().isBlank()) {
+                throw new IllegalArgumentException("Every seat block needs a row");
+            }
+            if (!block.isSingle() && block.to() < block.from()) {
+                throw new IllegalArgumentException("Seat block " + block.prefix() + " ends before it starts");
+            }
+            if (block.to() > MAX_SEAT_NUMBER) {
+                throw new IllegalArgumentException("Seat numbers of " + block.prefix() + " go above " + MAX_SEAT_NUMBER);
+            }
+            if (block.tier() != null && !tierNames.contains(block.tier())) {
+                throw new IllegalArgumentException("Seat block " + block.prefix() + " refers to unknown tier " + block.tier());
+            }
+            seats += block.size();
+            if (seats > MAX_SEATS) {
+                throw new IllegalArgumentException("A seat map can have at most " + MAX_SEATS + " seats");
+            }
+        }
+        index();
+    }
+
+    public List<Block> getBlocks() { return blocks; }
+    public void setBlocks(List<Block> blocks) {
+        this.blocks = blocks == null ? new ArrayList<>() : blocks;
+        this.index = null;
+    }
+
+    public List<Tier> getTiers() { return tiers; }
+    public void setTiers(List<Tier> tiers) {
+        this.tiers = tiers == null ? new ArrayList<>() : tiers;
+        this.index = null;
+    }
+
+    /** Number of seats; sent to clients as "capacity". */
+    @JsonProperty(value = "capacity", access = JsonProperty.Access.READ_ONLY)
+    public int size() {
+        return index().size;
+    }
+
+    /** Label of the seat at {@code index} (0..size-1). */
+    public String label(int seat) {
+        Index index = index();
+        if (seat < 0 || seat >= index.size) {
+            throw new IndexOutOfBoundsException("Seat " + seat + " of " + index.size);
+        }
+        int block = index.blockOf(seat);
+        return blocks.get(block).label(seat - index.starts[block]);
+    }
+
+    /** Index of the seat labelled {@code label}, or -1 when there is no such seat. */
+    public int indexOf(String label) {
+        if (label == null) return -1;
+        Index index = index();
+        Integer single = index.singles.get(label);
+        if (single != null) return single;
+        int split = numberStart(label);
+        if (split < 0) return -1;
+        int[] candidates = index.byPrefix.get(label.substring(0, split));
+        if (candidates == null) return -1;
+        int number = Integer.parseInt(label.substring(split));
+        for (int b : candidates) {
+            Block block = blocks.get(b);
+            if (number >= block.from() && number <= block.to()) {
+                return index.starts[b] + number - block.from();
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String label) {
+        return indexOf(label) >= 0;
+    }
+
+    /** Price of the seat labelled {@code label}: its block's tier, else {@code defaultPrice}. */
+    public double priceOf(String label, double defaultPrice) {
+        int seat = indexOf(label);
+        if (seat < 0) return defaultPrice;
+        Index index = index();
+        Double price = index.tierPrices.get(blocks.get(index.blockOf(seat)).tier());
+        return price == null ? defaultPrice : price;
+    }
+
+    /** Every label in index order, computed as it is read. */
+    public List<String> labels() {
+        return new Labels();
+    }
+
+    private final class Labels extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int i) { return label(i); }
+
+        @Override
+        public int size() { return SeatMap.this.size(); }
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            current = new Index(blocks, tiers);
+            index = current;
+        }
+        return current;
+    }
+
+    // Start of the trailing seat number, or -1 when the label has none we can round-trip ("A01", "BOX")
+    private static int numberStart(String label) {
+        int i = label.length();
+        while (i > 0 && label.charAt(i - 1) >= '0' && label.charAt(i - 1) <= '9') i--;
+        int digits = label.length() - i;
+        if (digits == 0 || digits > 9 || i == 0) return -1;
+        if (digits > 1 && label.charAt(i) == '0') return -1;
+        return i;
+    }
+
+    /** First seat index of each block, plus lookups from a label's row prefix to its blocks. */
+    private static final class Index {
+        final int[] starts;
+        final int size;
+        final Map<String, int[]> byPrefix = new HashMap<>();
+        final Map<String, Integer> singles = new HashMap<>();
+        final Map<String, Double> tierPrices = new HashMap<>();
+
+        Index(List<Block> blocks, List<Tier> tiers) {
+            starts = new int[blocks.size()];
+            Map<String, List<Integer>> prefixes = new HashMap<>();
+            int next = 0;
+            for (int b = 0; b < blocks.size(); b++) {
+                Block block = blocks.get(b);
+                starts[b] = next;
+                next = Math.toIntExact(next + block.size());
+                if (block.isSingle()) {
+                    if (singles.putIfAbsent(block.prefix(), starts[b]) != null) {
+                        throw new IllegalArgumentException("Seat " + block.prefix() + " is listed twice");
+                    }
+                } else {
+                    prefixes.computeIfAbsent(block.prefix(), p -> new ArrayList<>()).add(b);
+                }
+            }
+            size = next;
+            prefixes.forEach((prefix, list) -> {
+                // Runs of one row must not overlap, or a label would have two indexes
+                List<Integer> sorted = new ArrayList<>(list);
+                sorted.sort((x, y) -> Integer.compare(blocks.get(x).from(), blocks.get(y).from()));
+                for (int i = 1; i < sorted.size(); i++) {
+                    if (blocks.get(sorted.get(i)).from() <= blocks.get(sorted.get(i - 1)).to()) {
+                        throw new IllegalArgumentException("Seats of " + prefix + " are listed twice");
+                    }
+                }
+                byPrefix.put(prefix, list.stream().mapToInt(Integer::intValue).toArray());
+            });
+            singles.keySet().forEach(label -> {
+                int split = numberStart(label);
+                if (split >= 0 && byPrefix.containsKey(label.substring(0, split))) {
+                    int number = Integer.parseInt(label.substring(split));
+                    for (int b : byPrefix.get(label.substring(0, split))) {
+                        if (number >= blocks.get(b).from() && number <= blocks.get(b).to()) {
+                            throw new IllegalArgumentException("Seat " + label + " is listed twice");
+                        }
+                    }
+                }
+            });
+            for (Tier tier : tiers) {
+                tierPrices.put(tier.name(), tier.price());
+            }
+        }
+
+        int blockOf(int seat) {
+            int low = 0, high = starts.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (starts[mid] <= seat) low = mid; else high = mid - 1;
+            }
+            return low;
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.ticketnepal.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
 import java.util.Date;
 
 @Document(collection = "staff_applications")
-public class StaffApplication {
+public class StaffApplication implements Versioned {
     @Id
     private String id;
     private String eventId;
@@ -14,6 +18,12 @@ public class StaffApplication {
     private String token; // For email approval/rejection
     private Date createdAt = new Date();
 
+    // Bumped on every save (optimistic locking); also the ETag of the document
+    @Version
+    private Long version;
+    @LastModifiedDate
+    private Instant updatedAt;
+
     public StaffApplication() {}
 
     public StaffApplication(String eventId, String staffId, String status, String token) {
@@ -36,4 +46,12 @@ public class StaffApplication {
     public void setToken(String token) { this.token = token; }
     public Date getCreatedAt() { return createdAt; }
     public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
-} 
\ No newline at end of file
+
+    @Override
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,32 +1,81 @@
 package com.ticketnepal.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.CompoundIndex;
-import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A sold seat. Tickets are the largest collection, so documents use one-letter
+ * field names (see {@link Fields}) and the transactionId is stored as a 16-byte
+ * binary UUID. Queries keep using the property names (eventId, seat, ...),
+ * which Spring Data maps; only raw Documents and index keys need the short
+ * names. The QR code hint and URL are derived from the transactionId rather
+ * than stored. Indexes are declared in MongoIndexCatalog.
+ */
 @Document(collection = "tickets")
-@CompoundIndexes({
-    @CompoundIndex(name = "event_seat_unique", def = "{'eventId': 1, 'seat': 1}", unique = true)
-})
-public class Ticket {
+public class Ticket implements Versioned {
+
+    /** Stored field names, for index definitions and raw Documents. */
+    public static final class Fields {
+        public static final String EVENT_ID = "e";
+        public static final String USER_ID = "u";
+        public static final String SEAT = "s";
+        public static final String CHECKED_IN = "c";
+        public static final String PRICE = "p";
+        public static final String TRANSACTION_ID = "t";
+        public static final String VERSION = "v";
+        public static final String UPDATED_AT = "m";
+
+        private Fields() {}
+    }
+
     @Id
     private String id;
 
+    @Field(Fields.EVENT_ID)
     private String eventId;
+    @Field(Fields.USER_ID)
     private String userId;
-    private String userName;
+    @Field(Fields.SEAT)
     private String seat;
-    private String qrCodeUrl;
-    private String qrCodeHint;
+    @Field(Fields.CHECKED_IN)
     private boolean checkedIn = false;
+    @Field(Fields.PRICE)
     private Double price;
-    private String transactionId; // New field to group tickets by purchase
+    // Groups the tickets of one purchase; also the group QR code
+    @Field(Fields.TRANSACTION_ID)
+    private UUID transactionId;
 
-    // Constructors, getters, setters...
+    // Bumped on every save (optimistic locking); also the ETag of the document
+    @Version
+    @Field(Fields.VERSION)
+    private Long version;
+    @LastModifiedDate
+    @Field(Fields.UPDATED_AT)
+    private Instant updatedAt;
 
     public Ticket() {}
 
+    /**
+     * The stored form of a transactionId. One that isn't a UUID (issued before
+     * they all were) maps to its name-based UUID, which is what
+     * TicketSchemaMigration stored for it, so its QR code still resolves.
+     */
+    public static UUID transactionKey(String transactionId) {
+        if (transactionId == null) return null;
+        try {
+            return UUID.fromString(transactionId);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(transactionId.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
 
@@ -36,17 +85,18 @@ public class Ticket {
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
 
-    public String getUserName() { return userName; }
-    public void setUserName(String userName) { this.userName = userName; }
-
     public String getSeat() { return seat; }
     public void setSeat(String seat) { this.seat = seat; }
 
-    public String getQrCodeUrl() { return qrCodeUrl; }
-    public void setQrCodeUrl(String qrCodeUrl) { this.qrCodeUrl = qrCodeUrl; }
+    // The group QR code image of the purchase
+    public String getQrCodeUrl() {
+        return transactionId == null ? null : "/api/tickets/qr/transaction/" + transactionId;
+    }
 
-    public String getQrCodeHint() { return qrCodeHint; }
-    public void setQrCodeHint(String qrCodeHint) { this.qrCodeHint = qrCodeHint; }
+    // What the QR code encodes: the transactionId
+    public String getQrCodeHint() {
+        return getTransactionId();
+    }
 
     public boolean isCheckedIn() { return checkedIn; }
     public void setCheckedIn(boolean checkedIn) { this.checkedIn = checkedIn; }
@@ -54,6 +104,14 @@ public class Ticket {
     public Double getPrice() { return price; }
     public void setPrice(Double price) { this.price = price; }
 
-    public String getTransactionId() { return transactionId; }
-    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+    public String getTransactionId() { return transactionId == null ? null : transactionId.toString(); }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionKey(transactionId); }
+
+    @Override
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
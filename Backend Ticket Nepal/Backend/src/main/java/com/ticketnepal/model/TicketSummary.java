@@ -0,0 +1,43 @@
+package com.ticketnepal.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A ticket as shown in a customer's ticket list, without the user fields.
+ * Fields not asked for with fields= are omitted from the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TicketSummary(String id, String eventId, String seat, String qrCodeUrl, Boolean checkedIn,
+                            Double price, String transactionId) {
+
+    public static final List<String> FIELDS = List.of(
+            "id", "eventId", "seat", "qrCodeUrl", "checkedIn", "price", "transactionId");
+
+    /** Ticket document fields to load for the given summary fields (_id is always returned). */
+    public static Set<String> documentFields(Set<String> fields) {
+        Set<String> documentFields = new LinkedHashSet<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> { } // _id comes anyway
+                case "qrCodeUrl" -> documentFields.add("transactionId"); // derived, not stored
+                default -> documentFields.add(field);
+            }
+        }
+        return documentFields;
+    }
+
+    public static TicketSummary of(Ticket ticket, Set<String> fields) {
+        return new TicketSummary(
+                ticket.getId(),
+                fields.contains("eventId") ? ticket.getEventId() : null,
+                fields.contains("seat") ? ticket.getSeat() : null,
+                fields.contains("qrCodeUrl") ? ticket.getQrCodeUrl() : null,
+                fields.contains("checkedIn") ? ticket.isCheckedIn() : null,
+                fields.contains("price") ? ticket.getPrice() : null,
+                fields.contains("transactionId") ? ticket.getTransactionId() : null);
+    }
+}
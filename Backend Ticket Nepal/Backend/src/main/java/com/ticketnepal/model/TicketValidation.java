@@ -0,0 +1,53 @@
+package com.ticketnepal.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response of the QR validation endpoints, which the entrance scanners call
+ * for every guest. A single ticket carries {@code ticket}; a group
+ * (transaction or legacy QR) carries {@code event} and one {@code tickets}
+ * entry per seat. Unset fields are left out, as the old map responses did.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TicketValidation(String type, String status, Ticket ticket, Event event, List<TicketStatus> tickets,
+                               String transactionId, Boolean legacy) {
+
+    public static final String VALID = "Valid ticket";
+    public static final String ALREADY_CHECKED_IN = "Already checked-in";
+    public static final String NOT_FOUND = "Invalid or not found";
+    public static final String EVENT_NOT_FOUND = "Event not found";
+
+    public record TicketStatus(String ticketId, String seat, boolean checkedIn) {
+        public static TicketStatus of(Ticket ticket) {
+            return new TicketStatus(ticket.getId(), ticket.getSeat(), ticket.isCheckedIn());
+        }
+
+        public static TicketStatus of(Order.Item item) {
+            return new TicketStatus(item.ticketId(), item.seat(), item.checkedIn());
+        }
+    }
+
+    /** One ticket; {@code type} is null on /validate, which predates it. */
+    public static TicketValidation single(String type, Ticket ticket) {
+        return new TicketValidation(type, ticket.isCheckedIn() ? ALREADY_CHECKED_IN : VALID, ticket,
+                null, null, null, null);
+    }
+
+    public static TicketValidation group(String type, Event event, List<Ticket> tickets, String transactionId,
+                                         boolean legacy) {
+        return new TicketValidation(type, null, null, event,
+                tickets.stream().map(TicketStatus::of).toList(), transactionId, legacy ? Boolean.TRUE : null);
+    }
+
+    /** A transaction read from its order; the order must have its event. */
+    public static TicketValidation group(String type, Order order) {
+        return new TicketValidation(type, null, null, order.getEvent().toEvent(),
+                order.getItems().stream().map(TicketStatus::of).toList(), order.getId(), null);
+    }
+
+    public static TicketValidation failure(String status) {
+        return new TicketValidation(null, status, null, null, null, null, null);
+    }
+}
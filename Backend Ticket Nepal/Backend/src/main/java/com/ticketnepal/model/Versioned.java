@@ -0,0 +1,13 @@
+package com.ticketnepal.model;
+
+import java.time.Instant;
+
+/**
+ * A document with an optimistic-locking version and a last-write time, the
+ * source of the ETag and Last-Modified headers on responses built from it.
+ */
+public interface Versioned {
+    String getId();
+    Long getVersion();
+    Instant getUpdatedAt();
+}
@@ -2,6 +2,8 @@ package com.ticketnepal.repository;
 
 import com.ticketnepal.model.Event;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -19,4 +21,10 @@ public interface EventRepository extends MongoRepository<Event, String> {
 
     // New: Find events that have ended (for scheduled deletion)
     List<Event> findByEventEndBefore(LocalDateTime now);
+
+    // Attach an image once a background upload finishes, without rewriting the rest of the event.
+    // Partial updates bump version and updatedAt themselves, as save() would.
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'imageUrl': ?1 }, '$inc': { 'version': 1 }, '$currentDate': { 'updatedAt': true } }")
+    long setImageUrl(String id, String imageUrl);
 }
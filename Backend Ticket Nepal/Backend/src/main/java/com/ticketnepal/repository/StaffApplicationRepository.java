@@ -12,4 +12,5 @@ public interface StaffApplicationRepository extends MongoRepository<StaffApplica
     Optional<StaffApplication> findByEventIdAndStaffId(String eventId, String staffId);
     Optional<StaffApplication> findByToken(String token);
     List<StaffApplication> findByStaffIdAndStatus(String staffId, String status);
+    List<StaffApplication> findByStaffId(String staffId);
 } 
\ No newline at end of file
@@ -4,21 +4,37 @@ import com.ticketnepal.model.Ticket;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface TicketRepository extends MongoRepository<Ticket, String> {
     List<Ticket> findByUserId(String userId);
     List<Ticket> findByEventId(String eventId);
-    List<Ticket> findByQrCodeHint(String qrCodeHint); // For QR code validation
 
     Optional<Ticket> findByEventIdAndSeat(String eventId, String seat);
 
+    // All already-booked tickets among a seat selection, in one query
+    List<Ticket> findByEventIdAndSeatIn(String eventId, Collection<String> seats);
+
     // Add method to count tickets by eventId
     long countByEventId(String eventId);
 
-    List<Ticket> findByTransactionId(String transactionId);
+    List<Ticket> findByTransactionId(UUID transactionId);
+
+    long deleteByTransactionId(UUID transactionId);
+
+    default List<Ticket> findByTransactionId(String transactionId) {
+        UUID key = Ticket.transactionKey(transactionId);
+        return key == null ? List.of() : findByTransactionId(key);
+    }
+
+    // For QR code validation: the QR code carries the transactionId
+    default List<Ticket> findByQrCodeHint(String qrCodeHint) {
+        return findByTransactionId(qrCodeHint);
+    }
     
     // Add method to find tickets by multiple event IDs
     List<Ticket> findByEventIdIn(List<String> eventIds);
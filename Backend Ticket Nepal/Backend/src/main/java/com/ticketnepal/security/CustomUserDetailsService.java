@@ -10,11 +10,13 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private UserCache userCache;
 
     @Override
 public UserDetails loadUserByUsername(String identifier) throws UsernameNotFoundException {
-    // Try email first, then username (if unique)
-    User user = userRepository.findByEmail(identifier)
+    // Try email first (cached), then username (if unique)
+    User user = userCache.findByEmail(identifier)
         .orElseGet(() -> userRepository.findByUsername(identifier)
         .orElseThrow(() -> new UsernameNotFoundException("User not found: " + identifier)));
     return org.springframework.security.core.userdetails.User
@@ -1,5 +1,6 @@
 package com.ticketnepal.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,8 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -24,7 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserCache userCache;
 
     /**
      * Skip this filter for signup/login endpoints so they remain open.
@@ -50,22 +50,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 2) Validate and set authentication
         if (jwt != null) {
             try {
-                if (jwtUtil.validateToken(jwt)) {
-                    String email = jwtUtil.extractUsername(jwt);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                // Parse and verify once; repeat tokens are served from the claims cache
+                Claims claims = jwtUtil.parseVerifiedClaims(jwt);
+                if (claims != null) {
+                    JwtUserPrincipal principal = buildPrincipal(claims);
 
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
-                                    userDetails,
+                                    principal,
                                     null,
-                                    userDetails.getAuthorities()
+                                    principal.getAuthorities()
                             );
                     authToken.setDetails(new WebAuthenticationDetailsSource()
                             .buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
-            } catch (JwtException ex) {
+            } catch (JwtException | UsernameNotFoundException ex) {
                 // Invalid token – you can log ex.getMessage() if you want
             }
         }
@@ -73,4 +74,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 3) Continue filter chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Tokens carry the user id and role, so the principal comes straight from
+     * the verified claims. Tokens issued before the id claim existed fall back
+     * to the (cached) user lookup by email.
+     */
+    private JwtUserPrincipal buildPrincipal(Claims claims) {
+        String email = claims.getSubject();
+        String id = claims.get("id", String.class);
+        String role = claims.get("role", String.class);
+        if (id != null && role != null) {
+            return new JwtUserPrincipal(id, email, role);
+        }
+        return userCache.findByEmail(email)
+                .map(JwtUserPrincipal::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+    }
 }
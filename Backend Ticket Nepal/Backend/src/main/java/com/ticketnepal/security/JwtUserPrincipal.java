@@ -0,0 +1,49 @@
+package com.ticketnepal.security;
+
+import com.ticketnepal.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal built from verified JWT claims, so requests don't
+ * need a user lookup just to know who is calling and with which role.
+ */
+public class JwtUserPrincipal implements UserDetails {
+
+    private final String id;
+    private final String email;
+    private final String role;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtUserPrincipal(String id, String email, String role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.authorities = role == null
+                ? List.of()
+                : List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+    }
+
+    public static JwtUserPrincipal from(User user) {
+        return new JwtUserPrincipal(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public String getId() { return id; }
+    public String getEmail() { return email; }
+
+    // Role as stored on the user document (e.g. "Organizer")
+    public String getRole() { return role; }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() { return authorities; }
+
+    @Override
+    public String getPassword() { return null; }
+
+    @Override
+    public String getUsername() { return email; }
+}
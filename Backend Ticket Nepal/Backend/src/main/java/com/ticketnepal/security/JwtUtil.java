@@ -1,16 +1,33 @@
 package com.ticketnepal.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Component
 public class JwtUtil {
@@ -21,39 +38,158 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+    // Key id written into the "kid" header of newly issued tokens
+    @Value("${jwt.key-id:primary}")
+    private String activeKeyId;
+
+    // Retired keys still accepted for verification, as "kid:base64secret" pairs separated by commas
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys;
+
+    @Value("${jwt.claims-cache.max-size:50000}")
+    private long claimsCacheMaxSize;
+
+    // Signing key and parser are immutable and thread-safe, so build them once
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser parser;
+    // One per retired key, for tokens without a kid that were signed before the last rotation
+    private List<JwtParser> kidlessParsers;
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        signingKey = toKey(jwtSecret);
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        keys.put(activeKeyId, signingKey);
+        if (previousKeys != null && !previousKeys.isBlank()) {
+            for (String entry : previousKeys.split(",")) {
+                String trimmed = entry.trim();
+                int sep = trimmed.indexOf(':');
+                if (sep <= 0) {
+                    throw new IllegalArgumentException("jwt.previous-keys entries must look like kid:base64secret");
+                }
+                keys.putIfAbsent(trimmed.substring(0, sep), toKey(trimmed.substring(sep + 1)));
+            }
+        }
+        verificationKeys = Map.copyOf(keys);
+
+        // Tokens issued before key ids were introduced carry no kid; they are tried with the
+        // primary secret first, then with each retired one (the secret they were signed with
+        // may have been rotated out since)
+        parser = parser(kid -> kid == null ? signingKey : verificationKeys.get(kid));
+        kidlessParsers = new ArrayList<>();
+        for (SecretKey retired : keys.values()) {
+            if (retired != signingKey) {
+                kidlessParsers.add(parser(kid -> kid == null ? retired : null));
+            }
+        }
+
+        // Verified claims live no longer than the token itself
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        Date exp = claims.getExpiration();
+                        long remainingMs = exp == null ? jwtExpirationMs : exp.getTime() - System.currentTimeMillis();
+                        return Math.max(0, remainingMs) * 1_000_000L;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    private static JwtParser parser(Function<String, SecretKey> keyForKid) {
+        return Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String kid = header.getKeyId();
+                        SecretKey key = keyForKid.apply(kid);
+                        if (key == null) {
+                            throw new JwtException("Unknown JWT key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    private static SecretKey toKey(String secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
         if (keyBytes.length < 32) {
             throw new IllegalArgumentException("JWT secret key is too weak. It must be at least 256 bits (32 bytes).");
         }
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
-    public String generateToken(String email, String role) {
+    public String generateToken(String userId, String email, String role) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
                 .setSubject(email)
+                .claim("id", userId)
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token once and caches the claims until the token expires,
+     * so repeat requests with the same token skip signature checking.
+     * Returns null if the token is invalid or expired.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) return null;
+        String cacheKey = hash(token);
+        Claims cached = verifiedClaims.getIfPresent(cacheKey);
+        if (cached != null) return cached;
         try {
-            extractAllClaims(token);
-            return true;
+            Claims claims = verify(token);
+            verifiedClaims.put(cacheKey, claims);
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private Claims verify(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (SignatureException e) {
+            // A token with a kid was already checked against that key; these reject it as unknown
+            for (JwtParser kidless : kidlessParsers) {
+                try {
+                    return kidless.parseClaimsJws(token).getBody();
+                } catch (SignatureException ignored) {
+                    // Not signed with this key
+                }
+            }
+            throw e;
+        }
+    }
+
+    public boolean validateToken(String token) {
+        return parseVerifiedClaims(token) != null;
+    }
+
+    public Claims extractAllClaims(String token) {
+        Claims claims = parseVerifiedClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid or expired JWT");
+        }
+        return claims;
     }
 
     public String getUserIdFromToken(String token) {
@@ -71,4 +207,13 @@ public class JwtUtil {
     public Date getExpirationDateFromToken(String token) {
         return extractAllClaims(token).getExpiration();
     }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package com.ticketnepal.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketnepal.util.StripedRateLimiter;
+import com.ticketnepal.util.StripedRateLimiter.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route token buckets for the endpoints that are public or cheap to call
+ * but expensive to answer (BCrypt, ZXing, seat and ticket lookups). Runs after
+ * {@link JwtAuthenticationFilter}: signed-in callers are limited per user id,
+ * anonymous ones per client address. Rejections answer 429 with Retry-After.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Route(String policy, HttpMethod method, PathPattern pattern) {
+        boolean matches(String method, PathContainer path) {
+            return (this.method == null || this.method.matches(method)) && pattern.matches(path);
+        }
+    }
+
+    // Defaults as {burst, refill per minute}; overridable as ratelimit.<policy>.burst / .per-minute
+    private static final Map<String, int[]> DEFAULT_POLICIES = Map.of(
+            "auth", new int[]{10, 10},
+            "booking", new int[]{5, 20},
+            "qr", new int[]{20, 60},
+            "validate", new int[]{60, 300},
+            "reserved", new int[]{30, 120});
+
+    private final boolean enabled;
+    private final int trustedProxies;
+    private final StripedRateLimiter limiter;
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, Policy> policies;
+    private final Map<String, Counter> rejected;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(Environment environment,
+                           MeterRegistry meterRegistry,
+                           ObjectMapper objectMapper,
+                           @Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.trusted-proxies:0}") int trustedProxies,
+                           @Value("${ratelimit.stripes:64}") int stripes,
+                           @Value("${ratelimit.max-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.trustedProxies = trustedProxies;
+        this.objectMapper = objectMapper;
+        this.limiter = new StripedRateLimiter(stripes, maxKeys);
+
+        // First match wins
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        routes.add(new Route("auth", null, parser.parse("/api/auth/**")));
+        routes.add(new Route("booking", HttpMethod.POST, parser.parse("/api/tickets")));
+        routes.add(new Route("qr", HttpMethod.GET, parser.parse("/api/tickets/qr/**")));
+        routes.add(new Route("validate", HttpMethod.GET, parser.parse("/api/tickets/validate")));
+        routes.add(new Route("validate", HttpMethod.GET, parser.parse("/api/tickets/validate/**")));
+        routes.add(new Route("reserved", HttpMethod.GET, parser.parse("/api/tickets/reserved")));
+
+        Map<String, Policy> policies = new HashMap<>();
+        Map<String, Counter> rejected = new HashMap<>();
+        DEFAULT_POLICIES.forEach((name, defaults) -> {
+            int burst = environment.getProperty("ratelimit." + name + ".burst", Integer.class, defaults[0]);
+            int perMinute = environment.getProperty("ratelimit." + name + ".per-minute", Integer.class, defaults[1]);
+            policies.put(name, new Policy(name, burst, perMinute));
+            rejected.put(name, Counter.builder("ratelimit.rejected")
+                    .description("Requests answered 429 by the rate limiter")
+                    .tag("policy", name)
+                    .register(meterRegistry));
+        });
+        this.policies = Map.copyOf(policies);
+        this.rejected = Map.copyOf(rejected);
+        Gauge.builder("ratelimit.buckets", limiter, StripedRateLimiter::size)
+                .description("Token buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        Route route = match(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = limiter.tryAcquire(policies.get(route.policy()), clientKey(request));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        rejected.get(route.policy()).increment();
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("error", "Too many requests, try again later", "retryAfterSeconds", retryAfter));
+    }
+
+    private Route match(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (!uri.startsWith("/api/")) return null;
+        PathContainer path = PathContainer.parsePath(uri);
+        for (Route route : routes) {
+            if (route.matches(request.getMethod(), path)) return route;
+        }
+        return null;
+    }
+
+    // Users share addresses behind NAT (a venue's gate scanners, campus wifi), so sign-ins get their own bucket
+    private String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof JwtUserPrincipal principal && principal.getId() != null) {
+            return "user:" + principal.getId();
+        }
+        return "ip:" + StripedRateLimiter.clientAddress(
+                request.getHeader("X-Forwarded-For"), request.getRemoteAddr(), trustedProxies);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ticketnepal.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ticketnepal.model.User;
+import com.ticketnepal.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Small TTL cache of user documents keyed by email, for the endpoints that
+ * need more than the id/role carried in the JWT. Entries must be evicted
+ * whenever a user's password or role changes.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> cache;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${security.user-cache.ttl:5m}") Duration ttl,
+                     @Value("${security.user-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+        User cached = cache.getIfPresent(email);
+        if (cached != null) return Optional.of(cached);
+        Optional<User> userOpt = userRepository.findByEmail(email);
+        userOpt.ifPresent(user -> cache.put(email, user));
+        return userOpt;
+    }
+
+    public void evict(String email) {
+        if (email != null) cache.invalidate(email);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.User;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Admin listings of whole collections without loading them. Pages are keyset
+ * pages on _id (the cursor is the last id returned), so page 10,000 costs the
+ * same as page 1 and inserts don't shift pages. Created-at ranges also use
+ * _id, since an ObjectId starts with its creation time. Streams are backed by
+ * a Mongo cursor and must be closed by the caller.
+ */
+@Service
+public class AdminListingService {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+    private static final int CURSOR_BATCH_SIZE = 500;
+
+    // Users are listed without password hashes or tokens
+    private static final String[] USER_FIELDS = {
+            "name", "username", "email", "avatarUrl", "role", "organizerName", "verified"};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public record Slice<T>(List<T> items, String nextCursor) {}
+
+    public Criteria ticketCriteria(String eventId, Boolean checkedIn, String from, String to) {
+        List<Criteria> filters = createdBetween(from, to);
+        if (eventId != null && !eventId.isBlank()) filters.add(Criteria.where("eventId").is(eventId));
+        if (checkedIn != null) filters.add(Criteria.where("checkedIn").is(checkedIn));
+        return allOf(filters);
+    }
+
+    public Criteria userCriteria(String role, Boolean verified, String from, String to) {
+        List<Criteria> filters = createdBetween(from, to);
+        // Stored roles are not consistently cased
+        if (role != null && !role.isBlank()) filters.add(Criteria.where("role").regex("^" + Pattern.quote(role) + "$", "i"));
+        if (verified != null) filters.add(Criteria.where("verified").is(verified));
+        return allOf(filters);
+    }
+
+    public Slice<Ticket> ticketPage(Criteria criteria, String cursor, int limit) {
+        return page(new Query(criteria), cursor, limit, Ticket.class);
+    }
+
+    public Slice<User> userPage(Criteria criteria, String cursor, int limit) {
+        Query query = new Query(criteria);
+        query.fields().include(USER_FIELDS);
+        return page(query, cursor, limit, User.class);
+    }
+
+    public Stream<Ticket> streamTickets(Criteria criteria, String cursor) {
+        return stream(new Query(criteria), cursor, Ticket.class);
+    }
+
+    public Stream<User> streamUsers(Criteria criteria, String cursor) {
+        Query query = new Query(criteria);
+        query.fields().include(USER_FIELDS);
+        return stream(query, cursor, User.class);
+    }
+
+    // Matching documents in total, for the first page only; an unfiltered count reads collection metadata
+    public long count(Criteria criteria, Class<?> type) {
+        if (criteria.getCriteriaObject().isEmpty()) {
+            return mongoTemplate.estimatedCount(type);
+        }
+        return mongoTemplate.count(new Query(criteria), type);
+    }
+
+    private <T> Slice<T> page(Query query, String cursor, int limit, Class<T> type) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        afterCursor(query, cursor);
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+        List<T> items = new ArrayList<>(mongoTemplate.find(query, type));
+        String next = null;
+        if (items.size() > size) {
+            items.remove(size);
+            next = idOf(items.get(size - 1));
+        }
+        return new Slice<>(items, next);
+    }
+
+    private <T> Stream<T> stream(Query query, String cursor, Class<T> type) {
+        afterCursor(query, cursor);
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(CURSOR_BATCH_SIZE);
+        return mongoTemplate.stream(query, type);
+    }
+
+    /** Rejects a malformed cursor with a 400; call before committing a streamed response. */
+    public static void checkCursor(String cursor) {
+        if (cursor != null && !cursor.isBlank() && !ObjectId.isValid(cursor)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private static void afterCursor(Query query, String cursor) {
+        checkCursor(cursor);
+        if (cursor == null || cursor.isBlank()) return;
+        query.addCriteria(Criteria.where("_id").gt(new ObjectId(cursor)));
+    }
+
+    private static String idOf(Object document) {
+        if (document instanceof Ticket ticket) return ticket.getId();
+        if (document instanceof User user) return user.getId();
+        throw new IllegalArgumentException("No cursor id for " + document.getClass());
+    }
+
+    // Wrapped in $and so the page cursor can add its own _id condition
+    private static Criteria allOf(List<Criteria> filters) {
+        return filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+    }
+
+    private static List<Criteria> createdBetween(String from, String to) {
+        List<Criteria> filters = new ArrayList<>();
+        Instant start = parseInstant(from, "from");
+        Instant end = parseInstant(to, "to");
+        if (start != null) filters.add(Criteria.where("_id").gte(firstIdAt(start)));
+        if (end != null) filters.add(Criteria.where("_id").lt(firstIdAt(end)));
+        return filters;
+    }
+
+    // Smallest ObjectId with this timestamp: the time in seconds followed by zeros.
+    // The timestamp is 4 unsigned bytes, so dates outside 1970..2106 are clamped.
+    private static ObjectId firstIdAt(Instant instant) {
+        long seconds = Math.max(0, Math.min(instant.getEpochSecond(), 0xFFFFFFFFL));
+        return new ObjectId(String.format("%08x%016x", seconds, 0));
+    }
+
+    // yyyy-MM-dd (start of day), a local date-time or an offset date-time; local values are UTC
+    private static Instant parseInstant(String value, String name) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            if (value.length() == 10) return LocalDate.parse(value).atStartOfDay().toInstant(ZoneOffset.UTC);
+            try {
+                return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException e) {
+                return OffsetDateTime.parse(value).toInstant();
+            }
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid '" + name + "' date: " + value);
+        }
+    }
+}
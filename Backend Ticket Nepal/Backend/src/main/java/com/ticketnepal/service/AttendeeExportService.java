@@ -0,0 +1,105 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.User;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Attendee list of one event, read from a Mongo cursor in _id order and
+ * handed to a sink one row at a time. Buyer names and emails are joined a
+ * batch at a time with one $in query, so at most one batch of tickets and
+ * users is in memory however large the event is. Passing the last ticket id
+ * received as {@code after} resumes an interrupted export.
+ */
+@Service
+public class AttendeeExportService {
+
+    public static final List<String> COLUMNS = List.of(
+            "ticketId", "seat", "name", "email", "checkedIn", "transactionId", "price");
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public record AttendeeRow(String ticketId, String seat, String name, String email,
+                              boolean checkedIn, String transactionId, Double price) {
+        public List<Object> cells() {
+            return Arrays.asList(ticketId, seat, name, email, checkedIn, transactionId, price);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowSink {
+        void accept(AttendeeRow row) throws IOException;
+    }
+
+    /** Writes up to {@code limit} rows (0 for all) after the given ticket id and returns how many were written. */
+    public long export(String eventId, String after, long limit, RowSink sink) throws IOException {
+        AdminListingService.checkCursor(after);
+        Query query = new Query(Criteria.where("eventId").is(eventId));
+        if (after != null && !after.isBlank()) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+        }
+        query.fields().include("seat", "userId", "checkedIn", "transactionId", "price");
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(BATCH_SIZE);
+        if (limit > 0) query.limit((int) Math.min(limit, Integer.MAX_VALUE));
+
+        long written = 0;
+        List<Ticket> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<Ticket> tickets = mongoTemplate.stream(query, Ticket.class)) {
+            for (Iterator<Ticket> it = tickets.iterator(); it.hasNext(); ) {
+                batch.add(it.next());
+                if (batch.size() == BATCH_SIZE) {
+                    written += flush(batch, sink);
+                }
+            }
+            written += flush(batch, sink);
+        }
+        return written;
+    }
+
+    private int flush(List<Ticket> batch, RowSink sink) throws IOException {
+        if (batch.isEmpty()) return 0;
+        Map<String, User> users = buyers(batch);
+        for (Ticket ticket : batch) {
+            User user = users.get(ticket.getUserId());
+            sink.accept(new AttendeeRow(ticket.getId(), ticket.getSeat(), user != null ? user.getName() : null,
+                    user != null ? user.getEmail() : null,
+                    ticket.isCheckedIn(), ticket.getTransactionId(), ticket.getPrice()));
+        }
+        int count = batch.size();
+        batch.clear();
+        return count;
+    }
+
+    private Map<String, User> buyers(List<Ticket> batch) {
+        Set<String> ids = new HashSet<>();
+        for (Ticket ticket : batch) {
+            if (ticket.getUserId() != null) ids.add(ticket.getUserId());
+        }
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("name", "email");
+        Map<String, User> users = new HashMap<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            users.put(user.getId(), user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,172 @@
+package com.ticketnepal.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.EagerTransformation;
+import com.cloudinary.Transformation;
+import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "image.store", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageStore implements ImageStore {
+
+    private static final String UPLOAD_SEGMENT = "/upload/";
+
+    private final Cloudinary cloudinary;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    @Value("${image.upload.folder:events}")
+    private String uploadFolder;
+
+    @Value("${image.upload.signature-ttl-seconds:600}")
+    private long signatureTtlSeconds;
+
+    public CloudinaryImageStore(Cloudinary cloudinary, MeterRegistry meterRegistry) {
+        this.cloudinary = cloudinary;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String upload(File file) throws IOException {
+        // Variants are generated by Cloudinary right after upload (eager, async) so the first card render is warm
+        List<Transformation> eager = new ArrayList<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            for (String format : ImageVariant.FORMATS) {
+                eager.add(sized(new EagerTransformation(), variant).format(format));
+            }
+        }
+        Map<String, Object> uploadResult = timed("upload", () -> (Map<String, Object>) cloudinary.uploader().upload(file,
+                ObjectUtils.asMap("eager", eager, "eager_async", true)));
+        return uploadResult.get("secure_url").toString();
+    }
+
+    @Override
+    public void delete(String imageUrl) throws IOException {
+        if (imageUrl == null || imageUrl.isEmpty()) return;
+        // Public id is the path after /upload/ (minus the version segment), so folders from direct uploads are kept
+        int uploadIdx = imageUrl.indexOf(UPLOAD_SEGMENT);
+        String publicIdWithExtension;
+        if (uploadIdx >= 0) {
+            publicIdWithExtension = imageUrl.substring(uploadIdx + UPLOAD_SEGMENT.length()).replaceFirst("^v\\d+/", "");
+        } else {
+            String[] parts = imageUrl.split("/");
+            publicIdWithExtension = parts[parts.length - 1];
+        }
+        String publicId = stripExtension(publicIdWithExtension);
+        timed("delete", () -> cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap()));
+    }
+
+    @Override
+    public boolean isOwnImageUrl(String imageUrl) {
+        return imageUrl != null && imageUrl.startsWith(deliveryBase());
+    }
+
+    // Key is the versioned path after /upload/, e.g. "v1712345678/events/abc.jpg"
+    @Override
+    public String keyFor(String imageUrl) {
+        if (!isOwnImageUrl(imageUrl)) return null;
+        return imageUrl.substring(deliveryBase().length());
+    }
+
+    @Override
+    public StoredImage openVariant(String key, ImageVariant variant, String format) throws IOException {
+        // Same transformation string as the eager upload, so Cloudinary serves the pre-generated derivative
+        String url = deliveryBase() + sized(new Transformation(), variant).generate() + "/" + stripExtension(key) + "." + format;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(20)).GET().build();
+        // Times until headers arrive; the body is streamed afterwards
+        HttpResponse<InputStream> response = timed("fetch", () -> {
+            try {
+                return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while fetching " + url);
+            }
+        });
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new FileNotFoundException("Cloudinary returned " + response.statusCode() + " for " + url);
+        }
+        String contentType = response.headers().firstValue("Content-Type").orElse("image/" + ("jpg".equals(format) ? "jpeg" : format));
+        return new StoredImage(response.body(), contentType);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> signedUploadParams() {
+        long timestamp = System.currentTimeMillis() / 1000;
+        Map<String, Object> toSign = new HashMap<>();
+        toSign.put("timestamp", timestamp);
+        toSign.put("folder", uploadFolder);
+        toSign.put("allowed_formats", "jpg,png,gif,webp"); // same types validateImageFile accepts
+        String signature = cloudinary.apiSignRequest(toSign, cloudinary.config.apiSecret);
+
+        Map<String, Object> params = new HashMap<>(toSign);
+        params.put("signature", signature);
+        params.put("api_key", cloudinary.config.apiKey);
+        params.put("cloud_name", cloudinary.config.cloudName);
+        params.put("uploadUrl", "https://api.cloudinary.com/v1_1/" + cloudinary.config.cloudName + "/image/upload");
+        params.put("expiresAt", timestamp + signatureTtlSeconds);
+        return Optional.of(params);
+    }
+
+    private interface CloudinaryCall<T> {
+        T call() throws IOException;
+    }
+
+    private <T> T timed(String operation, CloudinaryCall<T> call) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T result = call.call();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("cloudinary.requests")
+                    .description("Calls to the Cloudinary upload and delivery APIs")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private String deliveryBase() {
+        return "https://res.cloudinary.com/" + cloudinary.config.cloudName + "/image" + UPLOAD_SEGMENT;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static <T extends Transformation> T sized(T transformation, ImageVariant variant) {
+        transformation.width(variant.getWidth()).height(variant.getHeight()).crop("fill").quality("auto");
+        return transformation;
+    }
+
+    private static String stripExtension(String path) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        return dot > slash ? path.substring(0, dot) : path;
+    }
+}
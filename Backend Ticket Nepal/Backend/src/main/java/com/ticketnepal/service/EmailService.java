@@ -1,26 +1,98 @@
 package com.ticketnepal.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Service
 public class EmailService {
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mail.sender.threads:4}")
+    private int senderThreads;
+
+    @Value("${mail.sender.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // SMTP I/O happens inside Jakarta Mail's synchronized Transport methods, which pin
+    // virtual threads to their carrier on Java 21. Sends therefore run on a few platform
+    // threads behind a bounded queue, and callers return as soon as the email is queued:
+    // a slow SMTP server delays the email, not the booking or sign-up that sent it.
+    private ThreadPoolExecutor sendExecutor;
+    private Timer sentTimer;
+    private Timer failedTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sendExecutor = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "mail-sender-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        // SMTP time only; time spent queued shows up in mail.send.queue
+        sentTimer = Timer.builder("mail.send").tag("outcome", "success")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        failedTimer = Timer.builder("mail.send").tag("outcome", "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("mail.send.rejected")
+                .description("Emails dropped because the send queue was full")
+                .register(meterRegistry);
+        Gauge.builder("mail.send.queue", sendExecutor, e -> e.getQueue().size())
+                .description("Emails waiting for a sender thread")
+                .register(meterRegistry);
+        Gauge.builder("mail.send.active", sendExecutor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    // Graceful shutdown gives queued emails a moment to go out before the daemon threads die
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        sendExecutor.shutdown();
+        if (!sendExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Shutting down with {} emails unsent", sendExecutor.getQueue().size() + sendExecutor.getActiveCount());
+        }
+    }
+
     public void sendSimpleMessage(String to, String subject, String text) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject(subject);
         message.setText(text);
-        mailSender.send(message);
+        enqueue(to, () -> mailSender.send(message));
     }
 
     public void sendQrTicketEmail(String to, String subject, String text, byte[] qrImage, String filename) throws MessagingException {
@@ -34,6 +106,25 @@ public class EmailService {
         ByteArrayResource qrAttachment = new ByteArrayResource(qrImage);
         helper.addAttachment(filename, qrAttachment, "image/png");
 
-        mailSender.send(mimeMessage);
+        enqueue(to, () -> mailSender.send(mimeMessage));
+    }
+
+    // Failures are logged and counted; by the time a send fails the caller has already answered
+    private void enqueue(String to, Runnable send) {
+        try {
+            sendExecutor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    send.run();
+                    sentTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                } catch (RuntimeException e) {
+                    failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    logger.warn("Could not send email to {}: {}", to, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Email to {} dropped: {} emails already queued", to, sendExecutor.getQueue().size());
+        }
     }
 }
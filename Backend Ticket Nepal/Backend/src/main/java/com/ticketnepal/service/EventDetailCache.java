@@ -0,0 +1,108 @@
+package com.ticketnepal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ticketnepal.model.Event;
+import com.ticketnepal.repository.EventRepository;
+import com.ticketnepal.util.EntityTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Event detail responses kept as serialized JSON, so a popular event page is
+ * a cache lookup and a byte copy instead of a Mongo read plus a Jackson pass
+ * over the whole seat map. Every write to an event must call {@link #evict};
+ * the TTL bounds staleness from writes made by other instances. Entries carry
+ * the event's ETag and Last-Modified, so revalidations can be answered with
+ * a 304 from the cache or from a version-only read.
+ * <p>
+ * Entries are futures so concurrent misses for one event share a single
+ * load, which runs on the first caller's thread after the entry is in place.
+ * A load inside Caffeine's compute would hold a map lock across the Mongo
+ * read, pinning the carrier of a virtual thread (and on JDK 21 stalling
+ * every other request that hashes to the same bin).
+ */
+@Service
+public class EventDetailCache {
+
+    private final EventRepository eventRepository;
+    private final ImageVariantService imageVariantService;
+    private final ObjectMapper objectMapper;
+    private final MongoTemplate mongoTemplate;
+    private final AsyncCache<String, Detail> cache;
+
+    public record Detail(byte[] json, String etag, long lastModified) {}
+
+    public EventDetailCache(EventRepository eventRepository, ImageVariantService imageVariantService,
+                            ObjectMapper objectMapper, MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                            @Value("${events.detail-cache.ttl:30s}") Duration ttl,
+                            @Value("${events.detail-cache.max-size:2000}") long maxSize) {
+        this.eventRepository = eventRepository;
+        this.imageVariantService = imageVariantService;
+        this.objectMapper = objectMapper;
+        this.mongoTemplate = mongoTemplate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "event-detail");
+    }
+
+    /** The event as JSON, or empty if there is no such event (misses are not cached). */
+    public Optional<Detail> get(String id) {
+        CompletableFuture<Detail> loading = new CompletableFuture<>();
+        CompletableFuture<Detail> entry = cache.get(id, (key, executor) -> loading);
+        if (entry == loading) {
+            // This caller put the entry in, so it loads; a null or failed result is dropped from the cache
+            try {
+                loading.complete(load(id));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return Optional.ofNullable(entry.join());
+    }
+
+    /** ETag and Last-Modified only (json is null), read without loading the whole event on a cache miss. */
+    public Optional<Detail> validators(String id) {
+        // Only a finished load counts; one in flight isn't waited for
+        Detail cached = cache.synchronous().getIfPresent(id);
+        if (cached != null) return Optional.of(cached);
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("version", "updatedAt");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Event.class))
+                .map(event -> new Detail(null, EntityTags.etag(event), EntityTags.lastModified(event)));
+    }
+
+    public void evict(String id) {
+        if (id != null) cache.synchronous().invalidate(id);
+    }
+
+    private Detail load(String id) {
+        return eventRepository.findById(id)
+                .map(imageVariantService::decorate)
+                .map(event -> {
+                    try {
+                        return new Detail(objectMapper.writeValueAsBytes(event),
+                                EntityTags.etag(event), EntityTags.lastModified(event));
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .orElse(null);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.model.Event;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Field-level writes to events, conditional on the version they were computed
+ * from. Only the changed fields go over the wire ($set), so a large seat map
+ * isn't rewritten to rename an event, and a write based on a stale read never
+ * lands: on a version mismatch the event is re-read and the change recomputed,
+ * up to {@code events.write.max-attempts} times with a short jittered backoff.
+ * Booking income is the exception: a commutative $inc that needs no check
+ * and leaves the version alone (see {@link #addIncome}). Orders carry a copy
+ * of the event's name, dates and place, which is refreshed after each write.
+ */
+@Service
+public class EventWriteService {
+
+    private final MongoTemplate mongoTemplate;
+    private final EventDetailCache eventDetailCache;
+    private final OrderService orderService;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public EventWriteService(MongoTemplate mongoTemplate,
+                             EventDetailCache eventDetailCache,
+                             OrderService orderService,
+                             MeterRegistry meterRegistry,
+                             @Value("${events.write.max-attempts:3}") int maxAttempts,
+                             @Value("${events.write.backoff:20ms}") Duration backoff) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventDetailCache = eventDetailCache;
+        this.orderService = orderService;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+    }
+
+    /**
+     * Applies {@code changes(current)}, re-reading and recomputing on conflict.
+     * The function returns null when there is nothing (left) to change; it may
+     * return the same Update on every call. Empty when the event is gone.
+     *
+     * @throws OptimisticLockingFailureException when every attempt lost a race
+     */
+    public Optional<Event> update(Event current, String operation, Function<Event, Update> changes) {
+        return write(current, operation, changes, maxAttempts);
+    }
+
+    /**
+     * A single attempt against exactly {@code current}'s version, for writes
+     * whose client asserted that version (If-Match) and must not be retried
+     * on top of someone else's change.
+     */
+    public Optional<Event> updateOnce(Event current, String operation, Update changes) {
+        return write(current, operation, event -> changes, 1);
+    }
+
+    /**
+     * Adds booking revenue atomically, so concurrent bookings never lose any.
+     * Only updatedAt moves (refreshing the ETag); the version counts edits,
+     * and a flash sale must not fail an organizer's If-Match. Addressed by
+     * collection name because the typed update would bump @Version itself.
+     */
+    public void addIncome(String eventId, double amount) {
+        Update update = new Update().inc("income", amount).currentDate("updatedAt");
+        mongoTemplate.updateFirst(Query.query(where("_id").is(eventId)), update,
+                mongoTemplate.getCollectionName(Event.class));
+        eventDetailCache.evict(eventId);
+    }
+
+    private Optional<Event> write(Event current, String operation, Function<Event, Update> changes, int attempts) {
+        for (int attempt = 1; ; attempt++) {
+            Update update = changes.apply(current);
+            if (update == null) {
+                count(operation, "unchanged");
+                return Optional.of(current);
+            }
+            // What save() would do for @Version and @LastModifiedDate
+            update.inc("version", 1).currentDate("updatedAt");
+            Query expected = Query.query(where("_id").is(current.getId()).and("version").is(current.getVersion()));
+            Event written = mongoTemplate.findAndModify(expected, update,
+                    FindAndModifyOptions.options().returnNew(true), Event.class);
+            if (written != null) {
+                eventDetailCache.evict(written.getId());
+                orderService.eventChanged(current, written);
+                count(operation, "applied");
+                return Optional.of(written);
+            }
+            meterRegistry.counter("events.write.conflicts", "operation", operation).increment();
+            Event latest = mongoTemplate.findById(current.getId(), Event.class);
+            if (latest == null) {
+                count(operation, "not_found");
+                return Optional.empty();
+            }
+            if (attempt >= attempts) {
+                count(operation, "conflict");
+                throw new OptimisticLockingFailureException("Event " + current.getId() + " changed at version "
+                        + current.getVersion() + " (now " + latest.getVersion() + ")");
+            }
+            meterRegistry.counter("events.write.retries", "operation", operation).increment();
+            pause(attempt);
+            current = latest;
+        }
+    }
+
+    // Jittered, growing with the attempt, so writers that collided don't collide again in lockstep
+    private void pause(int attempt) {
+        long base = backoff.toMillis() * attempt;
+        if (base <= 0) return;
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Interrupted while retrying an event write", e);
+        }
+    }
+
+    /** outcome: applied, unchanged, not_found or conflict (every attempt lost). */
+    private void count(String operation, String outcome) {
+        meterRegistry.counter("events.writes", "operation", operation, "outcome", outcome).increment();
+    }
+}
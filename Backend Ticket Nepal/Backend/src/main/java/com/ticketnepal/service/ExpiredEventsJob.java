@@ -0,0 +1,107 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.util.EventFilters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Soft-removes events one day after they end by marking them as deleted.
+ * Only events not yet deleted whose eventEnd sorts before the cutoff are
+ * read (event_end index), so a run costs what has expired since the last
+ * one rather than the whole collection. eventEnd is an ISO local or offset
+ * date-time string; comparing strings may let through a few that end on the
+ * cutoff minute, which the exact check below skips.
+ */
+@Component
+public class ExpiredEventsJob implements ScheduledJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredEventsJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final EventWriteService eventWriteService;
+    private final String cron;
+    private final int shards;
+
+    public ExpiredEventsJob(MongoTemplate mongoTemplate,
+                            EventWriteService eventWriteService,
+                            @Value("${jobs.expired-events.cron:0 0 * * * *}") String cron,
+                            @Value("${jobs.expired-events.shards:1}") int shards) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventWriteService = eventWriteService;
+        this.cron = cron;
+        this.shards = shards;
+    }
+
+    @Override
+    public String name() {
+        return "expired-events";
+    }
+
+    @Override
+    public String cron() {
+        return cron;
+    }
+
+    @Override
+    public int shards() {
+        return shards;
+    }
+
+    @Override
+    public long run(JobContext context) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(where("deleted").ne(true).and("eventEnd").lt(now.minusDays(1).toString()));
+        Criteria shard = context.idShard();
+        if (shard != null) query.addCriteria(shard);
+        long removed = 0;
+        try (Stream<Event> events = mongoTemplate.stream(query, Event.class)) {
+            for (Iterator<Event> it = events.iterator(); it.hasNext() && context.renew(); ) {
+                if (expire(it.next(), now)) removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean expire(Event event, LocalDateTime now) {
+        // Re-checked against the latest copy if an edit (say, a postponement) lands first
+        try {
+            return eventWriteService.update(event, "expire", latest -> expiredForADay(latest, now)
+                            ? Update.update("deleted", true) : null)
+                    .filter(written -> Boolean.TRUE.equals(written.getDeleted()))
+                    .map(written -> {
+                        logger.info("Soft-removed event (marked deleted) after 1 day: {}", written.getId());
+                        return true;
+                    })
+                    .orElse(false);
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Event {} kept changing; will retry at the next run", event.getId());
+            return false;
+        }
+    }
+
+    private static boolean expiredForADay(Event event, LocalDateTime now) {
+        if (Boolean.TRUE.equals(event.getDeleted()) || event.getEventEnd() == null) {
+            return false;
+        }
+        try {
+            return now.isAfter(EventFilters.parseToLocalDateTime(event.getEventEnd()).plusDays(1));
+        } catch (Exception e) {
+            logger.warn("Failed to parse eventEnd for event: {}", event.getId());
+            return false;
+        }
+    }
+}
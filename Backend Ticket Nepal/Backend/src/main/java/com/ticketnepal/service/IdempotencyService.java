@@ -0,0 +1,292 @@
+package com.ticketnepal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ticketnepal.model.IdempotencyRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Runs a request at most once per Idempotency-Key. The first request claims
+ * the key in Mongo and its response is stored for {@code ttl}; retries with
+ * the same key and body get that response back. Duplicates that arrive while
+ * the original is still running wait for it (on the in-process future when
+ * it runs on this instance, by polling otherwise) rather than running again.
+ * Failed attempts (exceptions, 5xx) release the key so the client can retry.
+ * The owner renews its lease while the request runs, however long it takes;
+ * only a lease left to run out (the instance died) lets a retry take over,
+ * and each claim writes its own owner token so the displaced owner can no
+ * longer store or release the key.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter canonicalWriter;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewals = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "idempotency-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotencyService(MongoTemplate mongoTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.lease:30s}") Duration lease,
+                              @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout,
+                              @Value("${idempotency.poll-interval:100ms}") Duration pollInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        // Map keys sorted, so the same body hashes the same whatever order the client sent
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewals.shutdownNow();
+    }
+
+    /**
+     * @param scope   namespace of the key, typically operation and user ("booking:&lt;userId&gt;")
+     * @param request the request body, fingerprinted to detect a key reused for something else
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request,
+                                     Callable<ResponseEntity<?>> action) throws Exception {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + key;
+        String hash = fingerprint(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        boolean waited = false;
+        while (true) {
+            String owner = UUID.randomUUID().toString();
+            IdempotencyRecord existing = claim(id, hash, owner);
+            if (existing == null) {
+                // A waiter only gets here when the original failed and released the key
+                return run(id, owner, action, waited ? "retried" : "executed");
+            }
+            if (!hash.equals(existing.getRequestHash())) {
+                count("mismatch");
+                return ResponseEntity.unprocessableEntity()
+                        .body(Map.of("error", HEADER + " was already used for a different request."));
+            }
+            if (IdempotencyRecord.COMPLETED.equals(existing.getStatus())) {
+                count(waited ? "waited" : "replayed");
+                return replay(existing);
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                count("in_progress");
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(Map.of("error", "A request with this " + HEADER + " is still being processed."));
+            }
+            waited = true;
+            await(id, remaining);
+        }
+    }
+
+    /**
+     * Claims the key for this request under {@code owner}. Returns null when the
+     * caller now owns it, otherwise the record of whoever does (or did).
+     */
+    private IdempotencyRecord claim(String id, String hash, String owner) {
+        while (true) {
+            Date now = new Date();
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setId(id);
+            record.setStatus(IdempotencyRecord.IN_PROGRESS);
+            record.setRequestHash(hash);
+            record.setOwner(owner);
+            record.setLockedUntil(new Date(now.getTime() + lease.toMillis()));
+            record.setCreatedAt(now);
+            record.setExpiresAt(new Date(now.getTime() + ttl.toMillis()));
+            try {
+                mongoTemplate.insert(record);
+                return null;
+            } catch (DuplicateKeyException e) {
+                // Someone holds the key; fall through
+            }
+            // The owner stopped renewing its lease (instance died mid-request): take over
+            Query abandoned = Query.query(where("_id").is(id)
+                    .and("status").is(IdempotencyRecord.IN_PROGRESS)
+                    .and("requestHash").is(hash)
+                    .and("lockedUntil").lt(now));
+            Update takeOver = new Update().set("owner", owner).set("lockedUntil", record.getLockedUntil());
+            if (mongoTemplate.findAndModify(abandoned, takeOver, IdempotencyRecord.class) != null) {
+                return null;
+            }
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing != null) {
+                return existing;
+            }
+            // Released (or expired) between the insert and the read; try again
+        }
+    }
+
+    private ResponseEntity<?> run(String id, String owner, Callable<ResponseEntity<?>> action,
+                                  String outcome) throws Exception {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        inFlight.put(id, done);
+        long every = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewals.scheduleWithFixedDelay(() -> renew(id, owner),
+                every, every, TimeUnit.MILLISECONDS);
+        try {
+            ResponseEntity<?> response;
+            try {
+                response = action.call();
+            } finally {
+                renewal.cancel(false);
+            }
+            if (response.getStatusCode().is5xxServerError()) {
+                release(id, owner);
+            } else {
+                store(id, owner, response);
+            }
+            count(outcome);
+            return response;
+        } catch (Exception e) {
+            release(id, owner);
+            throw e;
+        } finally {
+            inFlight.remove(id, done);
+            done.complete(null);
+        }
+    }
+
+    private static Query owned(String id, String owner) {
+        return Query.query(where("_id").is(id)
+                .and("status").is(IdempotencyRecord.IN_PROGRESS)
+                .and("owner").is(owner));
+    }
+
+    private void renew(String id, String owner) {
+        try {
+            Date until = new Date(System.currentTimeMillis() + lease.toMillis());
+            if (mongoTemplate.updateFirst(owned(id, owner), Update.update("lockedUntil", until),
+                    IdempotencyRecord.class).getMatchedCount() == 0) {
+                logger.warn("Lost idempotency key {} while its request was still running", id);
+            }
+        } catch (DataAccessException e) {
+            // Tried again at the next renewal; the lease only runs out if they keep failing
+            logger.warn("Could not renew idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void await(String id, long remainingNanos) throws InterruptedException {
+        CompletableFuture<Void> local = inFlight.get(id);
+        if (local == null) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(remainingNanos, pollInterval.toNanos()));
+            return;
+        }
+        try {
+            local.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Re-read the record either way
+        }
+    }
+
+    private void store(String id, String owner, ResponseEntity<?> response) {
+        try {
+            Update update = new Update()
+                    .set("status", IdempotencyRecord.COMPLETED)
+                    .set("responseStatus", response.getStatusCode().value())
+                    .set("responseBody", objectMapper.writeValueAsString(response.getBody()))
+                    .unset("lockedUntil");
+            if (mongoTemplate.updateFirst(owned(id, owner), update, IdempotencyRecord.class).getMatchedCount() == 0) {
+                // Another request took the key over; its outcome is the one kept
+                logger.warn("Idempotency key {} was taken over before its response was stored", id);
+            }
+        } catch (JsonProcessingException | DataAccessException e) {
+            // The request itself succeeded; a retry will find the key locked until the lease runs out
+            logger.warn("Could not store the response for idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void release(String id, String owner) {
+        try {
+            mongoTemplate.remove(owned(id, owner), IdempotencyRecord.class);
+        } catch (DataAccessException e) {
+            logger.warn("Could not release idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record) {
+        // Already serialized; the String converter writes it as is
+        return ResponseEntity.status(record.getResponseStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(record.getResponseBody());
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] canonical = canonicalWriter.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    /** outcome: executed, retried, replayed, waited, mismatch or in_progress. */
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+}
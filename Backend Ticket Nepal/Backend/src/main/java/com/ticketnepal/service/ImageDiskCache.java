@@ -0,0 +1,163 @@
+package com.ticketnepal.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache for image variants, bounded by a byte budget with LRU
+ * eviction. Only the index is guarded by the lock; bytes are written to a
+ * temp file first and moved into place, and readers keep an open stream even
+ * if the entry is evicted meanwhile.
+ */
+@Component
+public class ImageDiskCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDiskCache.class);
+
+    @Value("${image.cache.dir}")
+    private String cacheDir;
+
+    @Value("${image.cache.max-size:256MB}")
+    private DataSize maxSize;
+
+    private Path root;
+    private long totalBytes;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private record Entry(Path path, long size, String contentType) {}
+
+    public record CachedImage(InputStream body, long size, String contentType) {}
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Path.of(cacheDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        // Re-index what survived a restart, oldest first so it is evicted first
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(root)) {
+            existing = files.filter(p -> !p.getFileName().toString().endsWith(".tmp"))
+                    .sorted((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()))
+                    .toList();
+        }
+        synchronized (this) {
+            for (Path path : existing) {
+                String name = path.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                if (dot <= 0) continue;
+                Entry entry = new Entry(path, Files.size(path), contentTypeFor(name.substring(dot + 1)));
+                entries.put(name.substring(0, dot), entry);
+                totalBytes += entry.size();
+            }
+            evictOverBudget();
+        }
+        logger.info("Image cache at {} holds {} entries ({} bytes, budget {})", root, entries.size(), totalBytes, maxSize);
+    }
+
+    public synchronized Optional<CachedImage> get(String key) throws IOException {
+        Entry entry = entries.get(hash(key));
+        if (entry == null) return Optional.empty();
+        try {
+            return Optional.of(new CachedImage(Files.newInputStream(entry.path()), entry.size(), entry.contentType()));
+        } catch (IOException e) {
+            // File vanished underneath us (manual cleanup); forget it
+            remove(hash(key));
+            return Optional.empty();
+        }
+    }
+
+    /** Copies the stream into the cache and returns a stream over the cached copy. */
+    public CachedImage put(String key, InputStream body, String contentType) throws IOException {
+        String hashed = hash(key);
+        Path temp = Files.createTempFile(root, hashed, ".tmp");
+        long size;
+        try (body) {
+            size = Files.copy(body, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Path target = root.resolve(hashed + "." + extensionFor(contentType));
+        synchronized (this) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Entry previous = entries.put(hashed, new Entry(target, size, contentType));
+            if (previous != null) totalBytes -= previous.size();
+            totalBytes += size;
+            evictOverBudget();
+            return new CachedImage(Files.newInputStream(target), size, contentType);
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (totalBytes > maxSize.toBytes() && it.hasNext()) {
+            Entry evicted = it.next().getValue();
+            it.remove();
+            totalBytes -= evicted.size();
+            try {
+                Files.deleteIfExists(evicted.path());
+            } catch (IOException e) {
+                logger.warn("Failed to delete evicted image cache file {}", evicted.path(), e);
+            }
+        }
+    }
+
+    private void remove(String hashed) {
+        Entry removed = entries.remove(hashed);
+        if (removed != null) totalBytes -= removed.size();
+    }
+
+    private static String extensionFor(String contentType) {
+        if (contentType == null) return "bin";
+        return switch (contentType) {
+            case "image/webp" -> "webp";
+            case "image/jpeg" -> "jpg";
+            case "image/png" -> "png";
+            case "image/gif" -> "gif";
+            default -> "bin";
+        };
+    }
+
+    private static String contentTypeFor(String extension) {
+        return switch (extension) {
+            case "webp" -> "image/webp";
+            case "jpg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            default -> "application/octet-stream";
+        };
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
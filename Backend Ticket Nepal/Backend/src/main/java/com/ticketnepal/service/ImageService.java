@@ -1,30 +1,128 @@
 package com.ticketnepal.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ImageService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
+
+    // Cloudinary by default, local filesystem when image.store=local
     @Autowired
-    private Cloudinary cloudinary;
+    private ImageStore imageStore;
+
+    // Background uploads for organizers who don't want to wait on the image store
+    private final ThreadPoolExecutor uploadExecutor;
+
+    public ImageService(@Value("${image.upload.async-threads:2}") int asyncThreads,
+                        @Value("${image.upload.async-queue-capacity:50}") int asyncQueueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.uploadExecutor = new ThreadPoolExecutor(asyncThreads, asyncThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(asyncQueueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-upload-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
 
-    @SuppressWarnings("unchecked")
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * Uploads without reading the whole file into the heap: the multipart part
+     * (already spooled to disk by the container) is moved to a temp file and
+     * the image store streams it from there.
+     */
     public String uploadImage(MultipartFile file) throws IOException {
-        Map<String, Object> uploadResult = (Map<String, Object>) cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-        return uploadResult.get("secure_url").toString();
+        File tempFile = spoolToTempFile(file);
+        try {
+            return uploadFile(tempFile);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * Same as {@link #uploadImage} but returns right away; the upload runs in the
+     * background and the future completes with the image URL. The part is moved
+     * to a temp file first because the container deletes it when the request ends.
+     */
+    public CompletableFuture<String> uploadImageAsync(MultipartFile file) throws IOException {
+        File tempFile = spoolToTempFile(file);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return uploadFile(tempFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    try {
+                        Files.deleteIfExists(tempFile.toPath());
+                    } catch (IOException e) {
+                        logger.warn("Failed to delete temp upload file {}", tempFile, e);
+                    }
+                }
+            }, uploadExecutor);
+        } catch (RejectedExecutionException e) {
+            // Background queue is full: fall back to uploading on the caller's thread
+            try {
+                return CompletableFuture.completedFuture(uploadFile(tempFile));
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
+            }
+        }
+    }
+
+    /**
+     * Parameters for a signed upload straight from the browser to the image store,
+     * so the image bytes never pass through this server. The client posts the
+     * file plus these fields to uploadUrl, then sends the returned secure_url
+     * as imageUrl when creating or updating the event. Empty when the store
+     * doesn't take direct uploads (the local store).
+     */
+    public Optional<Map<String, Object>> signedUploadParams() {
+        return imageStore.signedUploadParams();
+    }
+
+    // Only accept direct-upload URLs that point at our own image store
+    public boolean isOwnImageUrl(String imageUrl) {
+        return imageStore.isOwnImageUrl(imageUrl);
     }
 
     public void deleteImageByUrl(String imageUrl) throws IOException {
-        if (imageUrl == null || imageUrl.isEmpty()) return;
-        String[] parts = imageUrl.split("/");
-        String publicIdWithExtension = parts[parts.length - 1];
-        String publicId = publicIdWithExtension.contains(".") ? publicIdWithExtension.substring(0, publicIdWithExtension.lastIndexOf('.')) : publicIdWithExtension;
-        cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+        imageStore.delete(imageUrl);
+    }
+
+    private String uploadFile(File file) throws IOException {
+        return imageStore.upload(file);
+    }
+
+    private File spoolToTempFile(MultipartFile file) throws IOException {
+        File tempFile = Files.createTempFile("event-image-", ".upload").toFile();
+        // For disk-backed parts this is a rename rather than a copy
+        file.transferTo(tempFile);
+        return tempFile;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package com.ticketnepal.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Where event images live. Cloudinary in production; {@link LocalImageStore}
+ * is a filesystem stand-in for local development and tests (image.store=local).
+ */
+public interface ImageStore {
+
+    /** Stores the image, kicks off variant generation and returns the URL saved on the event. */
+    String upload(File file) throws IOException;
+
+    void delete(String imageUrl) throws IOException;
+
+    /** True if the URL points at an image held by this store. */
+    boolean isOwnImageUrl(String imageUrl);
+
+    /** Store-relative key for one of our image URLs, used in variant URLs; null for foreign URLs. */
+    String keyFor(String imageUrl);
+
+    /** Opens the bytes of a variant. Throws {@link java.io.FileNotFoundException} if there is no such image. */
+    StoredImage openVariant(String key, ImageVariant variant, String format) throws IOException;
+
+    /** Parameters for a browser-to-store signed upload; empty when the store has nowhere for the browser to upload to. */
+    Optional<Map<String, Object>> signedUploadParams();
+
+    record StoredImage(InputStream body, String contentType) {}
+}
@@ -0,0 +1,59 @@
+package com.ticketnepal.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sizes produced for every event image. Cards and detail pages should load
+ * one of these instead of the full-resolution upload.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumbnail", 160, 120),
+    CARD("card", 480, 320),
+    HERO("hero", 1600, 640);
+
+    // Output formats for each variant; browsers without WebP support fall back to jpg
+    public static final List<String> FORMATS = List.of("webp", "jpg");
+
+    // Served by /api/images (ImageController)
+    public static final String PATH_PREFIX = "/api/images/";
+
+    private final String key;
+    private final int width;
+    private final int height;
+
+    ImageVariant(String key, int width, int height) {
+        this.key = key;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String getKey() { return key; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /**
+     * { "card": { "webp": "/api/images/card/webp/<key>", "jpg": "..." }, ... } for an
+     * image store key. Needs no store, so the reactive read API builds the same URLs.
+     */
+    public static Map<String, Map<String, String>> urlsFor(String key) {
+        Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+        for (ImageVariant variant : values()) {
+            Map<String, String> byFormat = new LinkedHashMap<>();
+            for (String format : FORMATS) {
+                byFormat.put(format, PATH_PREFIX + variant.key + "/" + format + "/" + key);
+            }
+            variants.put(variant.key, byFormat);
+        }
+        return variants;
+    }
+
+    public static Optional<ImageVariant> fromKey(String key) {
+        for (ImageVariant variant : values()) {
+            if (variant.key.equals(key)) return Optional.of(variant);
+        }
+        return Optional.empty();
+    }
+}
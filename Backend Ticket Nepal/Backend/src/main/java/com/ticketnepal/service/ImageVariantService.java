@@ -0,0 +1,39 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.model.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Builds the per-variant image URLs returned with events. URLs point at
+ * /api/images so variants are served from our cache with long-lived caching
+ * headers; the key embeds the store's version, so a replaced image gets new URLs.
+ */
+@Service
+public class ImageVariantService {
+
+    @Autowired
+    private ImageStore imageStore;
+
+    /** { "card": { "webp": "/api/images/card/webp/...", "jpg": "..." }, ... } or null for foreign URLs. */
+    public Map<String, Map<String, String>> variantUrls(String imageUrl) {
+        String key = imageStore.keyFor(imageUrl);
+        if (key == null) return null;
+        return ImageVariant.urlsFor(key);
+    }
+
+    public Event decorate(Event event) {
+        if (event != null) {
+            event.setImageVariants(variantUrls(event.getImageUrl()));
+        }
+        return event;
+    }
+
+    public <C extends Collection<Event>> C decorateAll(C events) {
+        events.forEach(this::decorate);
+        return events;
+    }
+}
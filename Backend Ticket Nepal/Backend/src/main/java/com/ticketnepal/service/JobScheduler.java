@@ -0,0 +1,241 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.model.JobState;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Runs every {@link ScheduledJob} once per cron fire across all instances.
+ * Each job shard has a document in "jobs" with the time it is next due;
+ * every instance polls for due shards and claims one with a lease (owner,
+ * lockedUntil, fencing token) before running it, so a fire runs once no
+ * matter how many replicas there are, and a sharded job is spread over
+ * whichever instances poll while it is due. A run renews its lease as it
+ * goes; one whose instance dies is picked up again once the lease runs out.
+ * The outcome (duration, items processed, error) is recorded on the shard.
+ */
+@Service
+public class JobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobScheduler.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ScheduledJob> jobs;
+    private final Duration lease;
+    private final boolean enabled;
+    private final String instance;
+
+    public JobScheduler(MongoTemplate mongoTemplate,
+                        MeterRegistry meterRegistry,
+                        List<ScheduledJob> jobs,
+                        @Value("${jobs.lease:5m}") Duration lease,
+                        @Value("${jobs.enabled:true}") boolean enabled,
+                        @Value("${HOSTNAME:}") String hostname) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.jobs = jobs.stream().collect(Collectors.toMap(ScheduledJob::name, Function.identity(),
+                (a, b) -> { throw new IllegalStateException("Two jobs named " + a.name()); }, LinkedHashMap::new));
+        this.jobs.values().forEach(JobScheduler::check);
+        this.lease = lease;
+        this.enabled = enabled;
+        this.instance = hostname.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : hostname;
+    }
+
+    private static void check(ScheduledJob job) {
+        if (job.shards() < 1 || job.shards() > ScheduledJob.MAX_SHARDS) {
+            throw new IllegalStateException("Job " + job.name() + " must have 1 to " + ScheduledJob.MAX_SHARDS + " shards");
+        }
+        CronExpression.parse(job.cron());
+    }
+
+    /** Creates the shard documents of new jobs (first due at their next fire) and drops shards no longer declared. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() {
+        for (ScheduledJob job : jobs.values()) {
+            try {
+                for (int shard = 0; shard < job.shards(); shard++) {
+                    Update update = new Update()
+                            .set("job", job.name())
+                            .set("shard", shard)
+                            .set("shards", job.shards())
+                            .setOnInsert("nextRunAt", nextFire(job))
+                            .setOnInsert("token", 0L)
+                            .setOnInsert("runs", 0L);
+                    mongoTemplate.upsert(Query.query(where("_id").is(JobState.id(job.name(), shard))), update, JobState.class);
+                }
+                mongoTemplate.remove(Query.query(where("job").is(job.name()).and("shard").gte(job.shards())), JobState.class);
+            } catch (DataAccessException e) {
+                logger.warn("Could not register job {}: {}", job.name(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.poll-interval:30s}", initialDelayString = "${jobs.poll-interval:30s}")
+    public void poll() {
+        if (!enabled) return;
+        List<JobState> due;
+        try {
+            due = new ArrayList<>(mongoTemplate.find(Query.query(claimable(new Date())), JobState.class));
+        } catch (DataAccessException e) {
+            logger.warn("Could not look for due jobs: {}", e.getMessage());
+            return;
+        }
+        // Instances polling at the same moment try shards in different orders and so mostly claim different ones
+        Collections.shuffle(due);
+        for (JobState state : due) {
+            ScheduledJob job = jobs.get(state.getJob());
+            if (job == null) continue; // declared by a newer release than this instance
+            claim(state.getId()).ifPresent(claimed -> run(job, claimed));
+        }
+    }
+
+    /**
+     * Makes every shard of the job due now; the next poll on any instance runs it
+     * (a shard that is running keeps the new time and runs again once it is done).
+     */
+    public boolean trigger(String name) {
+        if (!jobs.containsKey(name)) return false;
+        mongoTemplate.updateMulti(Query.query(where("job").is(name)), Update.update("nextRunAt", new Date()), JobState.class);
+        return true;
+    }
+
+    public List<JobState> states() {
+        return mongoTemplate.find(new Query().with(Sort.by("job", "shard")), JobState.class);
+    }
+
+    public List<JobState> states(String name) {
+        return mongoTemplate.find(Query.query(where("job").is(name)).with(Sort.by("shard")), JobState.class);
+    }
+
+    public boolean isDeclared(String name) {
+        return jobs.containsKey(name);
+    }
+
+    // Due and not leased (never claimed, finished, or left behind by an instance that died)
+    private static Criteria claimable(Date now) {
+        return where("nextRunAt").lte(now)
+                .orOperator(where("lockedUntil").is(null), where("lockedUntil").lt(now));
+    }
+
+    private Optional<JobState> claim(String id) {
+        Date now = new Date();
+        Query query = Query.query(where("_id").is(id)).addCriteria(claimable(now));
+        Update update = new Update()
+                .set("owner", instance)
+                .set("lockedUntil", new Date(now.getTime() + lease.toMillis()))
+                .set("lastStartedAt", now)
+                .inc("token", 1L);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), JobState.class));
+    }
+
+    private void run(ScheduledJob job, JobState claimed) {
+        long started = System.nanoTime();
+        Query owned = Query.query(where("_id").is(claimed.getId())
+                .and("owner").is(instance)
+                .and("token").is(claimed.getToken()));
+        ScheduledJob.JobContext context = new ScheduledJob.JobContext() {
+            private long renewedAt = started;
+
+            @Override
+            public int shard() { return claimed.getShard(); }
+
+            @Override
+            public int shards() { return claimed.getShards(); }
+
+            @Override
+            public boolean renew() {
+                long now = System.nanoTime();
+                // Cheap enough to call per item: writes at most every third of the lease
+                if (now - renewedAt < lease.toNanos() / 3) return true;
+                renewedAt = now;
+                Date until = new Date(System.currentTimeMillis() + lease.toMillis());
+                return mongoTemplate.updateFirst(owned, Update.update("lockedUntil", until), JobState.class)
+                        .getMatchedCount() > 0;
+            }
+        };
+        long items = 0;
+        String error = null;
+        try {
+            items = job.run(context);
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            logger.error("Job {} shard {} failed", job.name(), claimed.getShard(), e);
+        }
+        long durationMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        Date finishedAt = new Date();
+        String status = error == null ? JobState.SUCCEEDED : JobState.FAILED;
+        String lastError = error == null ? null : abbreviate(error);
+        long processed = items;
+        Supplier<Update> finished = () -> new Update()
+                .unset("owner")
+                .unset("lockedUntil")
+                .set("lastFinishedAt", finishedAt)
+                .set("lastDurationMs", durationMs)
+                .set("lastItemsProcessed", processed)
+                .set("lastStatus", status)
+                .set("lastError", lastError)
+                .set("lastOwner", instance)
+                .inc("runs", 1L);
+        String outcome = error == null ? "succeeded" : "failed";
+        try {
+            // Moves nextRunAt on to the next fire only if it is still the one this run claimed;
+            // a trigger() during the run made the shard due again, and that has to stand
+            Query unmoved = Query.of(owned).addCriteria(where("nextRunAt").is(claimed.getNextRunAt()));
+            if (mongoTemplate.updateFirst(unmoved, finished.get().set("nextRunAt", nextFire(job)), JobState.class)
+                    .getMatchedCount() == 0
+                    && mongoTemplate.updateFirst(owned, finished.get(), JobState.class).getMatchedCount() == 0) {
+                // The lease ran out mid-run and another instance claimed the shard; its record wins
+                logger.warn("Job {} shard {} finished after losing its lease", job.name(), claimed.getShard());
+                outcome = "lost";
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not record the run of job {} shard {}: {}", job.name(), claimed.getShard(), e.getMessage());
+        }
+        meterRegistry.counter("jobs.runs", "job", job.name(), "outcome", outcome).increment();
+        meterRegistry.counter("jobs.items", "job", job.name()).increment(items);
+        logger.info("Job {} shard {}/{}: {} items in {} ms ({})", job.name(), claimed.getShard(), claimed.getShards(),
+                items, durationMs, outcome);
+    }
+
+    private static Date nextFire(ScheduledJob job) {
+        ZonedDateTime next = CronExpression.parse(job.cron()).next(ZonedDateTime.now());
+        return next == null ? null : Date.from(next.toInstant());
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
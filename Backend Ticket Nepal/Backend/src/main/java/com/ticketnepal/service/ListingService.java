@@ -0,0 +1,113 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.EventSummary;
+import com.ticketnepal.model.StaffApplication;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.TicketSummary;
+import com.ticketnepal.util.EventFilters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Event and ticket listings read with a Mongo projection, so seat maps,
+ * descriptions and fields outside the requested fieldset never leave the
+ * database.
+ */
+@Service
+public class ListingService {
+
+    // Fields EventFilters looks at, loaded even when the client didn't ask for them
+    private static final List<String> FILTER_FIELDS = List.of(
+            "name", "category", "location", "organizer", "eventStart", "eventEnd", "deleted");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    public List<EventSummary> publicEvents(String category, String location, String name, String organizer,
+                                           String eventStart, Set<String> fields) {
+        Set<String> documentFields = new LinkedHashSet<>(EventSummary.documentFields(fields));
+        documentFields.addAll(FILTER_FIELDS);
+        List<Event> events = EventFilters.filter(findEvents(Criteria.where("deleted").ne(true), documentFields),
+                category, location, name, organizer, eventStart, LocalDateTime.now());
+        return events.stream().map(e -> summarize(e, fields, null, null)).toList();
+    }
+
+    public List<EventSummary> organizerEvents(String organizerId, Set<String> fields) {
+        List<Event> events = findEvents(Criteria.where("organizer").is(organizerId).and("deleted").ne(true),
+                EventSummary.documentFields(fields));
+        Map<String, Long> sold = fields.contains("ticketsSold")
+                ? ticketsSold(events.stream().map(Event::getId).toList()) : null;
+        List<EventSummary> result = new ArrayList<>(events.size());
+        for (Event event : events) {
+            Long ticketsSold = sold == null ? null : sold.getOrDefault(event.getId(), 0L);
+            result.add(summarize(event, fields, ticketsSold, null));
+        }
+        return result;
+    }
+
+    /** Tickets sold per event, for all of them in one aggregation. */
+    private Map<String, Long> ticketsSold(List<String> eventIds) {
+        if (eventIds.isEmpty()) return Map.of();
+        TypedAggregation<Ticket> aggregation = Aggregation.newAggregation(Ticket.class,
+                Aggregation.match(Criteria.where("eventId").in(eventIds)),
+                Aggregation.group("eventId").count().as("sold"));
+        return mongoTemplate.aggregate(aggregation, Document.class).getMappedResults().stream()
+                .collect(Collectors.toMap(d -> d.getString("_id"), d -> d.get("sold", Number.class).longValue()));
+    }
+
+    /** Events the staff member applied to, with the application status; one query for all of them. */
+    public List<EventSummary> staffEvents(Collection<StaffApplication> applications, Set<String> fields) {
+        Set<String> eventIds = applications.stream().map(StaffApplication::getEventId).collect(Collectors.toSet());
+        if (eventIds.isEmpty()) return List.of();
+        Map<String, Event> events = findEvents(Criteria.where("_id").in(eventIds), EventSummary.documentFields(fields))
+                .stream().collect(Collectors.toMap(Event::getId, Function.identity()));
+        List<EventSummary> result = new ArrayList<>();
+        for (StaffApplication application : applications) {
+            Event event = events.get(application.getEventId());
+            if (event != null) {
+                result.add(summarize(event, fields, null, application.getStatus()));
+            }
+        }
+        return result;
+    }
+
+    public List<TicketSummary> userTickets(String userId, Set<String> fields) {
+        Query query = new Query(Criteria.where("userId").is(userId));
+        TicketSummary.documentFields(fields).forEach(query.fields()::include);
+        return mongoTemplate.find(query, Ticket.class).stream()
+                .map(t -> TicketSummary.of(t, fields))
+                .toList();
+    }
+
+    private List<Event> findEvents(Criteria criteria, Set<String> documentFields) {
+        Query query = new Query(criteria);
+        documentFields.forEach(query.fields()::include);
+        return mongoTemplate.find(query, Event.class);
+    }
+
+    private EventSummary summarize(Event event, Set<String> fields, Long ticketsSold, String status) {
+        Map<String, Map<String, String>> variants = fields.contains("imageVariants")
+                ? imageVariantService.variantUrls(event.getImageUrl()) : null;
+        return EventSummary.of(event, fields, variants, ticketsSold, status);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ticketnepal.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Filesystem stand-in for Cloudinary (image.store=local). Originals are kept
+ * under file.upload-dir and served from /local-images/**; variants are
+ * resized here with ImageIO at upload time. WebP is written only when an
+ * ImageIO WebP writer is on the classpath, otherwise webp requests get jpg.
+ */
+@Component
+@ConditionalOnProperty(name = "image.store", havingValue = "local")
+public class LocalImageStore implements ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalImageStore.class);
+    public static final String URL_PATH = "/local-images/";
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Path.of(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public String upload(File file) throws IOException {
+        String id = UUID.randomUUID().toString();
+        String extension = "bin";
+        BufferedImage image = null;
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers != null && readers.hasNext()) {
+                ImageReader reader = readers.next();
+                extension = reader.getFormatName().toLowerCase().replace("jpeg", "jpg");
+                reader.setInput(in);
+                image = reader.read(0);
+                reader.dispose();
+            }
+        }
+        Files.copy(file.toPath(), root.resolve(id + "." + extension));
+
+        if (image == null) {
+            logger.warn("No ImageIO reader for uploaded image {}; variants will fall back to the original", id);
+        } else {
+            for (ImageVariant variant : ImageVariant.values()) {
+                BufferedImage resized = coverResize(image, variant.getWidth(), variant.getHeight());
+                for (String format : ImageVariant.FORMATS) {
+                    String writerFormat = "jpg".equals(format) ? "jpeg" : format;
+                    File target = root.resolve(id + "-" + variant.getKey() + "." + format).toFile();
+                    if (!ImageIO.write(resized, writerFormat, target)) {
+                        Files.deleteIfExists(target.toPath()); // no writer for this format (e.g. webp)
+                    }
+                }
+            }
+        }
+        return baseUrl + URL_PATH + id + "." + extension;
+    }
+
+    @Override
+    public void delete(String imageUrl) throws IOException {
+        String key = keyFor(imageUrl);
+        if (key == null) return;
+        String id = idOf(key);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, id + "*")) {
+            for (Path path : files) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Override
+    public boolean isOwnImageUrl(String imageUrl) {
+        return imageUrl != null && imageUrl.startsWith(baseUrl + URL_PATH);
+    }
+
+    // Key is the original's file name, e.g. "3f2c...e1.png"
+    @Override
+    public String keyFor(String imageUrl) {
+        if (!isOwnImageUrl(imageUrl)) return null;
+        return imageUrl.substring((baseUrl + URL_PATH).length());
+    }
+
+    @Override
+    public StoredImage openVariant(String key, ImageVariant variant, String format) throws IOException {
+        String id = idOf(key);
+        Path[] candidates = {
+                root.resolve(id + "-" + variant.getKey() + "." + format),
+                root.resolve(id + "-" + variant.getKey() + ".jpg"),
+                root.resolve(key)
+        };
+        for (Path candidate : candidates) {
+            Path normalized = candidate.normalize();
+            if (normalized.startsWith(root) && Files.isRegularFile(normalized)) {
+                String contentType = Files.probeContentType(normalized);
+                return new StoredImage(Files.newInputStream(normalized),
+                        contentType != null ? contentType : "application/octet-stream");
+            }
+        }
+        throw new FileNotFoundException("No local image for key " + key);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> signedUploadParams() {
+        // Images only reach the local store through this server
+        return Optional.empty();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    private static String idOf(String key) {
+        int dot = key.lastIndexOf('.');
+        return dot > 0 ? key.substring(0, dot) : key;
+    }
+
+    // Scale to cover the target box, then center-crop; white background since jpg has no alpha
+    private static BufferedImage coverResize(BufferedImage source, int width, int height) {
+        double scale = Math.max((double) width / source.getWidth(), (double) height / source.getHeight());
+        int scaledWidth = (int) Math.ceil(source.getWidth() * scale);
+        int scaledHeight = (int) Math.ceil(source.getHeight() * scale);
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, (width - scaledWidth) / 2, (height - scaledHeight) / 2, scaledWidth, scaledHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,364 @@
+package com.ticketnepal.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Counts MongoDB commands per HTTP request and keeps a report per endpoint.
+ * The sync driver calls listeners on the thread running the command, so the
+ * request's tally lives in a thread-local opened by MongoQueryProfilingFilter.
+ * A request is an N+1 suspect when one command shape (command, collection,
+ * filter fields) repeats repeat-threshold times or more, and over budget past
+ * query-budget commands. Slow commands are logged with their winning plan,
+ * explained on a background thread so the request doesn't pay for it.
+ */
+@Component
+public class MongoQueryProfiler implements CommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoQueryProfiler.class);
+
+    // Driver housekeeping, not application queries
+    private static final Set<String> IGNORED_COMMANDS = Set.of(
+            "hello", "isMaster", "ismaster", "ping", "buildInfo", "buildinfo", "saslStart", "saslContinue",
+            "endSessions", "killCursors", "explain");
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of(
+            "find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+    // Session and cluster fields the driver adds; explain rejects some of them
+    private static final Set<String> SESSION_FIELDS = Set.of(
+            "lsid", "txnNumber", "autocommit", "startTransaction", "readConcern", "writeConcern");
+
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int queryBudget;
+    private final int repeatThreshold;
+    private final long slowCommandNanos;
+    private final boolean explainSlow;
+    private final ThreadPoolExecutor explainExecutor;
+
+    private final ThreadLocal<RequestQueries> currentRequest = new ThreadLocal<>();
+    private final Map<Integer, StartedCommand> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    private record StartedCommand(String shape, String database, BsonDocument explainable) {}
+
+    private static final class RequestQueries {
+        int commands;
+        long nanos;
+        final Map<String, Integer> shapes = new HashMap<>();
+    }
+
+    public MongoQueryProfiler(ObjectProvider<MongoClient> mongoClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${mongo.profiling.enabled:true}") boolean enabled,
+                              @Value("${mongo.profiling.query-budget:10}") int queryBudget,
+                              @Value("${mongo.profiling.repeat-threshold:5}") int repeatThreshold,
+                              @Value("${mongo.profiling.slow-command:100ms}") Duration slowCommand,
+                              @Value("${mongo.profiling.explain-slow:true}") boolean explainSlow) {
+        this.mongoClient = mongoClient;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.queryBudget = queryBudget;
+        this.repeatThreshold = repeatThreshold;
+        this.slowCommandNanos = slowCommand.toNanos();
+        this.explainSlow = explainSlow;
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16),
+                r -> {
+                    Thread t = new Thread(r, "mongo-explain");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdown();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void beginRequest() {
+        currentRequest.set(new RequestQueries());
+    }
+
+    /**
+     * Closes the current request's tally. The endpoint is the matched handler
+     * pattern (null for unmapped paths, which are only kept if they queried).
+     */
+    public void endRequest(String method, String pattern) {
+        RequestQueries request = currentRequest.get();
+        currentRequest.remove();
+        if (request == null || (pattern == null && request.commands == 0)) return;
+
+        String uri = pattern != null ? pattern : "UNKNOWN";
+        DistributionSummary.builder("mongo.request.commands")
+                .description("MongoDB commands run while handling one HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(request.commands);
+
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        request.shapes.forEach((shape, count) -> {
+            if (count >= repeatThreshold) repeated.put(shape, count);
+        });
+        boolean overBudget = request.commands > queryBudget;
+        String endpoint = method + " " + uri;
+        endpoints.computeIfAbsent(endpoint, k -> new EndpointStats())
+                .record(request.commands, request.nanos, overBudget, repeated);
+
+        if (overBudget || !repeated.isEmpty()) {
+            logger.warn("{} ran {} Mongo commands in {} ms (budget {}); repeated: {}",
+                    endpoint, request.commands, TimeUnit.NANOSECONDS.toMillis(request.nanos), queryBudget,
+                    repeated.isEmpty() ? "none" : repeated);
+        }
+    }
+
+    /** Per-endpoint totals, endpoints with the most N+1 suspect requests first. */
+    public Map<String, Object> report() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        endpoints.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, EndpointStats> e) -> e.getValue().suspectRequests())
+                        .thenComparingDouble(e -> e.getValue().averageCommands())
+                        .reversed())
+                .forEach(e -> rows.add(e.getValue().toMap(e.getKey())));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("queryBudget", queryBudget);
+        report.put("repeatThreshold", repeatThreshold);
+        report.put("endpoints", rows);
+        return report;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled || IGNORED_COMMANDS.contains(event.getCommandName())) return;
+        BsonDocument command = event.getCommand();
+        BsonDocument explainable = explainSlow && EXPLAINABLE_COMMANDS.contains(event.getCommandName())
+                ? explainableCopy(command) : null;
+        inFlight.put(event.getRequestId(),
+                new StartedCommand(shapeOf(event.getCommandName(), command), event.getDatabaseName(), explainable));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finished(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finished(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void finished(int requestId, long nanos) {
+        StartedCommand started = inFlight.remove(requestId);
+        if (started == null) return;
+        RequestQueries request = currentRequest.get();
+        if (request != null) {
+            request.commands++;
+            request.nanos += nanos;
+            request.shapes.merge(started.shape(), 1, Integer::sum);
+        }
+        if (nanos >= slowCommandNanos) {
+            logSlow(started, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    private void logSlow(StartedCommand command, long millis) {
+        if (command.explainable() == null) {
+            logger.warn("Slow Mongo command {} took {} ms", command.shape(), millis);
+            return;
+        }
+        try {
+            explainExecutor.execute(() -> logger.warn("Slow Mongo command {} took {} ms; plan: {}",
+                    command.shape(), millis, explain(command)));
+        } catch (RejectedExecutionException e) {
+            // Explain queue is full; still report the command, just without its plan
+            logger.warn("Slow Mongo command {} took {} ms", command.shape(), millis);
+        }
+    }
+
+    private String explain(StartedCommand command) {
+        MongoClient client = mongoClient.getIfAvailable();
+        if (client == null) return "unavailable";
+        try {
+            BsonDocument result = client.getDatabase(command.database()).runCommand(
+                    new BsonDocument("explain", command.explainable()).append("verbosity", new BsonString("queryPlanner")),
+                    BsonDocument.class);
+            return planSummary(result);
+        } catch (MongoException e) {
+            return "explain failed: " + e.getMessage();
+        }
+    }
+
+    /** Winning plan of an explain result as a stage chain, e.g. "FETCH <- IXSCAN(eventId_1)" or "COLLSCAN". */
+    public static String planSummary(BsonDocument explain) {
+        BsonDocument queryPlanner = explain.getDocument("queryPlanner", null);
+        if (queryPlanner == null && explain.isArray("stages") && !explain.getArray("stages").isEmpty()) {
+            // Aggregations wrap the find part of the pipeline in a $cursor stage
+            BsonValue first = explain.getArray("stages").get(0);
+            if (first.isDocument() && first.asDocument().isDocument("$cursor")) {
+                queryPlanner = first.asDocument().getDocument("$cursor").getDocument("queryPlanner", null);
+            }
+        }
+        if (queryPlanner == null || !queryPlanner.isDocument("winningPlan")) return "unknown";
+        BsonDocument plan = queryPlanner.getDocument("winningPlan");
+        if (plan.isDocument("queryPlan")) plan = plan.getDocument("queryPlan"); // slot-based engine
+        List<String> stages = new ArrayList<>();
+        describe(plan, stages);
+        return stages.isEmpty() ? "unknown" : String.join(" <- ", stages);
+    }
+
+    private static void describe(BsonDocument stage, List<String> out) {
+        if (stage.isString("stage")) {
+            String name = stage.getString("stage").getValue();
+            out.add(stage.isString("indexName") ? name + "(" + stage.getString("indexName").getValue() + ")" : name);
+        }
+        if (stage.isDocument("inputStage")) {
+            describe(stage.getDocument("inputStage"), out);
+        } else if (stage.isArray("inputStages")) {
+            for (BsonValue input : stage.getArray("inputStages")) {
+                if (input.isDocument()) describe(input.asDocument(), out);
+            }
+        }
+    }
+
+    // Command, collection and the filter's top-level field names, so lookups that differ only by value group together
+    private static String shapeOf(String commandName, BsonDocument command) {
+        BsonValue target = command.get(commandName);
+        String collection = target != null && target.isString() ? target.asString().getValue() : "";
+        BsonDocument filter = switch (commandName) {
+            case "find", "distinct" -> firstDocument(command, "filter", "query");
+            case "count", "findAndModify" -> firstDocument(command, "query");
+            case "aggregate" -> firstMatchStage(command);
+            case "update", "delete" -> firstStatementFilter(command, commandName + "s");
+            default -> null;
+        };
+        String fields = filter == null ? "" : new TreeSet<>(filter.keySet()).stream().collect(Collectors.joining(",", " {", "}"));
+        return commandName + " " + collection + fields;
+    }
+
+    private static BsonDocument firstDocument(BsonDocument command, String... keys) {
+        for (String key : keys) {
+            if (command.isDocument(key)) return command.getDocument(key);
+        }
+        return null;
+    }
+
+    private static BsonDocument firstMatchStage(BsonDocument command) {
+        if (!command.isArray("pipeline")) return null;
+        BsonArray pipeline = command.getArray("pipeline");
+        if (pipeline.isEmpty() || !pipeline.get(0).isDocument()) return null;
+        return firstDocument(pipeline.get(0).asDocument(), "$match");
+    }
+
+    private static BsonDocument firstStatementFilter(BsonDocument command, String statementsKey) {
+        if (!command.isArray(statementsKey)) return null;
+        BsonArray statements = command.getArray(statementsKey);
+        if (statements.isEmpty() || !statements.get(0).isDocument()) return null;
+        return firstDocument(statements.get(0).asDocument(), "q");
+    }
+
+    // The event's document is only valid during the callback, so keep a detached copy without session fields
+    private static BsonDocument explainableCopy(BsonDocument command) {
+        BsonDocument copy = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.clone().entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith("$") && !SESSION_FIELDS.contains(key)) copy.append(key, entry.getValue());
+        }
+        return copy;
+    }
+
+    private static final class EndpointStats {
+        private long requests;
+        private long commands;
+        private long nanos;
+        private long maxCommands;
+        private long overBudget;
+        private long suspectRequests;
+        // Shape -> [requests where it repeated, most repeats in one request]
+        private final Map<String, long[]> suspects = new HashMap<>();
+
+        synchronized void record(int requestCommands, long requestNanos, boolean overBudgetRequest,
+                                 Map<String, Integer> repeated) {
+            requests++;
+            commands += requestCommands;
+            nanos += requestNanos;
+            maxCommands = Math.max(maxCommands, requestCommands);
+            if (overBudgetRequest) overBudget++;
+            if (!repeated.isEmpty()) suspectRequests++;
+            repeated.forEach((shape, count) -> {
+                long[] suspect = suspects.computeIfAbsent(shape, k -> new long[2]);
+                suspect[0]++;
+                suspect[1] = Math.max(suspect[1], count);
+            });
+        }
+
+        synchronized long suspectRequests() {
+            return suspectRequests;
+        }
+
+        synchronized double averageCommands() {
+            return requests == 0 ? 0 : (double) commands / requests;
+        }
+
+        synchronized Map<String, Object> toMap(String endpoint) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("requests", requests);
+            row.put("avgCommands", Math.round(averageCommands() * 10) / 10.0);
+            row.put("maxCommands", maxCommands);
+            row.put("avgMongoMillis", requests == 0 ? 0 : Math.round(nanos / 1e5 / requests) / 10.0);
+            row.put("overBudget", overBudget);
+            row.put("suspectRequests", suspectRequests);
+            List<Map<String, Object>> shapes = new ArrayList<>();
+            suspects.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                    .forEach(e -> shapes.add(Map.of(
+                            "command", e.getKey(),
+                            "requests", e.getValue()[0],
+                            "maxRepeats", e.getValue()[1])));
+            row.put("suspects", shapes);
+            return row;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.Order;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.repository.EventRepository;
+import com.ticketnepal.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keeps one {@link Order} per booking next to its tickets. A booking's
+ * tickets and order are written in one Mongo transaction, so other requests
+ * see both or neither; with mongo.transactions=false (a standalone mongod)
+ * the order is inserted after the tickets and the tickets are deleted again
+ * if it can't be. Check-ins and edits of the event's scanned fields are
+ * copied onto the order. Transactions booked before orders existed are
+ * rebuilt from their tickets the first time they are looked up.
+ */
+@Service
+public class OrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    // Transactions that hit a write conflict with a concurrent one are run again this many times
+    private static final int TRANSACTION_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final TicketRepository ticketRepository;
+    private final EventRepository eventRepository;
+    private final MeterRegistry meterRegistry;
+    // Null when mongo.transactions is off
+    private final TransactionTemplate transactions;
+
+    public OrderService(MongoTemplate mongoTemplate,
+                        TicketRepository ticketRepository,
+                        EventRepository eventRepository,
+                        MeterRegistry meterRegistry,
+                        ObjectProvider<MongoTransactionManager> transactionManager) {
+        this.mongoTemplate = mongoTemplate;
+        this.ticketRepository = ticketRepository;
+        this.eventRepository = eventRepository;
+        this.meterRegistry = meterRegistry;
+        MongoTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactions = manager == null ? null : new TransactionTemplate(manager);
+    }
+
+    /**
+     * Writes a booking's tickets and its order, and returns the saved tickets.
+     * A seat sold in the meantime fails the booking with DuplicateKeyException
+     * (event_seat_unique), and nothing of it is kept.
+     */
+    public List<Ticket> book(String transactionId, String userId, Event event, List<Ticket> tickets) {
+        if (transactions == null) {
+            return bookWithoutTransaction(transactionId, userId, event, tickets);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactions.execute(status -> {
+                    List<Ticket> saved = ticketRepository.insert(tickets);
+                    mongoTemplate.insert(build(transactionId, userId, event, saved));
+                    return saved;
+                });
+            } catch (TransientDataAccessException e) {
+                // A concurrent booking wrote one of the seats in its own transaction; by the next
+                // attempt it has committed (a duplicate key) or aborted (the seat is free)
+                if (attempt == TRANSACTION_ATTEMPTS) throw e;
+            }
+        }
+    }
+
+    private List<Ticket> bookWithoutTransaction(String transactionId, String userId, Event event, List<Ticket> tickets) {
+        List<Ticket> saved;
+        try {
+            saved = ticketRepository.insert(tickets);
+        } catch (DuplicateKeyException e) {
+            // The tickets of the other seats were written; release them
+            ticketRepository.deleteByTransactionId(Ticket.transactionKey(transactionId));
+            throw e;
+        }
+        try {
+            create(transactionId, userId, event, saved);
+        } catch (RuntimeException e) {
+            // Gates scan the order; a booking without one is undone rather than left unscannable
+            ticketRepository.deleteAll(saved);
+            throw e;
+        }
+        return saved;
+    }
+
+    private void create(String transactionId, String userId, Event event, List<Ticket> tickets) {
+        Order order = build(transactionId, userId, event, tickets);
+        try {
+            mongoTemplate.insert(order);
+        } catch (DuplicateKeyException e) {
+            // A lookup rebuilt it from the tickets saved so far, before the booking finished; this one is complete
+            forget(transactionId);
+            try {
+                mongoTemplate.insert(order);
+            } catch (DuplicateKeyException again) {
+                // Rebuilt once more after the forget, now from every ticket: as complete as this one
+            }
+        }
+    }
+
+    /**
+     * The order of a transaction, or empty when no tickets carry it. The
+     * order's event is null when the event no longer exists.
+     */
+    public Optional<Order> find(String transactionId) {
+        Order order = mongoTemplate.findById(transactionId, Order.class);
+        if (order != null) {
+            count("order");
+            return Optional.of(order);
+        }
+        List<Ticket> tickets = ticketRepository.findByTransactionId(transactionId);
+        if (tickets.isEmpty()) {
+            count("missing");
+            return Optional.empty();
+        }
+        Event event = eventRepository.findById(tickets.get(0).getEventId()).orElse(null);
+        Order rebuilt = build(transactionId, tickets.get(0).getUserId(), event, tickets);
+        if (event == null) {
+            count("missing");
+            return Optional.of(rebuilt);
+        }
+        count("backfilled");
+        try {
+            return Optional.of(mongoTemplate.insert(rebuilt));
+        } catch (DuplicateKeyException e) {
+            // Another request rebuilt it first
+            return Optional.ofNullable(mongoTemplate.findById(transactionId, Order.class));
+        }
+    }
+
+    /** Copies a ticket's check-in onto its order (a no-op for orders not rebuilt yet). */
+    public void markCheckedIn(Ticket ticket) {
+        if (ticket.getTransactionId() == null) return;
+        try {
+            Query query = Query.query(where("_id").is(ticket.getTransactionId()).and("items.ticketId").is(ticket.getId()));
+            mongoTemplate.updateFirst(query, new Update().set("items.$.checkedIn", ticket.isCheckedIn())
+                    .currentDate("updatedAt"), Order.class);
+        } catch (DataAccessException e) {
+            // The ticket is checked in; drop the order so the next lookup rebuilds it from the tickets
+            logger.warn("Could not update order {} after check-in: {}", ticket.getTransactionId(), e.getMessage());
+            forget(ticket.getTransactionId());
+        }
+    }
+
+    private void forget(String transactionId) {
+        try {
+            mongoTemplate.remove(Query.query(where("_id").is(transactionId)), Order.class);
+        } catch (DataAccessException e) {
+            logger.warn("Could not drop stale order {}: {}", transactionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Re-copies the event's scanned fields onto its orders when an edit changed
+     * any of them; {@code before} is null when the old values aren't known.
+     */
+    public void eventChanged(Event before, Event after) {
+        Order.EventInfo info = Order.EventInfo.of(after);
+        if (before != null && Objects.equals(Order.EventInfo.of(before), info)) return;
+        mongoTemplate.updateMulti(Query.query(where("eventId").is(after.getId())),
+                new Update().set("event", info).currentDate("updatedAt"), Order.class);
+    }
+
+    public void deleteByEvent(String eventId) {
+        mongoTemplate.remove(Query.query(where("eventId").is(eventId)), Order.class);
+    }
+
+    private static Order build(String transactionId, String userId, Event event, List<Ticket> tickets) {
+        Order order = new Order();
+        order.setId(transactionId);
+        order.setUserId(userId);
+        order.setEventId(tickets.get(0).getEventId());
+        order.setEvent(event == null ? null : Order.EventInfo.of(event));
+        order.setItems(tickets.stream().map(Order.Item::of).toList());
+        order.setTotal(tickets.stream().mapToDouble(t -> t.getPrice() == null ? 0 : t.getPrice()).sum());
+        order.setCreatedAt(Instant.now());
+        return order;
+    }
+
+    /** source: order (read by id), backfilled (rebuilt from tickets) or missing. */
+    private void count(String source) {
+        meterRegistry.counter("orders.lookups", "source", source).increment();
+    }
+}
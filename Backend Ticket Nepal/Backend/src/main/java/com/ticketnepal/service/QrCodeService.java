@@ -7,6 +7,8 @@ import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel; // <-- Important
 import com.google.zxing.qrcode.QRCodeWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
@@ -14,14 +16,33 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class QrCodeService {
 
+    private final Timer renderTimer;
+
+    public QrCodeService(MeterRegistry meterRegistry) {
+        this.renderTimer = Timer.builder("qr.render")
+                .description("QR code PNG renders")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     public byte[] generateQrCode(String data, int width, int height) throws WriterException, IOException {
         if (data == null || data.isEmpty()) {
             throw new IllegalArgumentException("QR code contents must not be null or empty");
         }
+        long start = System.nanoTime();
+        try {
+            return render(data, width, height);
+        } finally {
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private byte[] render(String data, int width, int height) throws WriterException, IOException {
         QRCodeWriter qrCodeWriter = new QRCodeWriter();
         Map<EncodeHintType, Object> hints = new HashMap<>();
         hints.put(EncodeHintType.MARGIN, 1);
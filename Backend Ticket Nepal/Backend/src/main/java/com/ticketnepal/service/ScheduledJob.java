@@ -0,0 +1,54 @@
+package com.ticketnepal.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Periodic work run by {@link JobScheduler}: once per cron fire across all
+ * instances, not once per instance. A job split into shards has each shard
+ * claimed separately, so several instances can work through it at once.
+ */
+public interface ScheduledJob {
+
+    /** Most shards a job can have: one per hex digit of an ObjectId. */
+    int MAX_SHARDS = 16;
+
+    String name();
+
+    /** Spring cron expression (second minute hour day month weekday), in the server's time zone. */
+    String cron();
+
+    default int shards() {
+        return 1;
+    }
+
+    /** Does this shard's part of the work and returns how many items it processed. */
+    long run(JobContext context) throws Exception;
+
+    interface JobContext {
+        int shard();
+
+        int shards();
+
+        /** Extends this run's lease; false when it ran out and the shard may be running elsewhere, so stop. */
+        boolean renew();
+
+        /**
+         * Documents of this shard, by the last hex digit of their ObjectId _id
+         * (the low bits of its counter, so evenly spread); null for a job with
+         * one shard, which takes everything.
+         */
+        default Criteria idShard() {
+            if (shards() <= 1) return null;
+            List<String> digits = new ArrayList<>();
+            for (int digit = shard(); digit < MAX_SHARDS; digit += shards()) {
+                digits.add(Integer.toHexString(digit));
+            }
+            Document lastDigit = new Document("$substrCP", List.of(new Document("$toString", "$_id"), 23, 1));
+            return Criteria.where("$expr").is(new Document("$in", List.of(lastDigit, digits)));
+        }
+    }
+}
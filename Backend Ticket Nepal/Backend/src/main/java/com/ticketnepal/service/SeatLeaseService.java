@@ -0,0 +1,170 @@
+package com.ticketnepal.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.ticketnepal.model.SeatLease;
+import com.ticketnepal.util.SeatConflicts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Seat leases shared by every backend instance. A booking leases all its
+ * seats in one unordered bulk insert before it checks and writes them;
+ * a seat another booking holds makes the insert fail for that seat, and the
+ * booking gives up the rest, backs off briefly and tries again a few times
+ * before it reports the seat as taken. Leases only keep concurrent bookings
+ * of a seat from all doing the work: one that stalls past
+ * {@code booking.seat-lease} can be taken over, and then the
+ * event_seat_unique index on the tickets decides which of the two writes.
+ * Leases are per seat, so bookings of different seats never touch the same
+ * document.
+ */
+@Service
+public class SeatLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatLeaseService.class);
+
+    public record Leases(String eventId, List<String> seats, String owner, String contendedSeat) {
+        public boolean acquired() { return contendedSeat == null; }
+
+        List<String> ids() {
+            return seats.stream().map(seat -> SeatLease.id(eventId, seat)).toList();
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration duration;
+    private final int retries;
+    private final Duration backoff;
+    private final String instance;
+
+    public SeatLeaseService(MongoTemplate mongoTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${booking.seat-lease:30s}") Duration duration,
+                            @Value("${booking.seat-lease-retries:2}") int retries,
+                            @Value("${booking.seat-lease-backoff:50ms}") Duration backoff,
+                            @Value("${HOSTNAME:}") String hostname) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.duration = duration;
+        this.retries = retries;
+        this.backoff = backoff;
+        this.instance = hostname.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : hostname;
+    }
+
+    /**
+     * Leases every seat for {@code booking}, or none of them when one is held by another booking.
+     *
+     * @param seats distinct seats; a seat listed twice would collide with its own lease
+     */
+    public Leases acquire(String eventId, List<String> seats, String booking) {
+        if (new HashSet<>(seats).size() != seats.size()) {
+            throw new IllegalArgumentException("A seat is listed twice");
+        }
+        String owner = instance + "/" + booking;
+        Date expiresAt = new Date(System.currentTimeMillis() + duration.toMillis());
+        List<SeatLease> pending = seats.stream()
+                .map(seat -> new SeatLease(eventId, seat, owner, expiresAt))
+                .toList();
+        List<SeatLease> all = pending;
+        for (int retry = 0; ; ) {
+            List<SeatLease> refused = insert(pending);
+            if (refused.isEmpty()) {
+                count("acquired");
+                return new Leases(eventId, seats, owner, null);
+            }
+            // Leases past expiresAt that the TTL monitor (once a minute) hasn't removed yet are free to take
+            if (removeExpired(refused) > 0) {
+                pending = refused;
+                continue;
+            }
+            String seat = SeatConflicts.firstConflict(seats, refused.stream().map(SeatLease::getSeat).toList());
+            Leases contended = new Leases(eventId, seats, owner, seat != null ? seat : seats.get(0));
+            // Give back the seats this booking did get, so two bookings that each got part can't block each other
+            release(contended);
+            if (retry++ == retries || !backOff(retry)) {
+                count("contended");
+                return contended;
+            }
+            count("retried");
+            pending = all;
+        }
+    }
+
+    /**
+     * Gives up the booking's leases; once its tickets are written they hold the seats.
+     * Counts the booking as "lost" when some of them had already expired and been removed
+     * or taken over, which is when event_seat_unique had to settle the seat.
+     */
+    public void release(Leases leases) {
+        try {
+            long released = mongoTemplate.remove(Query.query(where("_id").in(leases.ids())
+                    .and("owner").is(leases.owner())), SeatLease.class).getDeletedCount();
+            if (leases.acquired() && released < leases.seats().size()) {
+                count("lost");
+            }
+        } catch (DataAccessException e) {
+            // They expire on their own
+            logger.warn("Could not release seat leases of {}: {}", leases.owner(), e.getMessage());
+        }
+    }
+
+    /** The leases whose insert hit one already held for the seat. */
+    private List<SeatLease> insert(List<SeatLease> leases) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SeatLease.class).insert(leases).execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            List<SeatLease> refused = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) throw e;
+                refused.add(leases.get(error.getIndex()));
+            }
+            return refused;
+        }
+    }
+
+    // Jittered, so bookings that collided don't collide again
+    private boolean backOff(int retry) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, backoff.toMillis() * retry + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private long removeExpired(List<SeatLease> leases) {
+        List<String> ids = leases.stream().map(SeatLease::getId).toList();
+        return mongoTemplate.remove(Query.query(where("_id").in(ids).and("expiresAt").lte(new Date())),
+                SeatLease.class).getDeletedCount();
+    }
+
+    /**
+     * outcome: acquired, retried (after a collision), contended (a seat stayed held by another booking)
+     * or lost (expired before the booking released it).
+     */
+    private void count(String outcome) {
+        meterRegistry.counter("seat.leases", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ticketnepal.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business metrics for bookings and gate check-ins. Latency per endpoint comes
+ * from http.server.requests; these add the outcomes behind the status codes.
+ */
+@Component
+public class TicketMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public TicketMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample startBooking() {
+        return Timer.start(meterRegistry);
+    }
+
+    /** outcome: success, conflict (seat taken), invalid (bad request) or error. */
+    public void bookingFinished(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("tickets.booking")
+                .description("Ticket booking requests by outcome")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // Untagged: per-event counts are in Mongo, and an eventId tag would add series for every event ever sold
+    public void seatsSold(int seats) {
+        Counter.builder("tickets.seats.sold")
+                .register(meterRegistry)
+                .increment(seats);
+    }
+
+    // outcome: success, repeat, conflict (another gate saved first), forbidden or not_found.
+    // Not tagged by the scanning account, which would add series for every staff member
+    public void checkIn(String outcome) {
+        Counter.builder("tickets.checkins")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -2,7 +2,12 @@ package com.ticketnepal.service;
 
 import com.ticketnepal.model.User;
 import com.ticketnepal.repository.UserRepository;
+import com.ticketnepal.security.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -17,8 +22,14 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Expects user.getPassword() to already hold the hash from PasswordHashingService
     public User registerUser(User user, String role) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
         // Standardize role casing
         String formattedRole;
         switch (role.toUpperCase()) {
@@ -52,6 +63,7 @@ public class UserService {
         user.setVerified(true);
         user.setVerificationToken(null);
         userRepository.save(user);
+        userCache.evict(user.getEmail());
     }
 
     public Optional<User> findByEmail(String email) {
@@ -64,6 +76,18 @@ public class UserService {
         if (user.getPassword() != null && !user.getPassword().startsWith("$2a$")) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Password or role may have changed; drop any cached copy
+        userCache.evict(saved.getEmail());
+        return saved;
+    }
+
+    // Replace only the password hash, e.g. after a transparent rehash at a new BCrypt cost
+    public void updatePasswordHash(User user, String passwordHash) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(user.getId())),
+                Update.update("password", passwordHash),
+                User.class);
+        userCache.evict(user.getEmail());
     }
 }
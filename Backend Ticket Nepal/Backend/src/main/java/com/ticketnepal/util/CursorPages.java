@@ -0,0 +1,37 @@
+package com.ticketnepal.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Cursor-paginated list responses. The body stays a plain JSON array; the
+ * next page is advertised as an RFC 8288 Link header (rel="next") and as
+ * X-Next-Cursor, and is absent on the last page.
+ */
+public final class CursorPages {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private CursorPages() {}
+
+    /** total is only sent when known (the first page); pass null otherwise. */
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> items, String nextCursor, Long total) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor)
+                    .build()
+                    .toUriString();
+            builder.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                    .header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        if (total != null) {
+            builder.header(TOTAL_COUNT_HEADER, String.valueOf(total));
+        }
+        return builder.body(items);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ticketnepal.util;
+
+import com.ticketnepal.model.Versioned;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * ETag and Last-Modified values derived from document versions, so a
+ * validator can be computed (and compared) without serializing the body.
+ * A single document's tag is "&lt;version&gt;.&lt;last write&gt;": the version moves
+ * on edits, the write time also on counter updates ($inc of an event's
+ * income) that must refresh caches but shouldn't fail an edit's If-Match.
+ * A response built from several documents gets a checksum of theirs. Tags
+ * are weak: they name a version of the data, not exact bytes, and Tomcat
+ * won't gzip a response that carries a strong tag.
+ */
+public final class EntityTags {
+
+    private EntityTags() {}
+
+    public static String etag(Versioned document) {
+        return "W/\"" + stamp(document) + "\"";
+    }
+
+    public static String etag(Collection<? extends Versioned> documents) {
+        if (documents.size() == 1) return etag(documents.iterator().next());
+        CRC32 crc = new CRC32();
+        for (Versioned document : documents) {
+            crc.update((document.getId() + ":" + stamp(document) + ";").getBytes(StandardCharsets.UTF_8));
+        }
+        return "W/\"" + Long.toHexString(crc.getValue()) + "-" + documents.size() + "\"";
+    }
+
+    /** Latest write among the documents in epoch millis, or -1 when unknown. */
+    public static long lastModified(Collection<? extends Versioned> documents) {
+        long latest = -1;
+        for (Versioned document : documents) {
+            latest = Math.max(latest, lastModified(document));
+        }
+        return latest;
+    }
+
+    // Documents written before updatedAt existed fall back to their creation time
+    public static long lastModified(Versioned document) {
+        Instant updatedAt = document.getUpdatedAt();
+        if (updatedAt != null) return updatedAt.toEpochMilli();
+        String id = document.getId();
+        return id != null && ObjectId.isValid(id) ? new ObjectId(id).getDate().getTime() : -1;
+    }
+
+    /**
+     * Whether an If-Match header allows writing the document: absent, "*", or
+     * listing a tag of its current version. Only the version is compared, so
+     * bookings landing while an organizer edits don't fail the edit.
+     */
+    public static boolean ifMatch(String header, Versioned document) {
+        if (header == null || header.isBlank()) return true;
+        String current = String.valueOf(versionOf(document));
+        for (String tag : List.of(header.split(","))) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || versionPart(candidate).equals(current)) return true;
+        }
+        return false;
+    }
+
+    // W/"12.lx3k9q" -> 12; tags issued before the write time was added are just the version
+    private static String versionPart(String tag) {
+        String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+        if (opaque.length() >= 2 && opaque.startsWith("\"") && opaque.endsWith("\"")) {
+            opaque = opaque.substring(1, opaque.length() - 1);
+        }
+        int dot = opaque.indexOf('.');
+        return dot < 0 ? opaque : opaque.substring(0, dot);
+    }
+
+    private static String stamp(Versioned document) {
+        long modified = lastModified(document);
+        return modified < 0 ? String.valueOf(versionOf(document))
+                : versionOf(document) + "." + Long.toString(modified, 36);
+    }
+
+    private static long versionOf(Versioned document) {
+        return document.getVersion() == null ? 0 : document.getVersion();
+    }
+}
@@ -0,0 +1,95 @@
+package com.ticketnepal.util;
+
+import com.ticketnepal.model.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Event search filters and date parsing shared by EventController and the
+ * benchmarks module. Pure functions over already-loaded events.
+ */
+public final class EventFilters {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventFilters.class);
+
+    private EventFilters() {}
+
+    /**
+     * Applies the public event search: exact category ("all" = any), case-insensitive
+     * substring match on location/name/organizer, eventStart (yyyy-MM-dd) within the
+     * event's date range, and hides deleted events and ones that ended over a day ago.
+     */
+    public static List<Event> filter(List<Event> events, String category, String location, String name,
+                                     String organizer, String eventStart, LocalDateTime now) {
+        boolean byCategory = category != null && !category.trim().isEmpty() && !"all".equals(category);
+        // Lower-case the search terms once instead of per event
+        String locationTerm = lowerOrNull(location);
+        String nameTerm = lowerOrNull(name);
+        String organizerTerm = lowerOrNull(organizer);
+        boolean byDate = eventStart != null && !eventStart.isEmpty();
+
+        List<Event> result = new ArrayList<>();
+        for (Event e : events) {
+            if (Boolean.TRUE.equals(e.getDeleted())) continue;
+            if (byCategory && !category.equals(e.getCategory())) continue;
+            if (locationTerm != null && !containsIgnoreCase(e.getLocation(), locationTerm)) continue;
+            if (nameTerm != null && !containsIgnoreCase(e.getName(), nameTerm)) continue;
+            if (organizerTerm != null && !containsIgnoreCase(e.getOrganizer(), organizerTerm)) continue;
+            if (byDate && !coversDate(e, eventStart)) continue;
+            if (endedMoreThanADayAgo(e, now)) continue;
+            result.add(e);
+        }
+        return result;
+    }
+
+    // Flexible parser: supports ISO_LOCAL_DATE_TIME and ISO_OFFSET_DATE_TIME (with 'Z' or timezone)
+    public static LocalDateTime parseToLocalDateTime(String value) {
+        if (value == null) throw new DateTimeParseException("null", "", 0);
+        try {
+            // First try without offset
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            // Fallback to offset format
+            OffsetDateTime odt = OffsetDateTime.parse(value);
+            return odt.toLocalDateTime();
+        }
+    }
+
+    // Selected date (yyyy-MM-dd) falls within the event's date range, inclusive
+    private static boolean coversDate(Event e, String date) {
+        if (e.getEventStart() == null || e.getEventEnd() == null) return false;
+        String startDate = datePart(e.getEventStart());
+        String endDate = datePart(e.getEventEnd());
+        return date.compareTo(startDate) >= 0 && date.compareTo(endDate) <= 0;
+    }
+
+    private static boolean endedMoreThanADayAgo(Event e, LocalDateTime now) {
+        if (e.getEventEnd() == null) return false;
+        try {
+            return !now.isBefore(parseToLocalDateTime(e.getEventEnd()).plusDays(1));
+        } catch (Exception ex) {
+            logger.warn("Failed to parse eventEnd for event: {}", e.getId());
+            return false;
+        }
+    }
+
+    private static String datePart(String dateTime) {
+        int t = dateTime.indexOf('T');
+        return t >= 0 ? dateTime.substring(0, t) : dateTime;
+    }
+
+    private static String lowerOrNull(String term) {
+        return term == null || term.isEmpty() ? null : term.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean containsIgnoreCase(String value, String lowerTerm) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerTerm);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ticketnepal.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes one JSON document per line (application/x-ndjson) through a single
+ * generator. Output is flushed every few hundred lines so the client sees
+ * progress and the servlet buffer never holds more than a batch. Closing
+ * flushes but leaves the underlying stream open for the container.
+ */
+public class NdjsonWriter implements Closeable {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final JsonGenerator generator;
+    private long written;
+
+    public NdjsonWriter(ObjectMapper mapper, OutputStream out) throws IOException {
+        this.generator = mapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(new SerializedString(""));
+    }
+
+    public void write(Object document) throws IOException {
+        generator.writeObject(document);
+        generator.writeRaw('\n');
+        if (++written % FLUSH_EVERY == 0) {
+            generator.flush();
+        }
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
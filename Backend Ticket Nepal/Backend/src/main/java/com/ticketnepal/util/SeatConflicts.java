@@ -0,0 +1,22 @@
+package com.ticketnepal.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** Double-booking check for a seat selection against the seats already taken. */
+public final class SeatConflicts {
+
+    private SeatConflicts() {}
+
+    /** First requested seat (in request order) that is already reserved, or null if all are free. */
+    public static String firstConflict(List<String> requested, Collection<String> reserved) {
+        if (reserved.isEmpty()) return null;
+        Set<String> taken = reserved instanceof Set<String> set ? set : new HashSet<>(reserved);
+        for (String seat : requested) {
+            if (taken.contains(seat)) return seat;
+        }
+        return null;
+    }
+}
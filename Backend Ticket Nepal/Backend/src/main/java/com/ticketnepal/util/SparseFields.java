@@ -0,0 +1,35 @@
+package com.ticketnepal.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Parses the fields= parameter of listing endpoints (sparse fieldsets):
+ * a comma-separated subset of the listing's fields. The id is always kept
+ * so clients can link to the detail endpoint.
+ */
+public final class SparseFields {
+
+    private SparseFields() {}
+
+    /** All allowed fields when the parameter is absent or blank; unknown names are a 400. */
+    public static Set<String> parse(String fields, Collection<String> allowed) {
+        if (fields == null || fields.isBlank()) return new LinkedHashSet<>(allowed);
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!allowed.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field '" + name + "'; allowed: " + String.join(",", allowed));
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+}
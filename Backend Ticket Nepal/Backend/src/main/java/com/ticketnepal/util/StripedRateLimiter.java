@@ -0,0 +1,133 @@
+package com.ticketnepal.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets keyed by an arbitrary string (policy + client), spread over a
+ * fixed number of lock stripes so concurrent requests for different clients
+ * rarely contend. Each stripe is an access-ordered map capped at
+ * {@code maxKeys / stripes} entries; the least recently used bucket is dropped
+ * first. A dropped bucket is recreated full, so eviction only ever errs on the
+ * side of letting a request through.
+ */
+public class StripedRateLimiter {
+
+    /**
+     * {@code burst} requests at once, refilled at {@code perMinute} tokens per minute.
+     */
+    public record Policy(String name, int burst, int perMinute) {
+        public Policy {
+            if (burst < 1 || perMinute < 1) {
+                throw new IllegalArgumentException("Rate limit " + name + " needs burst and perMinute >= 1");
+            }
+        }
+
+        long nanosPerToken() {
+            return TimeUnit.MINUTES.toNanos(1) / perMinute;
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        final ReentrantLock lock = new ReentrantLock();
+        final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public StripedRateLimiter(int stripes, int maxKeys) {
+        // Round up to a power of two so the stripe index is a mask
+        int n = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[n];
+        this.mask = n - 1;
+        int perStripe = Math.max(1, maxKeys / n);
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Takes one token for {@code key}. Returns 0 when the request may proceed,
+     * otherwise the nanoseconds until the next token is available.
+     */
+    public long tryAcquire(Policy policy, String key) {
+        return tryAcquire(policy, key, System.nanoTime());
+    }
+
+    long tryAcquire(Policy policy, String key, long now) {
+        String bucketKey = policy.name() + '|' + key;
+        Stripe stripe = stripes[spread(bucketKey.hashCode()) & mask];
+        long nanosPerToken = policy.nanosPerToken();
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.get(bucketKey);
+            if (bucket == null) {
+                bucket = new Bucket();
+                bucket.tokens = policy.burst();
+                bucket.refilledAt = now;
+                stripe.put(bucketKey, bucket);
+            } else if (now > bucket.refilledAt) {
+                double refill = (double) (now - bucket.refilledAt) / nanosPerToken;
+                bucket.tokens = Math.min(policy.burst(), bucket.tokens + refill);
+                bucket.refilledAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) * nanosPerToken);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Number of buckets currently held, across all stripes. */
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                total += stripe.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Client address behind {@code trustedProxies} reverse proxies: each proxy
+     * appends the peer it saw to X-Forwarded-For, so the entry that many places
+     * from the end is the first one a client can't forge.
+     */
+    public static String clientAddress(String forwardedFor, String remoteAddr, int trustedProxies) {
+        if (trustedProxies <= 0 || forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        String client = hops[Math.max(0, hops.length - trustedProxies)].trim();
+        return client.isEmpty() ? remoteAddr : client;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ticketnepal.config;
+
+import com.ticketnepal.MemoryMongo;
+import com.ticketnepal.model.Ticket;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class TicketSchemaMigrationTest {
+
+    private MemoryMongo mongo;
+    private MongoTemplate template;
+
+    @BeforeEach
+    void startMongo() {
+        mongo = new MemoryMongo();
+        template = mongo.template();
+    }
+
+    @AfterEach
+    void stopMongo() {
+        mongo.close();
+    }
+
+    @Test
+    void convertsLegacyTicketsInPlace() {
+        String transactionId = UUID.randomUUID().toString();
+        template.indexOps("tickets").createIndex(new Index().named("eventId_1_seat_1")
+                .on("eventId", Sort.Direction.ASC).on("seat", Sort.Direction.ASC).unique());
+        template.insert(new Document("_id", "t1")
+                .append("eventId", "e1").append("userId", "u1").append("userName", "Ann")
+                .append("seat", "A1").append("checkedIn", true).append("price", 1500.0)
+                .append("transactionId", transactionId).append("qrCodeHint", transactionId)
+                .append("qrCodeUrl", "/api/tickets/qr/transaction/" + transactionId)
+                .append("version", 3L).append("_class", Ticket.class.getName()), "tickets");
+        // Issued before transactionIds were UUIDs
+        template.insert(new Document("_id", "t2")
+                .append("eventId", "e1").append("userId", "u1").append("seat", "A2")
+                .append("transactionId", "TXN-42").append("version", 0L), "tickets");
+        // Already compact, but written while _class was still stored
+        template.insert(new Document("_id", "t3")
+                .append(Ticket.Fields.EVENT_ID, "e2").append(Ticket.Fields.SEAT, "B1")
+                .append(Ticket.Fields.VERSION, 1L).append("_class", Ticket.class.getName()), "tickets");
+
+        migration().afterSingletonsInstantiated();
+
+        Document converted = template.findById("t1", Document.class, "tickets");
+        assertThat(converted.keySet()).containsExactlyInAnyOrder("_id",
+                Ticket.Fields.EVENT_ID, Ticket.Fields.USER_ID, Ticket.Fields.SEAT, Ticket.Fields.CHECKED_IN,
+                Ticket.Fields.PRICE, Ticket.Fields.TRANSACTION_ID, Ticket.Fields.VERSION);
+        assertThat(converted.get(Ticket.Fields.TRANSACTION_ID)).isEqualTo(UUID.fromString(transactionId));
+
+        Ticket ticket = template.findById("t1", Ticket.class);
+        assertThat(ticket.getEventId()).isEqualTo("e1");
+        assertThat(ticket.getSeat()).isEqualTo("A1");
+        assertThat(ticket.isCheckedIn()).isTrue();
+        assertThat(ticket.getVersion()).isEqualTo(3L);
+        assertThat(ticket.getQrCodeHint()).isEqualTo(transactionId);
+
+        List<Ticket> legacyId = template.find(Query.query(where("transactionId").is(Ticket.transactionKey("TXN-42"))),
+                Ticket.class);
+        assertThat(legacyId).extracting(Ticket::getId).containsExactly("t2");
+
+        assertThat(template.count(Query.query(where("eventId").exists(true)), "tickets")).isZero();
+        assertThat(template.count(Query.query(where("_class").exists(true)), "tickets")).isZero();
+        assertThat(template.indexOps("tickets").getIndexInfo()).extracting(IndexInfo::getName)
+                .doesNotContain("eventId_1_seat_1");
+    }
+
+    @Test
+    void rerunIsANoOp() {
+        template.insert(new Document("_id", "t1").append("eventId", "e1").append("seat", "A1")
+                .append("transactionId", UUID.randomUUID().toString()).append("version", 2L), "tickets");
+        migration().afterSingletonsInstantiated();
+        Document once = template.findById("t1", Document.class, "tickets");
+
+        migration().afterSingletonsInstantiated();
+
+        assertThat(template.findById("t1", Document.class, "tickets")).isEqualTo(once);
+    }
+
+    @Test
+    void ticketsAreWrittenWithoutTypeKey() {
+        Ticket ticket = new Ticket();
+        ticket.setEventId("e1");
+        ticket.setSeat("A1");
+        ticket.setTransactionId(UUID.randomUUID().toString());
+        template.insert(ticket);
+
+        assertThat(template.findById(ticket.getId(), Document.class, "tickets").keySet())
+                .doesNotContain("_class")
+                .contains(Ticket.Fields.EVENT_ID, Ticket.Fields.SEAT, Ticket.Fields.TRANSACTION_ID);
+    }
+
+    private TicketSchemaMigration migration() {
+        TicketSchemaMigration migration = new TicketSchemaMigration();
+        ReflectionTestUtils.setField(migration, "mongoTemplate", template);
+        ReflectionTestUtils.setField(migration, "createIndexes", false);
+        return migration;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ticketnepal.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeatMapTest {
+
+    @Test
+    void fromLabelsMergesRunsPerRow() {
+        SeatMap seatMap = SeatMap.fromLabels(List.of("A3", "A1", "A2", " B1 ", "A5", "BOX", "A2", "", "A01"));
+
+        assertThat(seatMap.getBlocks()).containsExactly(
+                new SeatMap.Block(null, "A", 1, 3, null),
+                new SeatMap.Block(null, "A", 5, 5, null),
+                new SeatMap.Block(null, "B", 1, 1, null),
+                SeatMap.Block.single(null, "BOX", null),
+                SeatMap.Block.single(null, "A01", null));
+        assertThat(seatMap.size()).isEqualTo(7);
+        assertThat(seatMap.labels()).containsExactly("A1", "A2", "A3", "A5", "B1", "BOX", "A01");
+    }
+
+    @Test
+    void indexOfAndLabelRoundTrip() {
+        SeatMap seatMap = new SeatMap(List.of(
+                new SeatMap.Block("VIP", "A", 1, 10, null),
+                new SeatMap.Block(null, "A", 1, 5, null),
+                SeatMap.Block.single(null, "BOX", null),
+                new SeatMap.Block(null, "A", 20, 21, null)), List.of());
+        seatMap.validate();
+
+        for (int seat = 0; seat < seatMap.size(); seat++) {
+            assertThat(seatMap.indexOf(seatMap.label(seat))).isEqualTo(seat);
+        }
+        assertThat(seatMap.indexOf("VIP-A10")).isEqualTo(9);
+        assertThat(seatMap.indexOf("A1")).isEqualTo(10);
+        assertThat(seatMap.indexOf("BOX")).isEqualTo(15);
+        assertThat(seatMap.indexOf("A21")).isEqualTo(17);
+        assertThat(seatMap.indexOf("A6")).isEqualTo(-1);
+        assertThat(seatMap.indexOf("A01")).isEqualTo(-1);
+        assertThat(seatMap.indexOf("C1")).isEqualTo(-1);
+        assertThat(seatMap.indexOf(null)).isEqualTo(-1);
+        assertThatThrownBy(() -> seatMap.label(18)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void priceOfUsesTheBlockTier() {
+        SeatMap seatMap = new SeatMap(List.of(
+                new SeatMap.Block(null, "A", 1, 5, "VIP"),
+                new SeatMap.Block(null, "B", 1, 5, null)), List.of(new SeatMap.Tier("VIP", 2500)));
+        seatMap.validate();
+
+        assertThat(seatMap.priceOf("A3", 1000)).isEqualTo(2500);
+        assertThat(seatMap.priceOf("B3", 1000)).isEqualTo(1000);
+        assertThat(seatMap.priceOf("Z9", 1000)).isEqualTo(1000);
+    }
+
+    @Test
+    void largestSeatNumbersStayFindable() {
+        SeatMap seatMap = new SeatMap(List.of(
+                new SeatMap.Block(null, "A", SeatMap.MAX_SEAT_NUMBER - 1, SeatMap.MAX_SEAT_NUMBER, null)), List.of());
+        seatMap.validate();
+
+        assertThat(seatMap.size()).isEqualTo(2);
+        assertThat(seatMap.contains(seatMap.label(0))).isTrue();
+        assertThat(seatMap.indexOf("A" + SeatMap.MAX_SEAT_NUMBER)).isEqualTo(1);
+    }
+
+    @Test
+    void validateRejectsBadBlocks() {
+        assertInvalid(new SeatMap(List.of(new SeatMap.Block(null, "A", 0, Integer.MAX_VALUE, null)), List.of()),
+                "go above");
+        assertInvalid(new SeatMap(List.of(new SeatMap.Block(null, "A", 1_000_000_000, 1_000_000_001, null)), List.of()),
+                "go above");
+        assertInvalid(new SeatMap(List.of(new SeatMap.Block(null, "A", 0, SeatMap.MAX_SEATS, null)), List.of()),
+                "at most");
+        assertInvalid(new SeatMap(List.of(new SeatMap.Block(null, "A", 5, 1, null)), List.of()),
+                "ends before it starts");
+        assertInvalid(new SeatMap(List.of(new SeatMap.Block(null, " ", 1, 2, null)), List.of()),
+                "needs a row");
+        assertInvalid(new SeatMap(List.of(new SeatMap.Block(null, "A", 1, 2, "VIP")), List.of()),
+                "unknown tier");
+        assertInvalid(new SeatMap(List.of(
+                new SeatMap.Block(null, "A", 1, 5, null),
+                new SeatMap.Block(null, "A", 5, 9, null)), List.of()), "listed twice");
+        assertInvalid(new SeatMap(List.of(
+                new SeatMap.Block(null, "A", 1, 5, null),
+                SeatMap.Block.single(null, "A3", null)), List.of()), "listed twice");
+    }
+
+    private static void assertInvalid(SeatMap seatMap, String message) {
+        assertThatThrownBy(seatMap::validate)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(message);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ticketnepal.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private final String current = secret();
+    private final String retired = secret();
+    private final String older = secret();
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", current);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "activeKeyId", "k3");
+        ReflectionTestUtils.setField(jwtUtil, "previousKeys", "k2:" + retired + ", k1:" + older);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 100L);
+        jwtUtil.init();
+    }
+
+    @Test
+    void issuedTokenVerifies() {
+        String token = jwtUtil.generateToken("u1", "a@example.com", "USER");
+
+        assertThat(jwtUtil.getUserIdFromToken(token)).isEqualTo("u1");
+        assertThat(jwtUtil.getRoleFromToken(token)).isEqualTo("USER");
+    }
+
+    @Test
+    void tokenWithARetiredKidVerifies() {
+        assertThat(jwtUtil.validateToken(token(retired).setHeaderParam(JwsHeader.KEY_ID, "k2").compact())).isTrue();
+    }
+
+    @Test
+    void kidlessTokenVerifiesWithTheCurrentOrAnyRetiredKey() {
+        assertThat(jwtUtil.validateToken(token(current).compact())).isTrue();
+        assertThat(jwtUtil.validateToken(token(retired).compact())).isTrue();
+        assertThat(jwtUtil.getUserIdFromToken(token(older).compact())).isEqualTo("u1");
+    }
+
+    @Test
+    void kidlessTokenFromAnUnknownKeyIsRejected() {
+        assertThat(jwtUtil.validateToken(token(secret()).compact())).isFalse();
+    }
+
+    @Test
+    void tokenWithAKidIsOnlyCheckedAgainstThatKey() {
+        // Signed with a key the server knows, but not the one its kid names
+        assertThat(jwtUtil.validateToken(token(retired).setHeaderParam(JwsHeader.KEY_ID, "k3").compact())).isFalse();
+        assertThat(jwtUtil.validateToken(token(current).setHeaderParam(JwsHeader.KEY_ID, "k9").compact())).isFalse();
+    }
+
+    @Test
+    void expiredKidlessTokenIsRejected() {
+        String token = token(retired).setExpiration(new Date(System.currentTimeMillis() - 1000)).compact();
+
+        assertThat(jwtUtil.validateToken(token)).isFalse();
+    }
+
+    private static JwtBuilder token(String secret) {
+        return Jwts.builder()
+                .setSubject("a@example.com")
+                .claim("id", "u1")
+                .claim("role", "USER")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)));
+    }
+
+    private static String secret() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,212 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.MemoryMongo;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.model.User;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdminListingServiceTest {
+
+    private MemoryMongo mongo;
+    private AdminListingService listings;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new MemoryMongo();
+        listings = new AdminListingService();
+        ReflectionTestUtils.setField(listings, "mongoTemplate", mongo.template());
+    }
+
+    @AfterEach
+    void stopMongo() {
+        mongo.close();
+    }
+
+    @Test
+    void cursorWalksEveryTicketOnceInIdOrder() {
+        List<String> ids = insertTickets("e1", 7).stream().map(Ticket::getId).toList();
+        Criteria all = listings.ticketCriteria(null, null, null, null);
+
+        List<String> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            AdminListingService.Slice<Ticket> page = listings.ticketPage(all, cursor, 3);
+            page.items().forEach(ticket -> seen.add(ticket.getId()));
+            pageSizes.add(page.items().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThat(pageSizes).containsExactly(3, 3, 1);
+        assertThat(listings.count(all, Ticket.class)).isEqualTo(7);
+    }
+
+    @Test
+    void fullLastPageHasNoNextCursor() {
+        insertTickets("e1", 3);
+
+        AdminListingService.Slice<Ticket> page = listings.ticketPage(new Criteria(), null, 3);
+
+        assertThat(page.items()).hasSize(3);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void ticketsInsertedBehindTheCursorDoNotShiftLaterPages() {
+        List<Ticket> first = insertTickets("e1", 4);
+        AdminListingService.Slice<Ticket> page = listings.ticketPage(new Criteria(), null, 2);
+
+        // A new ticket sorts after everything already there, so it lands on a later page, not this one
+        Ticket late = insertTickets("e1", 1).get(0);
+        AdminListingService.Slice<Ticket> next = listings.ticketPage(new Criteria(), page.nextCursor(), 2);
+
+        assertThat(next.items()).extracting(Ticket::getId).containsExactly(first.get(2).getId(), first.get(3).getId());
+        assertThat(listings.ticketPage(new Criteria(), next.nextCursor(), 2).items())
+                .extracting(Ticket::getId).containsExactly(late.getId());
+    }
+
+    @Test
+    void filtersCombineWithTheCursor() {
+        insertTickets("e1", 3);
+        List<Ticket> e2 = insertTickets("e2", 3);
+        Criteria criteria = listings.ticketCriteria("e2", null, null, null);
+
+        AdminListingService.Slice<Ticket> page = listings.ticketPage(criteria, null, 2);
+        AdminListingService.Slice<Ticket> rest = listings.ticketPage(criteria, page.nextCursor(), 2);
+
+        assertThat(page.items()).extracting(Ticket::getEventId).containsOnly("e2");
+        assertThat(rest.items()).extracting(Ticket::getId).containsExactly(e2.get(2).getId());
+        assertThat(listings.count(criteria, Ticket.class)).isEqualTo(3);
+    }
+
+    @Test
+    void limitIsClampedToOneThroughTheMaximum() {
+        insertTickets("e1", 2);
+
+        assertThat(listings.ticketPage(new Criteria(), null, 0).items()).hasSize(1);
+        assertThat(listings.ticketPage(new Criteria(), null, -5).items()).hasSize(1);
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        assertThatThrownBy(() -> listings.ticketPage(new Criteria(), "page-2", 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> AdminListingService.checkCursor("zz"))
+                .isInstanceOf(ResponseStatusException.class);
+        AdminListingService.checkCursor(null);
+        AdminListingService.checkCursor(new ObjectId().toHexString());
+    }
+
+    @Test
+    void createdRangeSelectsByTheTimeInTheId() {
+        Ticket march1 = insertTicketAt("2026-03-01T08:00:00Z");
+        Ticket march2 = insertTicketAt("2026-03-02T23:59:59Z");
+        insertTicketAt("2026-03-03T00:00:00Z");
+
+        // "to" is exclusive; a bare date means the start of that day in UTC
+        Criteria march = listings.ticketCriteria(null, null, "2026-03-01", "2026-03-03");
+        assertThat(listings.ticketPage(march, null, 10).items()).extracting(Ticket::getId)
+                .containsExactly(march1.getId(), march2.getId());
+
+        Criteria fromTime = listings.ticketCriteria(null, null, "2026-03-02T23:59:59", null);
+        assertThat(listings.ticketPage(fromTime, null, 10).items()).hasSize(2);
+
+        Criteria offset = listings.ticketCriteria(null, null, null, "2026-03-02T05:45:00+05:45");
+        assertThat(listings.ticketPage(offset, null, 10).items()).extracting(Ticket::getId)
+                .containsExactly(march1.getId());
+    }
+
+    @Test
+    void datesOutsideTheObjectIdRangeAreClamped() {
+        insertTicketAt("2026-03-01T08:00:00Z");
+
+        Criteria wide = listings.ticketCriteria(null, null, "1900-01-01", "2200-01-01");
+
+        assertThat(listings.ticketPage(wide, null, 10).items()).hasSize(1);
+    }
+
+    @Test
+    void malformedDateIsABadRequest() {
+        assertThatThrownBy(() -> listings.ticketCriteria(null, null, "yesterday", null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("'from'");
+    }
+
+    @Test
+    void streamResumesAfterTheCursor() {
+        List<Ticket> tickets = insertTickets("e1", 5);
+
+        try (Stream<Ticket> stream = listings.streamTickets(new Criteria(), tickets.get(1).getId())) {
+            assertThat(stream.map(Ticket::getId)).containsExactly(
+                    tickets.get(2).getId(), tickets.get(3).getId(), tickets.get(4).getId());
+        }
+    }
+
+    @Test
+    void usersAreListedWithoutSecretsAndRolesMatchInAnyCase() {
+        insertUser("Ram", "organizer");
+        insertUser("Sita", "USER");
+        insertUser("Hari", "ORGANIZER");
+
+        Criteria organizers = listings.userCriteria("Organizer", null, null, null);
+        AdminListingService.Slice<User> page = listings.userPage(organizers, null, 10);
+
+        assertThat(page.items()).extracting(User::getName).containsExactly("Ram", "Hari");
+        assertThat(page.items()).allSatisfy(user -> {
+            assertThat(user.getPassword()).isNull();
+            assertThat(user.getEmail()).isNotNull();
+        });
+    }
+
+    private List<Ticket> insertTickets(String eventId, int count) {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Ticket ticket = ticket(eventId, "A" + i);
+            // Explicit, increasing ids, as the driver would assign them
+            ticket.setId(new ObjectId().toHexString());
+            tickets.add(mongo.template().insert(ticket));
+        }
+        return tickets;
+    }
+
+    private Ticket insertTicketAt(String instant) {
+        Ticket ticket = ticket("e1", instant);
+        ticket.setId(new ObjectId(Date.from(Instant.parse(instant))).toHexString());
+        return mongo.template().insert(ticket);
+    }
+
+    private void insertUser(String name, String role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@example.com");
+        user.setPassword("hash");
+        user.setRole(role);
+        mongo.template().insert(user);
+    }
+
+    private static Ticket ticket(String eventId, String seat) {
+        Ticket ticket = new Ticket();
+        ticket.setEventId(eventId);
+        ticket.setUserId("u1");
+        ticket.setSeat(seat);
+        ticket.setPrice(1000.0);
+        return ticket;
+    }
+}
@@ -0,0 +1,98 @@
+package com.ticketnepal.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailServiceTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final CountDownLatch smtpUp = new CountDownLatch(1);
+    private final AtomicInteger sent = new AtomicInteger();
+    private EmailService emailService;
+
+    // An SMTP server that hangs until smtpUp opens
+    private final JavaMailSenderImpl slowSmtp = new JavaMailSenderImpl() {
+        @Override
+        public void send(SimpleMailMessage... messages) {
+            try {
+                smtpUp.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if ("bounce@example.com".equals(messages[0].getTo()[0])) {
+                throw new MailSendException("550 no such user");
+            }
+            sent.incrementAndGet();
+        }
+    };
+
+    private EmailService emailService(int threads, int queueCapacity) {
+        EmailService service = new EmailService();
+        ReflectionTestUtils.setField(service, "mailSender", slowSmtp);
+        ReflectionTestUtils.setField(service, "meterRegistry", meters);
+        ReflectionTestUtils.setField(service, "senderThreads", threads);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        service.init();
+        return service;
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        smtpUp.countDown();
+        emailService.shutdown();
+    }
+
+    @Test
+    void callerDoesNotWaitForSmtp() throws Exception {
+        emailService = emailService(1, 10);
+
+        long start = System.nanoTime();
+        emailService.sendSimpleMessage("a@example.com", "Tickets", "Seats: A1");
+        emailService.sendQrTicketEmail("b@example.com", "Tickets", "Seats: A2", new byte[]{1}, "qr.png");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(sent).hasValue(0);
+        assertThat(gauge("mail.send.queue")).isEqualTo(1);
+    }
+
+    @Test
+    void fullQueueDropsTheEmailInsteadOfBlocking() {
+        emailService = emailService(1, 1);
+
+        // One on the sender thread, one queued, one too many
+        for (int i = 0; i < 3; i++) {
+            emailService.sendSimpleMessage("user" + i + "@example.com", "Verify", "link");
+        }
+
+        assertThat(meters.get("mail.send.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSendIsCountedNotThrown() throws Exception {
+        emailService = emailService(1, 10);
+
+        emailService.sendSimpleMessage("bounce@example.com", "Verify", "link");
+        emailService.sendSimpleMessage("a@example.com", "Verify", "link");
+        smtpUp.countDown();
+        emailService.shutdown();
+
+        assertThat(sent).hasValue(1);
+        assertThat(meters.get("mail.send").tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(meters.get("mail.send").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    private double gauge(String name) {
+        return meters.get(name).gauge().value();
+    }
+}
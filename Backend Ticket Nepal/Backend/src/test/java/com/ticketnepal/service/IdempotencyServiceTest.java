@@ -0,0 +1,148 @@
+package com.ticketnepal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketnepal.MemoryMongo;
+import com.ticketnepal.model.IdempotencyRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "booking:user-1";
+    private static final String ID = SCOPE + ":key-1";
+    private static final Map<String, Object> REQUEST = Map.of("eventId", "e1", "seats", "A1");
+
+    private MemoryMongo mongo;
+
+    @BeforeEach
+    void startMongo() {
+        mongo = new MemoryMongo();
+    }
+
+    @AfterEach
+    void stopMongo() {
+        mongo.close();
+    }
+
+    private IdempotencyService service(Duration lease, Duration waitTimeout) {
+        return new IdempotencyService(mongo.template(), new ObjectMapper(), new SimpleMeterRegistry(),
+                Duration.ofHours(1), lease, waitTimeout, Duration.ofMillis(20));
+    }
+
+    @Test
+    void retryReplaysTheStoredResponse() throws Exception {
+        IdempotencyService service = service(Duration.ofSeconds(30), Duration.ofSeconds(1));
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<?> first = service.execute(SCOPE, "key-1", REQUEST,
+                () -> ResponseEntity.ok(Map.of("booking", runs.incrementAndGet())));
+        ResponseEntity<?> retry = service.execute(SCOPE, "key-1", REQUEST,
+                () -> ResponseEntity.ok(Map.of("booking", runs.incrementAndGet())));
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.getStatusCode().value()).isEqualTo(200);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody()).isEqualTo("{\"booking\":1}");
+    }
+
+    @Test
+    void requestOutlivingItsLeaseKeepsTheKey() throws Exception {
+        // The original runs four leases long; renewals keep the retry waiting instead of taking over
+        IdempotencyService service = service(Duration.ofMillis(300), Duration.ofSeconds(5));
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<?>> original = CompletableFuture.supplyAsync(() -> call(service, () -> {
+            started.countDown();
+            Thread.sleep(1200);
+            return ResponseEntity.ok(Map.of("booking", runs.incrementAndGet()));
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(500);
+        ResponseEntity<?> retry = call(service, () -> ResponseEntity.ok(Map.of("booking", runs.incrementAndGet())));
+
+        assertThat(original.get(5, TimeUnit.SECONDS).getStatusCode().value()).isEqualTo(200);
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getBody()).isEqualTo("{\"booking\":1}");
+    }
+
+    @Test
+    void displacedOwnerCannotOverwriteTheTakeOver() throws Exception {
+        IdempotencyService service = service(Duration.ofSeconds(30), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<?>> stalled = CompletableFuture.supplyAsync(() -> call(service, () -> {
+            started.countDown();
+            finish.await();
+            return ResponseEntity.ok(Map.of("booking", "stalled"));
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // As if the owner stopped renewing (its instance froze) until the lease ran out
+        mongo.template().updateFirst(Query.query(where("_id").is(ID)),
+                Update.update("lockedUntil", new Date(System.currentTimeMillis() - 1000)), IdempotencyRecord.class);
+
+        // Another instance, so not waiting on the in-process future
+        IdempotencyService other = service(Duration.ofSeconds(30), Duration.ofSeconds(5));
+        ResponseEntity<?> takeOver = call(other, () -> ResponseEntity.ok(Map.of("booking", "takeover")));
+        finish.countDown();
+        stalled.get(5, TimeUnit.SECONDS);
+
+        IdempotencyRecord record = mongo.template().findById(ID, IdempotencyRecord.class);
+        assertThat(takeOver.getBody()).isEqualTo(Map.of("booking", "takeover"));
+        assertThat(record.getStatus()).isEqualTo(IdempotencyRecord.COMPLETED);
+        assertThat(record.getResponseBody()).isEqualTo("{\"booking\":\"takeover\"}");
+    }
+
+    @Test
+    void failedOwnerReleasesOnlyItsOwnClaim() throws Exception {
+        IdempotencyService service = service(Duration.ofSeconds(30), Duration.ofSeconds(5));
+
+        ResponseEntity<?> failed = service.execute(SCOPE, "key-1", REQUEST,
+                () -> ResponseEntity.internalServerError().build());
+        ResponseEntity<?> retried = service.execute(SCOPE, "key-1", REQUEST,
+                () -> ResponseEntity.ok(Map.of("booking", 2)));
+
+        assertThat(failed.getStatusCode().value()).isEqualTo(500);
+        assertThat(retried.getStatusCode().value()).isEqualTo(200);
+        assertThat(mongo.template().findById(ID, IdempotencyRecord.class).getStatus())
+                .isEqualTo(IdempotencyRecord.COMPLETED);
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRefused() throws Exception {
+        IdempotencyService service = service(Duration.ofSeconds(30), Duration.ofSeconds(1));
+        service.execute(SCOPE, "key-1", REQUEST, () -> ResponseEntity.ok(Map.of()));
+
+        ResponseEntity<?> reused = service.execute(SCOPE, "key-1", Map.of("eventId", "e2"),
+                () -> ResponseEntity.ok(Map.of()));
+
+        assertThat(reused.getStatusCode().value()).isEqualTo(422);
+    }
+
+    private static ResponseEntity<?> call(IdempotencyService service,
+                                          Callable<ResponseEntity<?>> action) {
+        try {
+            return service.execute(SCOPE, "key-1", REQUEST, action);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
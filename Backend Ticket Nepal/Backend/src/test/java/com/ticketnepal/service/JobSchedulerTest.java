@@ -0,0 +1,235 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.MemoryMongo;
+import com.ticketnepal.model.JobState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class JobSchedulerTest {
+
+    private static final String ID = JobState.id("cleanup", 0);
+
+    private MemoryMongo mongo;
+    private SimpleMeterRegistry meters;
+
+    @BeforeEach
+    void startMongo() {
+        mongo = new MemoryMongo();
+        meters = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopMongo() {
+        mongo.close();
+    }
+
+    private JobScheduler scheduler(String instance, Duration lease, TestJob job) {
+        JobScheduler scheduler = new JobScheduler(mongo.template(), meters, List.of(job), lease, true, instance);
+        scheduler.register();
+        return scheduler;
+    }
+
+    @Test
+    void registeredJobWaitsForItsFirstFire() {
+        TestJob job = new TestJob();
+        JobScheduler scheduler = scheduler("a", Duration.ofSeconds(30), job);
+
+        scheduler.poll();
+
+        assertThat(job.runs).hasValue(0);
+        assertThat(state().getNextRunAt()).isInTheFuture();
+    }
+
+    @Test
+    void dueShardRunsOnceAcrossInstancesAndMovesToTheNextFire() {
+        TestJob onA = new TestJob();
+        TestJob onB = new TestJob();
+        JobScheduler a = scheduler("a", Duration.ofSeconds(30), onA);
+        JobScheduler b = scheduler("b", Duration.ofSeconds(30), onB);
+        a.trigger("cleanup");
+
+        a.poll();
+        b.poll();
+
+        assertThat(onA.runs.get() + onB.runs.get()).isEqualTo(1);
+        JobState state = state();
+        assertThat(state.getNextRunAt()).isInTheFuture();
+        assertThat(state.getOwner()).isNull();
+        assertThat(state.getLockedUntil()).isNull();
+        assertThat(state.getToken()).isEqualTo(1);
+        assertThat(state.getRuns()).isEqualTo(1);
+        assertThat(state.getLastStatus()).isEqualTo(JobState.SUCCEEDED);
+        assertThat(state.getLastItemsProcessed()).isEqualTo(7);
+        assertThat(runs("succeeded")).isEqualTo(1);
+    }
+
+    @Test
+    void leasedShardIsNotClaimedByAnotherInstance() throws Exception {
+        TestJob blocking = new TestJob();
+        blocking.hold();
+        TestJob onB = new TestJob();
+        JobScheduler a = scheduler("a", Duration.ofSeconds(30), blocking);
+        JobScheduler b = scheduler("b", Duration.ofSeconds(30), onB);
+        a.trigger("cleanup");
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(a::poll);
+        assertThat(blocking.started.await(5, TimeUnit.SECONDS)).isTrue();
+        b.poll();
+        blocking.finish.countDown();
+        running.get(5, TimeUnit.SECONDS);
+
+        assertThat(onB.runs).hasValue(0);
+        assertThat(state().getLastOwner()).isEqualTo("a");
+    }
+
+    @Test
+    void shardLeftByADeadInstanceIsClaimedOnceItsLeaseRunsOut() {
+        TestJob onB = new TestJob();
+        JobScheduler b = scheduler("b", Duration.ofSeconds(30), onB);
+        // Claimed by an instance that then died, with the lease still running
+        mongo.template().updateFirst(Query.query(where("_id").is(ID)), new Update()
+                .set("nextRunAt", new Date(System.currentTimeMillis() - 60_000))
+                .set("owner", "dead")
+                .set("lockedUntil", new Date(System.currentTimeMillis() + 60_000))
+                .set("token", 1L), JobState.class);
+
+        b.poll();
+        assertThat(onB.runs).hasValue(0);
+
+        mongo.template().updateFirst(Query.query(where("_id").is(ID)),
+                Update.update("lockedUntil", new Date(System.currentTimeMillis() - 1000)), JobState.class);
+        b.poll();
+
+        assertThat(onB.runs).hasValue(1);
+        assertThat(state().getToken()).isEqualTo(2);
+        assertThat(state().getLastOwner()).isEqualTo("b");
+    }
+
+    @Test
+    void runThatLostItsLeaseLeavesTheTakeOverRecordAlone() throws Exception {
+        TestJob stalled = new TestJob();
+        stalled.hold();
+        TestJob onB = new TestJob();
+        JobScheduler a = scheduler("a", Duration.ofMillis(300), stalled);
+        JobScheduler b = scheduler("b", Duration.ofSeconds(30), onB);
+        a.trigger("cleanup");
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(a::poll);
+        assertThat(stalled.started.await(5, TimeUnit.SECONDS)).isTrue();
+        // As if "a" froze without renewing until its lease ran out, and the shard was due again
+        mongo.template().updateFirst(Query.query(where("_id").is(ID)), new Update()
+                .set("lockedUntil", new Date(System.currentTimeMillis() - 1000))
+                .set("nextRunAt", new Date(System.currentTimeMillis() - 1000)), JobState.class);
+        b.poll();
+        Thread.sleep(150);
+        stalled.finish.countDown();
+        running.get(5, TimeUnit.SECONDS);
+
+        assertThat(onB.runs).hasValue(1);
+        // The stalled run was told to stop, and its finish did not overwrite b's record
+        assertThat(stalled.renewed).isFalse();
+        JobState state = state();
+        assertThat(state.getLastOwner()).isEqualTo("b");
+        assertThat(state.getRuns()).isEqualTo(1);
+        assertThat(state.getNextRunAt()).isInTheFuture();
+        assertThat(runs("lost")).isEqualTo(1);
+    }
+
+    @Test
+    void triggerDuringARunKeepsTheShardDue() throws Exception {
+        TestJob job = new TestJob();
+        job.hold();
+        JobScheduler a = scheduler("a", Duration.ofSeconds(30), job);
+        a.trigger("cleanup");
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(a::poll);
+        assertThat(job.started.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(5);
+        a.trigger("cleanup");
+        job.finish.countDown();
+        running.get(5, TimeUnit.SECONDS);
+
+        JobState state = state();
+        assertThat(state.getRuns()).isEqualTo(1);
+        assertThat(state.getOwner()).isNull();
+        assertThat(state.getNextRunAt()).isInThePast();
+
+        a.poll();
+        assertThat(job.runs).hasValue(2);
+        assertThat(state().getNextRunAt()).isInTheFuture();
+    }
+
+    @Test
+    void failedRunIsRecordedAndRescheduled() {
+        TestJob job = new TestJob();
+        job.failure = new IllegalStateException("boom");
+        JobScheduler a = scheduler("a", Duration.ofSeconds(30), job);
+        a.trigger("cleanup");
+
+        a.poll();
+
+        JobState state = state();
+        assertThat(state.getLastStatus()).isEqualTo(JobState.FAILED);
+        assertThat(state.getLastError()).isEqualTo("IllegalStateException: boom");
+        assertThat(state.getNextRunAt()).isInTheFuture();
+        assertThat(runs("failed")).isEqualTo(1);
+    }
+
+    private JobState state() {
+        return mongo.template().findById(ID, JobState.class);
+    }
+
+    private double runs(String outcome) {
+        var counter = meters.find("jobs.runs").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static final class TestJob implements ScheduledJob {
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(0);
+        final AtomicBoolean renewed = new AtomicBoolean(true);
+        Exception failure;
+
+        void hold() {
+            finish = new CountDownLatch(1);
+        }
+
+        @Override
+        public String name() {
+            return "cleanup";
+        }
+
+        @Override
+        public String cron() {
+            // Midnight on New Year's Day: never due during a test unless triggered
+            return "0 0 0 1 1 *";
+        }
+
+        @Override
+        public long run(JobContext context) throws Exception {
+            runs.incrementAndGet();
+            started.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            renewed.set(context.renew());
+            if (failure != null) throw failure;
+            return 7;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.MemoryMongo;
+import com.ticketnepal.model.Event;
+import com.ticketnepal.model.Order;
+import com.ticketnepal.model.Ticket;
+import com.ticketnepal.repository.EventRepository;
+import com.ticketnepal.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** The path without transactions; the in-memory server has none. */
+class OrderServiceTest {
+
+    private MemoryMongo mongo;
+    private MongoTemplate template;
+    private TicketRepository ticketRepository;
+    private OrderService orderService;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new MemoryMongo();
+        template = mongo.template();
+        template.indexOps(Ticket.class).createIndex(new Index().named("event_seat_unique")
+                .on(Ticket.Fields.EVENT_ID, Sort.Direction.ASC).on(Ticket.Fields.SEAT, Sort.Direction.ASC).unique());
+        MongoRepositoryFactory repositories = new MongoRepositoryFactory(template);
+        ticketRepository = repositories.getRepository(TicketRepository.class);
+        EventRepository eventRepository = repositories.getRepository(EventRepository.class);
+        orderService = new OrderService(template, ticketRepository, eventRepository, new SimpleMeterRegistry(),
+                new StaticListableBeanFactory().getBeanProvider(MongoTransactionManager.class));
+        event = new Event();
+        event.setName("Concert");
+        event = template.insert(event);
+    }
+
+    @AfterEach
+    void stopMongo() {
+        mongo.close();
+    }
+
+    @Test
+    void bookWritesTicketsAndOrder() {
+        String transactionId = UUID.randomUUID().toString();
+
+        List<Ticket> saved = orderService.book(transactionId, "u1", event, tickets(transactionId, "A1", "A2"));
+
+        assertThat(saved).allSatisfy(ticket -> assertThat(ticket.getId()).isNotNull());
+        Order order = template.findById(transactionId, Order.class);
+        assertThat(order.getItems()).extracting(Order.Item::seat).containsExactly("A1", "A2");
+        assertThat(order.getEvent().name()).isEqualTo("Concert");
+        assertThat(orderService.find(transactionId)).get().extracting(Order::getId).isEqualTo(transactionId);
+    }
+
+    @Test
+    void seatSoldMeanwhileLeavesNothingOfTheBooking() {
+        String first = UUID.randomUUID().toString();
+        orderService.book(first, "u1", event, tickets(first, "A2"));
+        String second = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> orderService.book(second, "u2", event, tickets(second, "A1", "A2", "A3")))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        assertThat(ticketRepository.findByTransactionId(second)).isEmpty();
+        assertThat(template.findById(second, Order.class)).isNull();
+        assertThat(ticketRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void orderRebuiltByALookupIsReplacedWithTheCompleteOne() {
+        String transactionId = UUID.randomUUID().toString();
+        // A lookup that ran while only A1 was written
+        List<Ticket> partial = ticketRepository.insert(tickets(transactionId, "A1"));
+        assertThat(orderService.find(transactionId)).get().extracting(o -> o.getItems().size()).isEqualTo(1);
+        ticketRepository.deleteAll(partial);
+
+        orderService.book(transactionId, "u1", event, tickets(transactionId, "A1", "A2"));
+
+        assertThat(template.findById(transactionId, Order.class).getItems()).hasSize(2);
+        assertThat(template.count(new Query(), Order.class)).isEqualTo(1);
+    }
+
+    private List<Ticket> tickets(String transactionId, String... seats) {
+        return Arrays.stream(seats).map(seat -> {
+            Ticket ticket = new Ticket();
+            ticket.setEventId(event.getId());
+            ticket.setUserId("u1");
+            ticket.setSeat(seat);
+            ticket.setPrice(1000.0);
+            ticket.setTransactionId(transactionId);
+            return ticket;
+        }).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ticketnepal.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService service;
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    private PasswordHashingService service(int strength) {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(strength), new SimpleAsyncTaskExecutor(),
+                new SimpleMeterRegistry(), strength, 1, 4);
+        return service;
+    }
+
+    @Test
+    void hashAtTheConfiguredCostIsKept() throws Exception {
+        PasswordHashingService hashing = service(6);
+        String hash = hashing.encode("secret").get(5, TimeUnit.SECONDS);
+
+        assertThat(hash).startsWith("$2a$06$");
+        assertThat(hashing.matches("secret", hash).get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(hashing.needsRehash(hash)).isFalse();
+    }
+
+    @Test
+    void hashAtALowerCostIsRehashed() {
+        String hash = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(service(6).needsRehash(hash)).isTrue();
+    }
+
+    @Test
+    void hashAtAHigherCostIsRehashedAfterTheStrengthIsLowered() {
+        String hash = new BCryptPasswordEncoder(8).encode("secret");
+
+        assertThat(service(6).needsRehash(hash)).isTrue();
+    }
+
+    @Test
+    void otherBcryptVersionsAreRecognised() {
+        PasswordHashingService hashing = service(10);
+
+        assertThat(hashing.needsRehash("$2b$10$abcdefghijklmnopqrstuu")).isFalse();
+        assertThat(hashing.needsRehash("$2y$12$abcdefghijklmnopqrstuu")).isTrue();
+    }
+
+    @Test
+    void missingOrForeignHashIsLeftAlone() {
+        PasswordHashingService hashing = service(10);
+
+        assertThat(hashing.needsRehash(null)).isFalse();
+        assertThat(hashing.needsRehash("plain-text")).isFalse();
+    }
+}
@@ -0,0 +1,122 @@
+package com.ticketnepal.service;
+
+import com.ticketnepal.MemoryMongo;
+import com.ticketnepal.model.SeatLease;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class SeatLeaseServiceTest {
+
+    private MemoryMongo mongo;
+    private SimpleMeterRegistry meters;
+
+    @BeforeEach
+    void startMongo() {
+        mongo = new MemoryMongo();
+        meters = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopMongo() {
+        mongo.close();
+    }
+
+    private SeatLeaseService service(Duration lease, Duration backoff) {
+        return new SeatLeaseService(mongo.template(), meters, lease, 2, backoff, "node-1");
+    }
+
+    @Test
+    void acquiresAndReleasesEverySeat() {
+        SeatLeaseService service = service(Duration.ofSeconds(30), Duration.ofMillis(10));
+
+        SeatLeaseService.Leases leases = service.acquire("e1", List.of("A1", "A2"), "tx-1");
+
+        assertThat(leases.acquired()).isTrue();
+        assertThat(mongo.template().findAll(SeatLease.class))
+                .extracting(SeatLease::getId, SeatLease::getOwner)
+                .containsExactlyInAnyOrder(
+                        tuple("e1:A1", "node-1/tx-1"),
+                        tuple("e1:A2", "node-1/tx-1"));
+        service.release(leases);
+        assertThat(mongo.template().count(new Query(), SeatLease.class)).isZero();
+        assertThat(count("acquired")).isEqualTo(1);
+        assertThat(count("lost")).isZero();
+    }
+
+    @Test
+    void heldSeatIsContendedAfterRetriesAndNothingIsKept() {
+        SeatLeaseService service = service(Duration.ofSeconds(30), Duration.ofMillis(5));
+        service.acquire("e1", List.of("A2"), "tx-1");
+
+        SeatLeaseService.Leases leases = service.acquire("e1", List.of("A1", "A2", "A3"), "tx-2");
+
+        assertThat(leases.acquired()).isFalse();
+        assertThat(leases.contendedSeat()).isEqualTo("A2");
+        // The seats it did get were given back
+        assertThat(mongo.template().findAll(SeatLease.class)).extracting(SeatLease::getId).containsExactly("e1:A2");
+        assertThat(count("retried")).isEqualTo(2);
+        assertThat(count("contended")).isEqualTo(1);
+    }
+
+    @Test
+    void retryGetsTheSeatOnceTheOtherBookingReleasesIt() throws Exception {
+        SeatLeaseService service = service(Duration.ofSeconds(30), Duration.ofMillis(200));
+        SeatLeaseService.Leases first = service.acquire("e1", List.of("A1"), "tx-1");
+
+        CompletableFuture<SeatLeaseService.Leases> second =
+                CompletableFuture.supplyAsync(() -> service.acquire("e1", List.of("A1"), "tx-2"));
+        Thread.sleep(20);
+        service.release(first);
+
+        assertThat(second.get(5, TimeUnit.SECONDS).acquired()).isTrue();
+        assertThat(mongo.template().findById("e1:A1", SeatLease.class).getOwner()).isEqualTo("node-1/tx-2");
+        assertThat(count("retried")).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverAndItsHolderCountsItLost() {
+        SeatLeaseService service = service(Duration.ofSeconds(30), Duration.ofMillis(5));
+        SeatLeaseService.Leases stalled = service.acquire("e1", List.of("A1"), "tx-1");
+        // Past expiresAt, but not yet removed by the TTL monitor
+        mongo.template().updateFirst(Query.query(where("_id").is("e1:A1")),
+                Update.update("expiresAt", new Date(System.currentTimeMillis() - 1000)), SeatLease.class);
+
+        SeatLeaseService.Leases takeOver = service.acquire("e1", List.of("A1"), "tx-2");
+        service.release(stalled);
+
+        assertThat(takeOver.acquired()).isTrue();
+        assertThat(count("retried")).isZero();
+        // The stalled booking's release leaves the new holder's lease alone
+        assertThat(mongo.template().findById("e1:A1", SeatLease.class).getOwner()).isEqualTo("node-1/tx-2");
+        assertThat(count("lost")).isEqualTo(1);
+    }
+
+    @Test
+    void seatListedTwiceIsRefused() {
+        SeatLeaseService service = service(Duration.ofSeconds(30), Duration.ofMillis(5));
+
+        assertThatThrownBy(() -> service.acquire("e1", List.of("A1", "A1"), "tx-1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(mongo.template().count(new Query(), SeatLease.class)).isZero();
+    }
+
+    private double count(String outcome) {
+        var counter = meters.find("seat.leases").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
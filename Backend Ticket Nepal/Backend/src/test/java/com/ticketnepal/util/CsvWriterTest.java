@@ -0,0 +1,72 @@
+package com.ticketnepal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvWriterTest {
+
+    @Test
+    void startsWithABomAndEndsRowsWithCrlf() throws IOException {
+        assertThat(csv(List.of("seat", "price"), List.of("A1", 1500.0)))
+                .isEqualTo("﻿seat,price\r\nA1,1500.0\r\n");
+    }
+
+    @Test
+    void quotesCellsWithSeparatorsQuotesOrLineBreaks() throws IOException {
+        assertThat(csv(List.of("Ram, Sita", "say \"hi\"", "two\nlines", "cr\rhere")))
+                .isEqualTo("﻿\"Ram, Sita\",\"say \"\"hi\"\"\",\"two\nlines\",\"cr\rhere\"\r\n");
+    }
+
+    @Test
+    void nullIsAnEmptyCell() throws IOException {
+        assertThat(csv(Arrays.asList("a", null, "c"))).isEqualTo("﻿a,,c\r\n");
+    }
+
+    @Test
+    void textThatLooksLikeAFormulaIsDefused() throws IOException {
+        assertThat(csv(List.of("=HYPERLINK(\"x\")", "+1", "-1", "@SUM(A1)", "a=b")))
+                .isEqualTo("﻿\"'=HYPERLINK(\"\"x\"\")\",'+1,'-1,'@SUM(A1),a=b\r\n");
+    }
+
+    @Test
+    void negativeNumbersAreLeftAlone() throws IOException {
+        assertThat(csv(List.of(-1500, true))).isEqualTo("﻿-1500,true\r\n");
+    }
+
+    @Test
+    void nepaliTextIsUtf8() throws IOException {
+        assertThat(csv(List.of("राम"))).isEqualTo("﻿राम\r\n");
+    }
+
+    @Test
+    void closeFlushesButLeavesTheStreamOpen() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new AssertionError("underlying stream closed");
+            }
+        };
+        try (CsvWriter writer = new CsvWriter(out)) {
+            writer.writeRow(List.of("x"));
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("﻿x\r\n");
+    }
+
+    private static String csv(List<?>... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            for (List<?> row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
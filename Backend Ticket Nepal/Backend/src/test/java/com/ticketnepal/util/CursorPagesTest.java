@@ -0,0 +1,62 @@
+package com.ticketnepal.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursorPagesTest {
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void nextPageLinkKeepsTheFiltersAndReplacesTheCursor() {
+        request("/api/admin/tickets", "eventId=e1&cursor=aaa&limit=2");
+
+        ResponseEntity<List<String>> response = CursorPages.toResponse(List.of("x", "y"), "bbb", null);
+
+        assertThat(response.getBody()).containsExactly("x", "y");
+        assertThat(response.getHeaders().getFirst(CursorPages.NEXT_CURSOR_HEADER)).isEqualTo("bbb");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK))
+                .isEqualTo("<http://localhost/api/admin/tickets?eventId=e1&limit=2&cursor=bbb>; rel=\"next\"");
+        assertThat(response.getHeaders().containsKey(CursorPages.TOTAL_COUNT_HEADER)).isFalse();
+    }
+
+    @Test
+    void firstPageCarriesTheTotal() {
+        request("/api/admin/users", null);
+
+        ResponseEntity<List<String>> response = CursorPages.toResponse(List.of("x"), "bbb", 42L);
+
+        assertThat(response.getHeaders().getFirst(CursorPages.TOTAL_COUNT_HEADER)).isEqualTo("42");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK))
+                .isEqualTo("<http://localhost/api/admin/users?cursor=bbb>; rel=\"next\"");
+    }
+
+    @Test
+    void lastPageHasNoNextLink() {
+        request("/api/admin/users", "cursor=aaa");
+
+        ResponseEntity<List<String>> response = CursorPages.toResponse(List.of("x"), null, null);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+        assertThat(response.getHeaders().containsKey(CursorPages.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    private static void request(String path, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setQueryString(query);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
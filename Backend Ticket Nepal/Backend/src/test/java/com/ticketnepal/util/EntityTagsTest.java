@@ -0,0 +1,111 @@
+package com.ticketnepal.util;
+
+import com.ticketnepal.model.Event;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityTagsTest {
+
+    private static final Instant WRITTEN = Instant.parse("2026-03-01T10:15:30Z");
+
+    @Test
+    void tagIsTheVersionAndTheLastWrite() {
+        Event event = event(12L, WRITTEN);
+
+        assertThat(EntityTags.etag(event)).isEqualTo("W/\"12." + Long.toString(WRITTEN.toEpochMilli(), 36) + "\"");
+        assertThat(EntityTags.lastModified(event)).isEqualTo(WRITTEN.toEpochMilli());
+    }
+
+    @Test
+    void documentWithoutUpdatedAtFallsBackToItsIdTime() {
+        Date created = new Date(1_700_000_000_000L);
+        Event event = event(null, null);
+        event.setId(new ObjectId(created).toHexString());
+
+        assertThat(EntityTags.lastModified(event)).isEqualTo(created.getTime());
+        assertThat(EntityTags.etag(event)).startsWith("W/\"0.");
+    }
+
+    @Test
+    void documentWithNoTimeAtAllIsTaggedByVersionOnly() {
+        Event event = event(3L, null);
+        event.setId("not-an-object-id");
+
+        assertThat(EntityTags.lastModified(event)).isEqualTo(-1);
+        assertThat(EntityTags.etag(event)).isEqualTo("W/\"3\"");
+    }
+
+    @Test
+    void collectionTagChangesWithAnyMember() {
+        Event a = event(1L, WRITTEN);
+        Event b = event(1L, WRITTEN);
+        String before = EntityTags.etag(List.of(a, b));
+
+        b.setUpdatedAt(WRITTEN.plusSeconds(1));
+
+        assertThat(EntityTags.etag(List.of(a, b))).isNotEqualTo(before).endsWith("-2\"");
+        assertThat(EntityTags.etag(List.of(a))).isEqualTo(EntityTags.etag(a));
+        assertThat(EntityTags.lastModified(List.of(a, b))).isEqualTo(WRITTEN.plusSeconds(1).toEpochMilli());
+    }
+
+    @Test
+    void ifMatchAcceptsNoHeaderAStarOrTheCurrentVersion() {
+        Event event = event(12L, WRITTEN);
+
+        assertThat(EntityTags.ifMatch(null, event)).isTrue();
+        assertThat(EntityTags.ifMatch(" ", event)).isTrue();
+        assertThat(EntityTags.ifMatch("*", event)).isTrue();
+        assertThat(EntityTags.ifMatch(EntityTags.etag(event), event)).isTrue();
+    }
+
+    @Test
+    void ifMatchComparesTheVersionOnly() {
+        Event event = event(12L, WRITTEN);
+        String tag = EntityTags.etag(event);
+
+        // A booking bumped the write time (income $inc) but not the version
+        event.setUpdatedAt(WRITTEN.plusSeconds(5));
+
+        assertThat(EntityTags.ifMatch(tag, event)).isTrue();
+    }
+
+    @Test
+    void ifMatchAcceptsOlderTagFormsAndLists() {
+        Event event = event(12L, WRITTEN);
+
+        assertThat(EntityTags.ifMatch("W/\"12\"", event)).isTrue();
+        assertThat(EntityTags.ifMatch("\"12.abc\"", event)).isTrue();
+        assertThat(EntityTags.ifMatch("12", event)).isTrue();
+        assertThat(EntityTags.ifMatch("W/\"10.x\", W/\"12.y\"", event)).isTrue();
+    }
+
+    @Test
+    void ifMatchRejectsAnotherVersion() {
+        Event event = event(12L, WRITTEN);
+
+        assertThat(EntityTags.ifMatch("W/\"11." + Long.toString(WRITTEN.toEpochMilli(), 36) + "\"", event)).isFalse();
+        assertThat(EntityTags.ifMatch("W/\"1\", W/\"120\"", event)).isFalse();
+    }
+
+    @Test
+    void unversionedDocumentMatchesVersionZero() {
+        Event event = event(null, WRITTEN);
+
+        assertThat(EntityTags.ifMatch("W/\"0\"", event)).isTrue();
+        assertThat(EntityTags.ifMatch("W/\"1\"", event)).isFalse();
+    }
+
+    private static Event event(Long version, Instant updatedAt) {
+        Event event = new Event();
+        event.setId(new ObjectId().toHexString());
+        event.setVersion(version);
+        event.setUpdatedAt(updatedAt);
+        return event;
+    }
+}
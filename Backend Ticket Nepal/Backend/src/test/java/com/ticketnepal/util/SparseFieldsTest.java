@@ -0,0 +1,39 @@
+package com.ticketnepal.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SparseFieldsTest {
+
+    private static final List<String> ALLOWED = List.of("id", "name", "price", "eventStart");
+
+    @Test
+    void absentOrBlankSelectsEverything() {
+        assertThat(SparseFields.parse(null, ALLOWED)).containsExactlyElementsOf(ALLOWED);
+        assertThat(SparseFields.parse("  ", ALLOWED)).containsExactlyElementsOf(ALLOWED);
+    }
+
+    @Test
+    void selectionAlwaysKeepsTheId() {
+        assertThat(SparseFields.parse("price,name", ALLOWED)).containsExactly("id", "price", "name");
+    }
+
+    @Test
+    void spacesEmptyEntriesAndRepeatsAreIgnored() {
+        assertThat(SparseFields.parse(" name , ,name,id,", ALLOWED)).containsExactly("id", "name");
+    }
+
+    @Test
+    void unknownFieldIsABadRequest() {
+        assertThatThrownBy(() -> SparseFields.parse("name,password", ALLOWED))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(400);
+                    assertThat(e.getReason()).contains("'password'").contains("id,name,price,eventStart");
+                });
+    }
+}
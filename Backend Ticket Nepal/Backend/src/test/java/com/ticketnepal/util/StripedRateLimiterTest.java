@@ -0,0 +1,128 @@
+package com.ticketnepal.util;
+
+import com.ticketnepal.util.StripedRateLimiter.Policy;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedRateLimiterTest {
+
+    // One token every second
+    private static final Policy POLICY = new Policy("test", 3, 60);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsServedThenTheWaitIsReported() {
+        StripedRateLimiter limiter = new StripedRateLimiter(4, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(POLICY, "a", 0)).isZero();
+        }
+
+        assertThat(limiter.tryAcquire(POLICY, "a", 0)).isEqualTo(SECOND);
+        assertThat(limiter.tryAcquire(POLICY, "a", SECOND / 4)).isEqualTo(SECOND * 3 / 4);
+    }
+
+    @Test
+    void tokensRefillAtTheRateUpToTheBurst() {
+        StripedRateLimiter limiter = new StripedRateLimiter(4, 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(POLICY, "a", 0);
+        }
+
+        assertThat(limiter.tryAcquire(POLICY, "a", SECOND)).isZero();
+        assertThat(limiter.tryAcquire(POLICY, "a", SECOND)).isPositive();
+
+        // A long idle spell refills to the burst, not beyond it
+        long later = SECOND * 60;
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(POLICY, "a", later)).isZero();
+        }
+        assertThat(limiter.tryAcquire(POLICY, "a", later)).isPositive();
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotRefill() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(POLICY, "a", SECOND * 10);
+        }
+
+        assertThat(limiter.tryAcquire(POLICY, "a", 0)).isPositive();
+    }
+
+    @Test
+    void keysAndPoliciesHaveSeparateBuckets() {
+        StripedRateLimiter limiter = new StripedRateLimiter(4, 100);
+        Policy other = new Policy("other", 1, 60);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(POLICY, "a", 0);
+        }
+
+        assertThat(limiter.tryAcquire(POLICY, "b", 0)).isZero();
+        assertThat(limiter.tryAcquire(other, "a", 0)).isZero();
+        assertThat(limiter.size()).isEqualTo(3);
+    }
+
+    @Test
+    void leastRecentlyUsedBucketIsEvictedAndComesBackFull() {
+        // A single stripe, so the cap is exact
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 2);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(POLICY, "a", 0);
+        }
+        limiter.tryAcquire(POLICY, "b", 0);
+        // Touching "a" makes "b" the eldest
+        limiter.tryAcquire(POLICY, "a", 0);
+
+        limiter.tryAcquire(POLICY, "c", 0);
+
+        assertThat(limiter.size()).isEqualTo(2);
+        // "a" survived, still empty
+        assertThat(limiter.tryAcquire(POLICY, "a", 0)).isPositive();
+        // "b" was dropped, so it comes back full (pushing out "c")
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(POLICY, "b", 0)).isZero();
+        }
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void stripeCountIsRoundedUpToAPowerOfTwo() {
+        // 3 stripes become 4, each holding 8 / 4 = 2 keys
+        StripedRateLimiter limiter = new StripedRateLimiter(3, 8);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(POLICY, "key-" + i, 0);
+        }
+
+        assertThat(limiter.size()).isEqualTo(8);
+    }
+
+    @Test
+    void policyNeedsAtLeastOneToken() {
+        assertThatThrownBy(() -> new Policy("bad", 0, 60)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Policy("bad", 1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void socketAddressIsUsedWithoutTrustedProxies() {
+        assertThat(StripedRateLimiter.clientAddress("6.6.6.6", "10.0.0.1", 0)).isEqualTo("10.0.0.1");
+        assertThat(StripedRateLimiter.clientAddress(null, "10.0.0.1", 1)).isEqualTo("10.0.0.1");
+        assertThat(StripedRateLimiter.clientAddress("  ", "10.0.0.1", 1)).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void clientAddressIsReadThatManyHopsFromTheEnd() {
+        // The client sent "6.6.6.6" itself; the proxy appended the address it saw
+        assertThat(StripedRateLimiter.clientAddress("6.6.6.6, 203.0.113.7", "10.0.0.1", 1))
+                .isEqualTo("203.0.113.7");
+        assertThat(StripedRateLimiter.clientAddress("6.6.6.6, 203.0.113.7, 10.0.0.2", "10.0.0.1", 2))
+                .isEqualTo("203.0.113.7");
+        // Fewer hops than trusted proxies: the first entry is the best there is
+        assertThat(StripedRateLimiter.clientAddress("203.0.113.7", "10.0.0.1", 3)).isEqualTo("203.0.113.7");
+        assertThat(StripedRateLimiter.clientAddress("6.6.6.6, ", "10.0.0.1", 1)).isEqualTo("10.0.0.1");
+    }
+}
@@ -0,0 +1,112 @@
+package com.ticketnepal.util;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxStreamWriterTest {
+
+    @Test
+    void packageHasEveryPartAWorkbookNeeds() throws Exception {
+        Map<String, String> parts = write("Attendees", List.of(List.of("seat")));
+
+        assertThat(parts).containsOnlyKeys("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "xl/worksheets/sheet1.xml");
+        // Every part is well-formed XML
+        for (String xml : parts.values()) {
+            parse(xml);
+        }
+        Element sheet = (Element) parse(parts.get("xl/workbook.xml")).getElementsByTagName("sheet").item(0);
+        assertThat(sheet.getAttribute("name")).isEqualTo("Attendees");
+    }
+
+    @Test
+    void cellsAreTypedAndReferencedByColumnAndRow() throws Exception {
+        Map<String, String> parts = write("Sheet", List.of(
+                List.of("seat", "price", "checked in"),
+                Arrays.asList("A1", 1500.0, true),
+                Arrays.asList("A2", null, false)));
+
+        Document sheet = parse(parts.get("xl/worksheets/sheet1.xml"));
+        NodeList rows = sheet.getElementsByTagName("row");
+        assertThat(rows.getLength()).isEqualTo(3);
+        assertThat(((Element) rows.item(2)).getAttribute("r")).isEqualTo("3");
+
+        Element price = cell(sheet, "B2");
+        assertThat(price.hasAttribute("t")).isFalse();
+        assertThat(price.getTextContent()).isEqualTo("1500.0");
+        assertThat(cell(sheet, "C2").getAttribute("t")).isEqualTo("b");
+        assertThat(cell(sheet, "C2").getTextContent()).isEqualTo("1");
+        assertThat(cell(sheet, "C3").getTextContent()).isEqualTo("0");
+        assertThat(cell(sheet, "A2").getAttribute("t")).isEqualTo("inlineStr");
+        assertThat(cell(sheet, "A2").getTextContent()).isEqualTo("A1");
+        // A null leaves the cell out
+        assertThat(cell(sheet, "B3")).isNull();
+    }
+
+    @Test
+    void columnsPastZContinueWithTwoLetters() throws Exception {
+        List<Object> wide = Collections.nCopies(28, "x");
+
+        Document sheet = parse(write("Sheet", List.of(wide)).get("xl/worksheets/sheet1.xml"));
+
+        assertThat(cell(sheet, "Z1")).isNotNull();
+        assertThat(cell(sheet, "AA1")).isNotNull();
+        assertThat(cell(sheet, "AB1")).isNotNull();
+    }
+
+    @Test
+    void markupAndControlCharactersInTextAreEscaped() throws Exception {
+        Map<String, String> parts = write("A & B <x>", List.of(List.of("Ram & \"Sita\" <b>\u0007 राम")));
+
+        Document sheet = parse(parts.get("xl/worksheets/sheet1.xml"));
+        assertThat(cell(sheet, "A1").getTextContent()).isEqualTo("Ram & \"Sita\" <b> राम");
+        Element name = (Element) parse(parts.get("xl/workbook.xml")).getElementsByTagName("sheet").item(0);
+        assertThat(name.getAttribute("name")).isEqualTo("A & B <x>");
+    }
+
+    private static Map<String, String> write(String sheetName, List<List<?>> rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(out, sheetName)) {
+            for (List<?> row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        Map<String, String> parts = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                parts.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return parts;
+    }
+
+    private static Document parse(String xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Element cell(Document sheet, String ref) {
+        NodeList cells = sheet.getElementsByTagName("c");
+        for (int i = 0; i < cells.getLength(); i++) {
+            Element cell = (Element) cells.item(i);
+            if (cell.getAttribute("r").equals(ref)) return cell;
+        }
+        return null;
+    }
+}
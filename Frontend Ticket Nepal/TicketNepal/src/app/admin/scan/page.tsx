@@ -719,7 +719,7 @@ export default function ScanTicketPage() {
                     {scannedTicket && (
                       <div>
                         <div className="font-semibold mb-2">Ticket ID: {scannedTicket.id}</div>
-                        <div><strong>User Name:</strong> {scannedTicket.userName}</div>
+                        <div><strong>User ID:</strong> {String(scannedTicket.userId)}</div>
                         <div><strong>Seat:</strong> {scannedTicket.seat}</div>
                         <div><strong>Event ID:</strong> {String(scannedTicket.eventId)}</div>
                         <div className="mt-2">
@@ -773,7 +773,7 @@ export default function ScanTicketPage() {
               <CardContent className="p-4">
                 <div>
                   <div><strong>Ticket ID:</strong> {scannedTicket.id}</div>
-                  <div><strong>User Name:</strong> {scannedTicket.userName}</div>
+                  <div><strong>User ID:</strong> {String(scannedTicket.userId)}</div>
                   <div><strong>Seat:</strong> {scannedTicket.seat}</div>
                   <div><strong>Event ID:</strong> {String(scannedTicket.eventId)}</div>
                   {/* Always use String(id) when passing IDs */}
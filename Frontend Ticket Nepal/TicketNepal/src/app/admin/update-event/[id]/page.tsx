@@ -15,6 +15,7 @@ import "react-datepicker/dist/react-datepicker.css";
 import "@/styles/datepicker-custom.css";
 import { format } from "date-fns";
 import { toSafeDate } from "@/lib/utils";
+import { seatCount } from "@/lib/seat-map";
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from "@/components/ui/card";
 import { Badge } from "@/components/ui/badge";
 import { Progress } from "@/components/ui/progress";
@@ -41,6 +42,8 @@ export default function UpdateEventPage() {
   const router = useRouter();
   const [loading, setLoading] = useState(true);
   const [initialData, setInitialData] = useState<any>(null);
+  // Version of the event this form was loaded from; sent as If-Match so a concurrent edit isn't overwritten
+  const [eventTag, setEventTag] = useState<string | null>(null);
   const [customCategory, setCustomCategory] = useState("");
   const [selectedCategory, setSelectedCategory] = useState("");
   const [isSubmitting, setIsSubmitting] = useState(false);
@@ -96,13 +99,14 @@ export default function UpdateEventPage() {
         });
         if (res.ok) {
           const event = await res.json();
+          setEventTag(res.headers.get("ETag"));
           setInitialData(event);
           form.reset({
             name: event.name,
             description: event.description,
             category: event.category,
             location: event.location,
-            seatCount: event.seats?.length || 10,
+            seatCount: seatCount(event.seatMap) || 10,
             price: event.price,
             eventStart: new Date(event.eventStart),
             eventEnd: new Date(event.eventEnd),
@@ -147,7 +151,7 @@ export default function UpdateEventPage() {
     formData.append("eventStart", values.eventStart.toISOString());
     formData.append("eventEnd", values.eventEnd.toISOString());
     formData.append("location", values.location);
-    formData.append("seats", initialData?.seats?.join(",") || "");
+    // Seats are left out: the seat map is unchanged, and resending it would rewrite it
     formData.append("price", values.price.toString());
     if (values.image && values.image.length > 0 && values.image[0]) {
       formData.append("image", values.image[0]);
@@ -157,10 +161,13 @@ export default function UpdateEventPage() {
     try {
       const API_URL = process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080";
       const token = localStorage.getItem("authToken");
+      const headers: Record<string, string> = {};
+      if (token) headers.Authorization = `Bearer ${token}`;
+      if (eventTag) headers["If-Match"] = eventTag;
       const response = await fetch(`${API_URL}/api/events/${params.id}`, {
         method: "PUT",
         body: formData,
-        headers: token ? { Authorization: `Bearer ${token}` } : {},
+        headers,
       });
       if (response.ok) {
         toast({ title: "Event Updated!", description: "Your event has been updated successfully." });
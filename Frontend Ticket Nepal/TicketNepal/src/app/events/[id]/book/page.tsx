@@ -2,7 +2,7 @@
 
 import { notFound, useParams, useRouter } from "next/navigation";
 import Link from "next/link";
-import { useContext, useEffect, useState } from "react";
+import { useContext, useEffect, useRef, useState } from "react";
 import { zodResolver } from "@hookform/resolvers/zod";
 import { useForm } from "react-hook-form";
 import { z } from "zod";
@@ -19,6 +19,7 @@ import { useToast } from "@/hooks/use-toast";
 import { Form, FormControl, FormField, FormItem, FormLabel, FormMessage } from "@/components/ui/form";
 import { Input } from "@/components/ui/input";
 import type { Event } from "@/lib/types";
+import { seatLabels } from "@/lib/seat-map";
 
 const paymentFormSchema = z.object({
   cardNumber: z.string().regex(/^\d{16}$/, "Must be 16 digits"),
@@ -38,9 +39,12 @@ export default function BookTicketPage() {
   // Move ALL hooks to the top before any conditional returns
   const [selectedSeats, setSelectedSeats] = useState<string[]>([]);
   const [reservedSeats, setReservedSeats] = useState<string[]>([]);
+  const [seats, setSeats] = useState<string[]>([]);
   const [showPayment, setShowPayment] = useState(false);
   const [loading, setLoading] = useState(false);
   const [isExpired, setIsExpired] = useState(false);
+  // One Idempotency-Key per checkout attempt: resubmitting after a timeout can't book the seats twice
+  const bookingKey = useRef<string | null>(null);
 
   const form = useForm<z.infer<typeof paymentFormSchema>>({
     resolver: zodResolver(paymentFormSchema),
@@ -71,6 +75,15 @@ export default function BookTicketPage() {
     }
   }, [event, router, toast]);
 
+  // The listing has no seats; the seat map comes from the event detail and is expanded here
+  useEffect(() => {
+    if (!event) return;
+    fetch(`${process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080"}/api/events/${event.id}`)
+      .then((res) => (res.ok ? res.json() : null))
+      .then((detail) => setSeats(seatLabels(detail?.seatMap)))
+      .catch(() => setSeats([]));
+  }, [event?.id]);
+
   // Fetch reserved seats for the event
   const fetchReservedSeats = async () => {
     if (!event) return;
@@ -170,6 +183,7 @@ export default function BookTicketPage() {
   }
 
   const handleToggleSeat = (seatId: string) => {
+    bookingKey.current = null;
     setSelectedSeats((prev) =>
       prev.includes(seatId)
         ? prev.filter((s) => s !== seatId)
@@ -195,10 +209,12 @@ export default function BookTicketPage() {
     if (!currentUser) return;
     try {
       const token = localStorage.getItem('authToken');
+      bookingKey.current ??= crypto.randomUUID();
       const response = await fetch(`${process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080"}/api/tickets`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
+          'Idempotency-Key': bookingKey.current,
           ...(token && { Authorization: `Bearer ${token}` }),
         },
         body: JSON.stringify({
@@ -209,6 +225,7 @@ export default function BookTicketPage() {
       });
 
       if (response.ok) {
+        bookingKey.current = null;
         const { tickets, transactionId } = await response.json();
         toast({ title: "Booking Successful!", description: `Your ${selectedSeats.length > 1 ? 'tickets have' : 'ticket has'} been booked.` });
         setReservedSeats((prev) => [...prev, ...selectedSeats]);
@@ -219,7 +236,8 @@ export default function BookTicketPage() {
         }, 350);
       } else {
         const err = await response.json();
-        if (response.status === 409) {
+        if (response.status === 409 && !response.headers.get('Retry-After')) {
+          bookingKey.current = null;
           toast({
             title: "Seat already reserved!",
             description: err.error || `Seat ${err.seat || ''} was just reserved. Please choose another.`,
@@ -247,7 +265,7 @@ export default function BookTicketPage() {
   // Only render booking UI if event is defined
   if (!event) return null;
 
-  console.log('Event seats:', event?.seats ?? []);
+  console.log('Event seats:', seats);
   console.log('Reserved seats:', reservedSeats);
 
   return (
@@ -279,7 +297,7 @@ export default function BookTicketPage() {
             <CardContent>
               <div className="mb-6">
                 <SeatMap
-                  seats={event && event.seats ? event.seats : []}
+                  seats={seats}
                   selectedSeats={selectedSeats}
                   reservedSeats={reservedSeats}
                   onToggleSeat={handleToggleSeat}
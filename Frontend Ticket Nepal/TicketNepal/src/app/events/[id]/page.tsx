@@ -10,6 +10,7 @@ import { Badge } from "@/components/ui/badge";
 import { Calendar, MapPin, Tag, Clock, CheckCircle, Ban, Users, Star, AlertCircle, ArrowLeft } from "lucide-react";
 import { UserContext } from "@/context/UserContext";
 import { toSafeDate } from "@/lib/utils";
+import { seatCount } from "@/lib/seat-map";
 import { useToast } from "@/hooks/use-toast";
 
 export default function EventDetailPage() {
@@ -249,7 +250,7 @@ export default function EventDetailPage() {
                     <div>
                       <div className="font-semibold">Tickets Sold</div>
                       <div className="text-sm text-muted-foreground">
-                        {ticketsSold} / {event.seats?.length || 0} seats
+                        {ticketsSold} / {seatCount(event.seatMap)} seats
                       </div>
                     </div>
                   </div>
@@ -26,7 +26,6 @@ interface Event {
   organizer: string | { name: string };
   imageUrl: string;
   price: number;
-  seats?: string[];
   ticketsSold?: number;
   income?: number;
 }
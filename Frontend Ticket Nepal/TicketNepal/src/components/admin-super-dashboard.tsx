@@ -81,7 +81,9 @@ export function AdminSuperDashboard() {
           headers: token ? { Authorization: `Bearer ${token}` } : {},
         });
         const users = usersResponse.ok ? await usersResponse.json() : [];
-        setUserCount(Array.isArray(users) ? users.length : 0);
+        // The list is paginated; the first page carries the total in X-Total-Count
+        const totalUsers = Number(usersResponse.headers.get('X-Total-Count'));
+        setUserCount(totalUsers || (Array.isArray(users) ? users.length : 0));
 
         // Get recent users
         const recentUsersData = users
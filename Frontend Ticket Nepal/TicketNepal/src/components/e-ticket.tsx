@@ -3,9 +3,10 @@ import Image from "next/image"
 import type { Ticket } from "@/lib/types"
 import { Button } from "./ui/button"
 import { Download } from "lucide-react"
-import { useRef, useState } from "react"
+import { useContext, useRef, useState } from "react"
 import { Dialog, DialogContent, DialogTitle } from "./ui/dialog"
 import { VisuallyHidden } from "@radix-ui/react-visually-hidden";
+import { UserContext } from "@/context/UserContext";
 
 interface ETicketProps {
   ticket: Ticket;
@@ -14,6 +15,7 @@ interface ETicketProps {
 export function ETicket({ ticket }: ETicketProps) {
   const downloadRef = useRef<HTMLAnchorElement>(null);
   const [qrOpen, setQrOpen] = useState(false);
+  const { currentUser } = useContext(UserContext);
   if (!ticket.event) return null;
 
   // Fix event image URL
@@ -80,7 +82,7 @@ export function ETicket({ ticket }: ETicketProps) {
           </p>
           <div className="flex flex-wrap gap-2 items-center mb-2">
             <span className="inline-block px-2 py-1 text-xs bg-muted rounded font-mono text-muted-foreground">Seat: <b>{ticket.seat}</b></span>
-            <span className="inline-block px-2 py-1 text-xs bg-muted rounded font-mono text-muted-foreground">Attendee: <b>{ticket.userName}</b></span>
+            <span className="inline-block px-2 py-1 text-xs bg-muted rounded font-mono text-muted-foreground">Attendee: <b>{currentUser?.name}</b></span>
           </div>
         </div>
         <div className="flex flex-col gap-2 mt-2">
@@ -36,7 +36,7 @@ interface DashboardData {
     eventStart: string;
     eventEnd: string;
     status: string;
-    seats: string[];
+    seatCount: number;
   }>;
   statistics: {
     totalRevenue: number;
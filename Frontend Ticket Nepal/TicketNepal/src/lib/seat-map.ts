@@ -0,0 +1,44 @@
+// Seat maps come from the backend as runs of seats per row ("A" 1..25), not one label per seat.
+
+export interface SeatBlock {
+  section?: string | null;
+  row: string;
+  from: number; // negative: a single seat labelled exactly `row`
+  to: number;
+  tier?: string | null;
+}
+
+export interface PriceTier {
+  name: string;
+  price: number;
+}
+
+export interface SeatMapData {
+  blocks: SeatBlock[];
+  tiers?: PriceTier[];
+  capacity?: number;
+}
+
+function blockPrefix(block: SeatBlock): string {
+  return block.section ? `${block.section}-${block.row}` : block.row;
+}
+
+/** Every seat label, in seat-index order. */
+export function seatLabels(seatMap?: SeatMapData | null): string[] {
+  const labels: string[] = [];
+  for (const block of seatMap?.blocks ?? []) {
+    const prefix = blockPrefix(block);
+    if (block.from < 0) {
+      labels.push(prefix);
+      continue;
+    }
+    for (let n = block.from; n <= block.to; n++) labels.push(`${prefix}${n}`);
+  }
+  return labels;
+}
+
+export function seatCount(seatMap?: SeatMapData | null): number {
+  if (!seatMap) return 0;
+  if (typeof seatMap.capacity === "number") return seatMap.capacity;
+  return (seatMap.blocks ?? []).reduce((total, b) => total + (b.from < 0 ? 1 : b.to - b.from + 1), 0);
+}
@@ -1,3 +1,4 @@
+import type { SeatMapData } from "./seat-map";
 
 export interface Event {
   id: string;
@@ -11,7 +12,7 @@ export interface Event {
   organizer: string | { name: string };
   imageUrl: string;
   price: number;
-  seats?: string[];
+  seatMap?: SeatMapData; // detail endpoint only; expand with seatLabels()
   // Optional fields enriched by backend in some endpoints
   ticketsSold?: number;
 }
@@ -20,7 +21,6 @@ export interface Ticket {
   id: string;
   eventId: string;
   userId: string;
-  userName: string;
   seat: string;
   qrCodeUrl: string;
   event?: Event;